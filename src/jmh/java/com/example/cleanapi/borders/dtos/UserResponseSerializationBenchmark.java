@@ -0,0 +1,87 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Jackson serialization of UserResponseDto, alone and in lists
+ * Output goes to a discarding stream so only serialization cost is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final CountingSink sink = new CountingSink();
+
+    private ObjectWriter userWriter;
+    private ObjectWriter listWriter;
+
+    private UserResponseDto user;
+    private List<UserResponseDto> users;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the application's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userWriter = objectMapper.writerFor(UserResponseDto.class);
+        listWriter = objectMapper.writerFor(new TypeReference<List<UserResponseDto>>() {});
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(new UserResponseDto((long) i + 1, "User Number " + i, "user" + i + "@example.com",
+                                          createdAt.plusSeconds(i), createdAt.plusSeconds(i), 0L));
+        }
+        user = users.get(0);
+    }
+
+    @Benchmark
+    public long serializeUser() throws IOException {
+        userWriter.writeValue(sink, user);
+        return sink.count;
+    }
+
+    @Benchmark
+    public long serializeUserList() throws IOException {
+        listWriter.writeValue(sink, users);
+        return sink.count;
+    }
+
+    /**
+     * Discards output but survives close(), which Jackson calls after every write
+     */
+    private static final class CountingSink extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.cleanapi.borders.validators;
+
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for UserValidator on valid and invalid input
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserValidatorBenchmark {
+
+    private final UserValidator validator = new UserValidator();
+    private UserValidator largeListValidator;
+
+    private final CreateUserDto validCreate = new CreateUserDto("John Doe", "john.doe@example.com");
+    // Fails several rules at once: too short, bad characters, disposable domain
+    private final CreateUserDto invalidCreate = new CreateUserDto("J1", "john@tempmail.org");
+
+    private final UpdateUserDto validUpdate = new UpdateUserDto("Jane Doe", "jane.doe@example.com");
+    private final UpdateUserDto invalidUpdate = new UpdateUserDto("Jane  Doe", "not-an-email");
+
+    @Setup
+    public void setUp() throws IOException {
+        // Size of a real-world disposable-domain list
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            list.append("disposable").append(i).append(".example\n");
+        }
+        DisposableDomainSet domains = DisposableDomainSet.read(
+            new ByteArrayInputStream(list.toString().getBytes(StandardCharsets.UTF_8)));
+        largeListValidator = new UserValidator(() -> domains);
+    }
+
+    @Benchmark
+    public UserValidator.ValidationResult validateCreateUserValid() {
+        return validator.validateCreateUser(validCreate);
+    }
+
+    @Benchmark
+    public UserValidator.ValidationResult validateCreateUserInvalid() {
+        return validator.validateCreateUser(invalidCreate);
+    }
+
+    @Benchmark
+    public UserValidator.ValidationResult validateCreateUserValidLargeList() {
+        return largeListValidator.validateCreateUser(validCreate);
+    }
+
+    @Benchmark
+    public UserValidator.ValidationResult validateUpdateUserValid() {
+        return validator.validateUpdateUser(validUpdate);
+    }
+
+    @Benchmark
+    public UserValidator.ValidationResult validateUpdateUserInvalid() {
+        return validator.validateUpdateUser(invalidUpdate);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the domain/JPA entity mapping in UserRepositoryImpl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMappingBenchmark {
+
+    // The mapping functions never touch the Spring Data repository
+    private final UserRepositoryImpl repository = new UserRepositoryImpl(null, null);
+
+    private User user;
+    private UserJpaEntity jpaEntity;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        user = new User(42L, "John Doe", "john.doe@example.com", now, now, 3L);
+        jpaEntity = new UserJpaEntity("John Doe", "john.doe@example.com", now, now);
+        jpaEntity.setId(42L);
+        jpaEntity.setVersion(3L);
+    }
+
+    @Benchmark
+    public UserJpaEntity mapToJpaEntity() {
+        return repository.mapToJpaEntity(user);
+    }
+
+    @Benchmark
+    public User mapToDomainEntity() {
+        return repository.mapToDomainEntity(jpaEntity);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.CleanApiApplication;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading a page of users through the domain mapping chain
+ * versus the DTO projection of JpaUserQueryRepository, against embedded H2
+ * Scores are per row; run with the gc profiler (as -Pbench does) for bytes per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserReadPathBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private UserRepositoryImpl userRepository;
+    private JpaUserQueryRepository queryRepository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CleanApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties("spring.datasource.url=jdbc:h2:mem:read-path-bench;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.cleanapi=WARN")
+            .run();
+        userRepository = context.getBean(UserRepositoryImpl.class);
+        queryRepository = context.getBean(JpaUserQueryRepository.class);
+
+        List<User> users = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            users.add(new User("User Number " + (char) ('a' + i % 26), "user" + i + "@example.com"));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<UserResponseDto> domainMappingChain() {
+        // UserJpaEntity -> User -> UserResponseDto, as reads worked before the query port
+        return userRepository.findPage(null, null, PAGE_SIZE)
+                             .stream()
+                             .map(UserResponseDto::of)
+                             .toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<UserResponseDto> dtoProjection() {
+        return queryRepository.findPage(null, null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the User to UserResponseDto mapping in UserUseCaseImpl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserResponseMappingBenchmark {
+
+    // The mapping never touches the repositories or the validator
+    private final UserUseCaseImpl useCase = new UserUseCaseImpl(null, null, null, null, null, null, null);
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        user = new User(42L, "John Doe", "john.doe@example.com", now, now, 3L);
+    }
+
+    @Benchmark
+    public UserResponseDto mapToResponseDto() {
+        return useCase.mapToResponseDto(user);
+    }
+}
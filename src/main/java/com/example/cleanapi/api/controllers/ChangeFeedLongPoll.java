@@ -0,0 +1,110 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.interfaces.UserChangeListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Parks change feed requests that found nothing new until a change commits
+ * A parked request holds no thread: it is woken by the commit notification, or
+ * answered with an empty page when its wait runs out. The page is read again on
+ * the task executor, never on the thread that committed the write. A page that
+ * is still empty, because the commit sits behind a change still in flight,
+ * parks the request again until the next commit.
+ */
+@Component
+class ChangeFeedLongPoll implements UserChangeListener {
+
+    private final TaskExecutor executor;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    // Notifications can arrive out of order; keep the highest
+    private final AtomicLong lastCommitted = new AtomicLong(-1);
+    // Bumped by every notification, so a re-parked request sees commits made while it read
+    private final AtomicLong notifications = new AtomicLong();
+
+    ChangeFeedLongPoll(@Qualifier("applicationTaskExecutor") TaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Wait for changes after {@code since}, then answer with the page read by {@code read}
+     * @param since Sequence number the caller has already seen
+     * @param wait How long to wait before answering with an empty page
+     * @param read Reads the page once changes are there
+     */
+    DeferredResult<UserChangePageDto> await(long since, Duration wait, Supplier<UserChangePageDto> read) {
+        DeferredResult<UserChangePageDto> result =
+            new DeferredResult<>(wait.toMillis(), () -> UserChangePageDto.empty(since));
+        Waiter waiter = new Waiter(since, result, read);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // A change that committed after the caller's read but before this waiter was queued
+        if (lastCommitted.get() > since) {
+            wake(waiter);
+        }
+        return result;
+    }
+
+    @Override
+    public void changesCommitted(long lastSequence) {
+        lastCommitted.accumulateAndGet(lastSequence, Math::max);
+        notifications.incrementAndGet();
+        for (Waiter waiter : waiters) {
+            if (waiter.since < lastSequence) {
+                wake(waiter);
+            }
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        // Only the first wake-up reads the page
+        if (waiters.remove(waiter)) {
+            executor.execute(() -> answer(waiter));
+        }
+    }
+
+    private void answer(Waiter waiter) {
+        long seen = notifications.get();
+        UserChangePageDto page;
+        try {
+            page = waiter.read.get();
+        } catch (RuntimeException e) {
+            waiter.result.setErrorResult(e);
+            return;
+        }
+        if (!page.getChanges().isEmpty()) {
+            waiter.result.setResult(page);
+            return;
+        }
+        waiters.add(waiter);
+        if (waiter.result.isSetOrExpired()) {
+            // Timed out while reading; its completion callback has already run
+            waiters.remove(waiter);
+        } else if (notifications.get() != seen) {
+            wake(waiter);
+        }
+    }
+
+    // Identity semantics: two requests for the same position are still two waiters
+    private static final class Waiter {
+
+        private final long since;
+        private final DeferredResult<UserChangePageDto> result;
+        private final Supplier<UserChangePageDto> read;
+
+        Waiter(long since, DeferredResult<UserChangePageDto> result, Supplier<UserChangePageDto> read) {
+            this.since = since;
+            this.result = result;
+            this.read = read;
+        }
+    }
+}
@@ -1,63 +1,208 @@
 package com.example.cleanapi.api.controllers;
 
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.IngestionQueueFullException;
+import com.example.cleanapi.borders.exceptions.IngestionTimeoutException;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Global exception handler for the API
- * Provides consistent error responses across the application
+ * Provides consistent error responses across the application.
+ * Domain exceptions map straight to their status: missing user 404,
+ * email conflict 409, version mismatch 412, failed validation 422.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Pre-serialized bodies for the failures clients trigger most often
+    private static final PreparedErrorBody USER_NOT_FOUND_BODY =
+            PreparedErrorBody.of(HttpStatus.NOT_FOUND, UserNotFoundException.MESSAGE_PREFIX);
+    private static final PreparedErrorBody EMAIL_CONFLICT_BODY =
+            PreparedErrorBody.of(HttpStatus.CONFLICT, EmailConflictException.DEFAULT_MESSAGE);
+
+    private final boolean preparedBodies;
+
+    public GlobalExceptionHandler() {
+        this(true);
+    }
+
     /**
-     * Handle validation errors from @Valid annotations
+     * @param preparedBodies Whether common errors are answered with pre-serialized bodies
+     *                       instead of going through the message converters
      */
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationExceptions(
-            MethodArgumentNotValidException ex) {
-        
-        Map<String, String> validationErrors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            validationErrors.put(fieldName, errorMessage);
-        });
+    @Autowired
+    public GlobalExceptionHandler(@Value("${app.errors.prepared-bodies:true}") boolean preparedBodies) {
+        this.preparedBodies = preparedBodies;
+    }
 
+    /**
+     * Handle IllegalArgumentException (business logic errors)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex, WebRequest request) {
+        
         ErrorResponse errorResponse = new ErrorResponse(
-                "Validation failed",
+                ex.getMessage(),
                 HttpStatus.BAD_REQUEST.value(),
                 LocalDateTime.now(),
-                validationErrors
+                null
         );
 
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
     /**
-     * Handle IllegalArgumentException (business logic errors)
+     * Handle lookups of users that do not exist
      */
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
-            IllegalArgumentException ex, WebRequest request) {
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<?> handleUserNotFoundException(
+            UserNotFoundException ex, WebRequest request) {
+        
+        if (preparedBodies) {
+            return USER_NOT_FOUND_BODY.toResponse(String.valueOf(ex.getUserId()), LocalDateTime.now());
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.of(HttpStatus.NOT_FOUND, ex.getMessage()));
+    }
+
+    /**
+     * Handle email unique constraint violations
+     */
+    @ExceptionHandler(EmailConflictException.class)
+    public ResponseEntity<?> handleEmailConflictException(
+            EmailConflictException ex, WebRequest request) {
+        
+        if (preparedBodies && EmailConflictException.DEFAULT_MESSAGE.equals(ex.getMessage())) {
+            return EMAIL_CONFLICT_BODY.toResponse(LocalDateTime.now());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of(HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    /**
+     * Handle input that is well-formed but breaks a business validation rule
+     */
+    @ExceptionHandler(ValidationFailedException.class)
+    public ResponseEntity<ErrorResponse> handleValidationFailedException(
+            ValidationFailedException ex, WebRequest request) {
         
         ErrorResponse errorResponse = new ErrorResponse(
                 ex.getMessage(),
-                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                LocalDateTime.now(),
+                validationErrorsByField(ex.getErrors())
+        );
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    /**
+     * Group validator messages by the field they name; messages about the
+     * request as a whole go under "user". Several messages for one field are
+     * joined with "; ".
+     */
+    static Map<String, String> validationErrorsByField(List<String> errors) {
+        Map<String, String> validationErrors = new LinkedHashMap<>();
+        for (String error : errors) {
+            validationErrors.merge(fieldOf(error), error, (first, next) -> first + "; " + next);
+        }
+        return validationErrors;
+    }
+
+    private static String fieldOf(String error) {
+        String lower = error.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("name")) {
+            return "name";
+        }
+        if (lower.contains("email")) {
+            return "email";
+        }
+        return "user";
+    }
+
+    /**
+     * Handle conditional writes whose If-Match no longer matches the stored version
+     */
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleVersionMismatchException(
+            VersionMismatchException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.PRECONDITION_FAILED.value(),
                 LocalDateTime.now(),
                 null
         );
 
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
+    /**
+     * Handle creates turned away by a full ingestion queue
+     */
+    @ExceptionHandler(IngestionQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleIngestionQueueFullException(
+            IngestionQueueFullException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle creates that were not written within the ingestion wait limit
+     * No Retry-After: the user may still have been stored, so a blind retry could conflict
+     */
+    @ExceptionHandler(IngestionTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleIngestionTimeoutException(
+            IngestionTimeoutException ex, WebRequest request) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ErrorResponse.of(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    /**
+     * Handle request bodies sent with a content type the endpoint does not accept
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException ex, WebRequest request) {
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .headers(ex.getHeaders())
+                .body(errorResponse);
     }
 
     /**
@@ -105,6 +250,13 @@ public class GlobalExceptionHandler {
 
         public ErrorResponse() {}
 
+        /**
+         * Error without field-level details, stamped with the current time
+         */
+        public static ErrorResponse of(HttpStatus status, String message) {
+            return new ErrorResponse(message, status.value(), LocalDateTime.now(), null);
+        }
+
         public ErrorResponse(String message, int status, LocalDateTime timestamp, Map<String, String> validationErrors) {
             this.message = message;
             this.status = status;
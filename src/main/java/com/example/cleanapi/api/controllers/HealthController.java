@@ -1,5 +1,11 @@
 package com.example.cleanapi.api.controllers;
 
+import com.example.cleanapi.repositories.BloomFilterUserRepository;
+import com.example.cleanapi.repositories.CachingUserRepository;
+import com.example.cleanapi.repositories.ReadWriteRoutingDataSource;
+import com.example.cleanapi.usecases.GroupCommitUserUseCase;
+import com.example.cleanapi.usecases.SingleFlightUserUseCase;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,15 +15,135 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1")
 @Tag(name = "Health check", description = "Simple health check")
 public class HealthController {
 
+    private final ObjectProvider<CachingUserRepository> userCache;
+    private final ObjectProvider<BloomFilterUserRepository> emailFilter;
+    private final ObjectProvider<SingleFlightUserUseCase> singleFlight;
+    private final ObjectProvider<GroupCommitUserUseCase> ingestion;
+    private final ObjectProvider<DataSource> dataSource;
+
+    public HealthController(ObjectProvider<CachingUserRepository> userCache,
+                            ObjectProvider<BloomFilterUserRepository> emailFilter,
+                            ObjectProvider<SingleFlightUserUseCase> singleFlight,
+                            ObjectProvider<GroupCommitUserUseCase> ingestion,
+                            ObjectProvider<DataSource> dataSource) {
+        this.userCache = userCache;
+        this.emailFilter = emailFilter;
+        this.singleFlight = singleFlight;
+        this.ingestion = ingestion;
+        this.dataSource = dataSource;
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Simple health check endpoint")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Application service is running!");
     }
+
+    @GetMapping("/health/cache")
+    @Operation(summary = "User cache statistics", description = "Hit, miss and eviction counters of the user repository cache")
+    @ApiResponse(responseCode = "200", description = "Cache statistics")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        CachingUserRepository cache = userCache.getIfAvailable();
+        stats.put("enabled", cache != null);
+        if (cache != null) {
+            stats.put("size", cache.size());
+            stats.put("hits", cache.getHits());
+            stats.put("misses", cache.getMisses());
+            stats.put("evictions", cache.getEvictions());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/health/email-filter")
+    @Operation(summary = "Email filter statistics", description = "False-positive rate and memory footprint of the email Bloom filter")
+    @ApiResponse(responseCode = "200", description = "Email filter statistics")
+    public ResponseEntity<Map<String, Object>> emailFilterStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        BloomFilterUserRepository filter = emailFilter.getIfAvailable();
+        stats.put("enabled", filter != null);
+        if (filter != null) {
+            stats.put("ready", filter.isReady());
+            stats.put("insertions", filter.getInsertions());
+            stats.put("memory_bytes", filter.getMemoryBytes());
+            stats.put("expected_false_positive_rate", filter.getExpectedFalsePositiveRate());
+            stats.put("observed_false_positive_rate", filter.getObservedFalsePositiveRate());
+            stats.put("definitely_absent", filter.getDefinitelyAbsent());
+            stats.put("possibly_present", filter.getPossiblyPresent());
+            stats.put("false_positives", filter.getFalsePositives());
+            stats.put("stale_entries", filter.getStaleEntries());
+            stats.put("rebuilds", filter.getRebuilds());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/health/single-flight")
+    @Operation(summary = "Read coalescing statistics", description = "How many concurrent user reads shared a lookup already in flight")
+    @ApiResponse(responseCode = "200", description = "Read coalescing statistics")
+    public ResponseEntity<Map<String, Object>> singleFlightStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        SingleFlightUserUseCase coalescer = singleFlight.getIfAvailable();
+        stats.put("enabled", coalescer != null);
+        if (coalescer != null) {
+            stats.put("in_flight", coalescer.inFlight());
+            stats.put("loads", coalescer.getLoads());
+            stats.put("joins", coalescer.getJoins());
+            stats.put("timeouts", coalescer.getTimeouts());
+            stats.put("coalescing_ratio", coalescer.getCoalescingRatio());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/health/ingestion")
+    @Operation(summary = "Group commit statistics", description = "Queue depth, batch sizes and write times of asynchronous user ingestion")
+    @ApiResponse(responseCode = "200", description = "Group commit statistics")
+    public ResponseEntity<Map<String, Object>> ingestionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        GroupCommitUserUseCase groupCommit = ingestion.getIfAvailable();
+        stats.put("enabled", groupCommit != null);
+        if (groupCommit != null) {
+            long batches = groupCommit.getBatches();
+            long written = groupCommit.getCommitted() + groupCommit.getFailed();
+            stats.put("queued", groupCommit.getQueued());
+            stats.put("batches", batches);
+            stats.put("committed", groupCommit.getCommitted());
+            stats.put("failed", groupCommit.getFailed());
+            stats.put("rejected", groupCommit.getRejected());
+            stats.put("timed_out", groupCommit.getTimedOut());
+            stats.put("average_batch_size", groupCommit.getAverageBatchSize());
+            stats.put("average_commit_ms", batches == 0 ? 0.0 : groupCommit.getCommitNanos() / 1e6 / batches);
+            stats.put("average_queue_ms", written == 0 ? 0.0 : groupCommit.getQueueNanos() / 1e6 / written);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/health/read-replicas")
+    @Operation(summary = "Read replica routing statistics", description = "Connections handed out per role, failovers and the replicas in rotation")
+    @ApiResponse(responseCode = "200", description = "Read replica routing statistics")
+    public ResponseEntity<Map<String, Object>> readReplicaStats() throws SQLException {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        DataSource pool = dataSource.getIfAvailable();
+        // The routing DataSource sits behind the statement instrumentation wrapper
+        ReadWriteRoutingDataSource routing = pool != null && pool.isWrapperFor(ReadWriteRoutingDataSource.class)
+            ? pool.unwrap(ReadWriteRoutingDataSource.class) : null;
+        stats.put("enabled", routing != null);
+        if (routing != null) {
+            stats.put("primary_connections", routing.getPrimaryConnections());
+            stats.put("replica_connections", routing.getReplicaConnections());
+            stats.put("failovers", routing.getFailovers());
+            stats.put("healthy_replicas", routing.getHealthyReplicas());
+        }
+        return ResponseEntity.ok(stats);
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes user rows as newline-delimited JSON straight to an output stream
+ * Field names and date format match {@link com.example.cleanapi.borders.dtos.UserResponseDto}
+ */
+class NdjsonUserWriter implements UserRowConsumer, Closeable {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final JsonGenerator generator;
+
+    NdjsonUserWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        // Lines are separated explicitly; the default root separator is a space
+        this.generator.setRootValueSeparator(null);
+        // The servlet container owns the response stream
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void accept(long id, String name, String email,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", name);
+        generator.writeStringField("email", email);
+        writeDateField("created_at", createdAt);
+        writeDateField("updated_at", updatedAt);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeDateField(String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, DATE_FORMAT.format(value));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.cleanapi.api.controllers;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * An ErrorResponse body serialized once up front
+ * Only the timestamp, and optionally a tail appended to the message, are
+ * written per response; the bytes match what Jackson produces for the
+ * equivalent ErrorResponse.
+ */
+final class PreparedErrorBody {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+    private static final byte[] TAIL = "\",\"validationErrors\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpStatus status;
+    // {"message":"<fixed message>
+    private final byte[] head;
+    // ","status":<code>,"timestamp":"
+    private final byte[] middle;
+
+    private PreparedErrorBody(HttpStatus status, String message) {
+        this.status = status;
+        this.head = concat("{\"message\":\"".getBytes(StandardCharsets.UTF_8), ENCODER.quoteAsUTF8(message));
+        this.middle = ("\",\"status\":" + status.value() + ",\"timestamp\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param message The message, or its fixed leading part when a tail is supplied per response
+     */
+    static PreparedErrorBody of(HttpStatus status, String message) {
+        return new PreparedErrorBody(status, message);
+    }
+
+    ResponseEntity<byte[]> toResponse(LocalDateTime timestamp) {
+        return toResponse(null, timestamp);
+    }
+
+    /**
+     * @param messageTail Text appended to the prepared message, e.g. the id that was not found
+     */
+    ResponseEntity<byte[]> toResponse(String messageTail, LocalDateTime timestamp) {
+        byte[] tail = messageTail == null ? new byte[0] : ENCODER.quoteAsUTF8(messageTail);
+        byte[] time = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp).getBytes(StandardCharsets.US_ASCII);
+
+        byte[] body = new byte[head.length + tail.length + middle.length + time.length + TAIL.length];
+        int offset = 0;
+        offset = put(body, offset, head);
+        offset = put(body, offset, tail);
+        offset = put(body, offset, middle);
+        offset = put(body, offset, time);
+        put(body, offset, TAIL);
+
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static int put(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        put(result, put(result, 0, first), second);
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes only the requested user fields as JSON, straight from the projected columns
+ * Each user is written once into a shared buffer; the response is then laid out
+ * as a single object, an array or a lookup result around those fragments.
+ * Field names and date format match {@link com.example.cleanapi.borders.dtos.UserResponseDto}.
+ */
+class SparseUserJsonWriter implements UserFieldConsumer {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final JsonFactory jsonFactory;
+    private final Set<UserField> fields;
+    private final CharArrayWriter buffer = new CharArrayWriter();
+    private final JsonGenerator generator;
+
+    // End offset in the buffer and ID of each user written so far
+    private int[] ends = new int[16];
+    private long[] ids = new long[16];
+    private int users;
+    private long currentId;
+
+    SparseUserJsonWriter(JsonFactory jsonFactory, Set<UserField> fields) throws IOException {
+        this.jsonFactory = jsonFactory;
+        this.fields = fields;
+        this.generator = jsonFactory.createGenerator(buffer);
+        // Users are laid out explicitly; the default root separator is a space
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void startUser() throws IOException {
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void longField(UserField field, long value) throws IOException {
+        if (field == UserField.ID) {
+            currentId = value;
+        }
+        if (fields.contains(field)) {
+            generator.writeNumberField(field.getFieldName(), value);
+        }
+    }
+
+    @Override
+    public void stringField(UserField field, String value) throws IOException {
+        if (fields.contains(field)) {
+            generator.writeStringField(field.getFieldName(), value);
+        }
+    }
+
+    @Override
+    public void dateTimeField(UserField field, LocalDateTime value) throws IOException {
+        if (!fields.contains(field)) {
+            return;
+        }
+        if (value == null) {
+            generator.writeNullField(field.getFieldName());
+        } else {
+            generator.writeStringField(field.getFieldName(), DATE_FORMAT.format(value));
+        }
+    }
+
+    @Override
+    public void endUser() throws IOException {
+        generator.writeEndObject();
+        generator.flush();
+        if (users == ends.length) {
+            ends = Arrays.copyOf(ends, users * 2);
+            ids = Arrays.copyOf(ids, users * 2);
+        }
+        ends[users] = buffer.size();
+        ids[users] = currentId;
+        users++;
+    }
+
+    /**
+     * The single user written, as a JSON object
+     */
+    byte[] toObject() throws IOException {
+        if (users != 1) {
+            throw new IllegalStateException("Expected exactly one user but " + users + " were written");
+        }
+        return layout((out, chars) -> out.writeRawValue(chars, 0, ends[0]));
+    }
+
+    /**
+     * Every user written, as a JSON array in write order
+     */
+    byte[] toArray() throws IOException {
+        return layout((out, chars) -> {
+            out.writeStartArray();
+            for (int i = 0; i < users; i++) {
+                writeUser(out, chars, i);
+            }
+            out.writeEndArray();
+        });
+    }
+
+    /**
+     * A lookup result with one entry per requested ID, in request order, in the
+     * shape of {@link com.example.cleanapi.borders.dtos.UserLookupResultDto}
+     */
+    byte[] toLookupResult(List<Long> requestedIds) throws IOException {
+        Map<Long, Integer> indexById = new HashMap<>(users * 2);
+        for (int i = 0; i < users; i++) {
+            indexById.put(ids[i], i);
+        }
+        int found = 0;
+        for (Long id : requestedIds) {
+            if (id != null && indexById.containsKey(id)) {
+                found++;
+            }
+        }
+        int foundCount = found;
+
+        return layout((out, chars) -> {
+            out.writeStartObject();
+            out.writeNumberField("found", foundCount);
+            out.writeNumberField("notFound", requestedIds.size() - foundCount);
+            out.writeArrayFieldStart("results");
+            for (Long id : requestedIds) {
+                Integer index = id != null ? indexById.get(id) : null;
+                out.writeStartObject();
+                if (id != null) {
+                    out.writeNumberField("id", id);
+                }
+                if (index == null) {
+                    out.writeStringField("status", "NOT_FOUND");
+                } else {
+                    out.writeStringField("status", "FOUND");
+                    out.writeFieldName("user");
+                    writeUser(out, chars, index);
+                }
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+            out.writeEndObject();
+        });
+    }
+
+    private void writeUser(JsonGenerator out, char[] chars, int index) throws IOException {
+        int start = index == 0 ? 0 : ends[index - 1];
+        out.writeRawValue(chars, start, ends[index] - start);
+    }
+
+    private byte[] layout(Layout layout) throws IOException {
+        generator.flush();
+        char[] chars = buffer.toCharArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chars.length + 64);
+        try (JsonGenerator out = jsonFactory.createGenerator(bytes)) {
+            layout.write(out, chars);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Layout {
+        void write(JsonGenerator out, char[] chars) throws IOException;
+    }
+}
@@ -1,21 +1,50 @@
 package com.example.cleanapi.api.controllers;
 
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.IngestionTicketDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
 import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
 import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.usecases.GroupCommitUserUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for User operations
@@ -26,78 +55,398 @@ import java.util.List;
 @Tag(name = "Users", description = "User management operations")
 public class UserController {
     
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    static final String RESPOND_ASYNC = "respond-async";
+    
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final int MAX_CHANGES_WAIT_SECONDS = 60;
+    private static final String FIELDS_DESCRIPTION = "Comma-separated fields to return, e.g. id,email. " +
+            "Only these columns are read; omit for the full user";
+    
     private final UserUseCase userUseCase;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedLongPoll changeFeedLongPoll;
+    private final UserEventBroadcaster userEventBroadcaster;
+    private final long eventStreamTimeoutMillis;
+    private final GroupCommitUserUseCase ingestion;
     
     @Autowired
-    public UserController(UserUseCase userUseCase) {
+    public UserController(UserUseCase userUseCase, ObjectMapper objectMapper, ChangeFeedLongPoll changeFeedLongPoll,
+                          UserEventBroadcaster userEventBroadcaster,
+                          @Value("${app.events.timeout:30m}") Duration eventStreamTimeout,
+                          ObjectProvider<GroupCommitUserUseCase> ingestion) {
         this.userUseCase = userUseCase;
+        this.ingestion = ingestion.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.changeFeedLongPoll = changeFeedLongPoll;
+        this.userEventBroadcaster = userEventBroadcaster;
+        this.eventStreamTimeoutMillis = eventStreamTimeout.toMillis();
     }
       @PostMapping
-    @Operation(summary = "Create a new user", description = "Creates a new user with the provided information")
+    @Operation(summary = "Create a new user", description = "Creates a new user with the provided information. " +
+               "With ingestion enabled, Prefer: respond-async queues the user and answers 202 with a ticket to poll")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data"),
-        @ApiResponse(responseCode = "409", description = "User with email already exists")
+        @ApiResponse(responseCode = "202", description = "User validated and queued; poll the ticket in Location"),
+        @ApiResponse(responseCode = "400", description = "Malformed request"),
+        @ApiResponse(responseCode = "422", description = "Input breaks a validation rule"),
+        @ApiResponse(responseCode = "409", description = "User with email already exists"),
+        @ApiResponse(responseCode = "503", description = "Ingestion queue is full, retry shortly; or the create timed out and may still complete")
     })
-    public ResponseEntity<UserResponseDto> createUser(
-            @Valid @RequestBody CreateUserDto createUserDto) {
+    public ResponseEntity<?> createUser(
+            @RequestBody CreateUserDto createUserDto,
+            @Parameter(description = "respond-async to get a ticket instead of waiting for the write")
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
         
+        if (ingestion != null && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            IngestionTicketDto ticket = ingestion.submitUser(createUserDto);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                            .path("/ingestion/{ticket}").buildAndExpand(ticket.getTicket()).toUri())
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(ticket);
+        }
         UserResponseDto createdUser = userUseCase.createUser(createUserDto);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
+    
+    @GetMapping("/ingestion/{ticket}")
+    @Operation(summary = "Get ingestion ticket", description = "State of a user queued with Prefer: respond-async: " +
+               "PENDING until its group commit, then CREATED with the user or why it was refused")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ticket found"),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired ticket, or ingestion disabled")
+    })
+    public ResponseEntity<IngestionTicketDto> getIngestionTicket(@PathVariable String ticket) {
+        if (ingestion == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ingestion.getTicket(ticket)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in batch", description = "Creates up to 1000 users in one request. " +
+               "Each item is validated and checked for email conflicts individually")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "All users created successfully"),
+        @ApiResponse(responseCode = "207", description = "Some users were not created; see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    public ResponseEntity<BatchCreateResultDto> createUsers(
+            @RequestBody List<CreateUserDto> createUserDtos) {
+        
+        BatchCreateResultDto result = userUseCase.createUsers(createUserDtos);
+        HttpStatus status = result.isFullySuccessful() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
       @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found"),
+        @ApiResponse(responseCode = "304", description = "User unchanged since the copy named by " +
+                     "If-None-Match or If-Modified-Since"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "400", description = "Invalid user ID")
     })
-    public ResponseEntity<UserResponseDto> getUserById(
+    public ResponseEntity<?> getUserById(
             @Parameter(description = "User ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest request) throws IOException {
+        
+        // A client that already holds a copy is answered from the version stamp alone
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            UserVersion version = userUseCase.getUserVersion(id);
+            if (request.checkNotModified(eTagOf(version.getVersion()), epochMillisOf(version.getUpdatedAt()))) {
+                // 304 with ETag and Last-Modified already written by checkNotModified
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            Set<UserField> selected = UserField.parseList(fields);
+            SparseUserJsonWriter writer = new SparseUserJsonWriter(objectMapper.getFactory(), selected);
+            userUseCase.getUserFields(id, selected, writer);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(writer.toObject());
+        }
         
         UserResponseDto user = userUseCase.getUserById(id);
-        return ResponseEntity.ok(user);
+        return withValidators(ResponseEntity.ok(), user).body(user);
     }
     
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieves a list of all users")
-    @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        List<UserResponseDto> users = userUseCase.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Operation(summary = "List users", description = "Retrieves one page of users ordered by creation time. " +
+               "The next page is linked in the Link header; the first page carries the total in X-Total-Count")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
+    public ResponseEntity<?> getAllUsers(
+            @Parameter(description = "Maximum number of users to return (1-500)")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Opaque cursor from the previous page's Link header")
+            @RequestParam(required = false) String after,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) throws IOException {
+        
+        SparseUserJsonWriter writer = null;
+        UserPageDto page;
+        if (fields != null) {
+            Set<UserField> selected = UserField.parseList(fields);
+            writer = new SparseUserJsonWriter(objectMapper.getFactory(), selected);
+            page = userUseCase.getUsersPage(after, limit, selected, writer);
+        } else {
+            page = userUseCase.getUsersPage(after, limit);
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getTotalCount() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+        }
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        if (writer != null) {
+            return response.contentType(MediaType.APPLICATION_JSON).body(writer.toArray());
+        }
+        return response.body(page.getUsers());
+    }
+    
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up many users", description = "Resolves up to 1000 ids and emails in one call. " +
+               "Results follow the request order, ids first, and keys with no user are marked NOT_FOUND")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed"),
+        @ApiResponse(responseCode = "400", description = "Lookup is empty or too large")
+    })
+    public ResponseEntity<UserLookupResultDto> lookupUsers(@RequestBody UserLookupDto lookupDto) {
+        return ResponseEntity.ok(userUseCase.lookupUsers(lookupDto));
+    }
+    
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get many users by ID", description = "Same as POST /lookup for ids only, " +
+               "for callers that prefer a cacheable GET")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed"),
+        @ApiResponse(responseCode = "400", description = "Lookup is empty or too large")
+    })
+    public ResponseEntity<?> getUsersByIds(
+            @Parameter(description = "Comma-separated user IDs", required = true)
+            @RequestParam List<Long> ids,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) throws IOException {
+        
+        if (fields != null) {
+            Set<UserField> selected = UserField.parseList(fields);
+            SparseUserJsonWriter writer = new SparseUserJsonWriter(objectMapper.getFactory(), selected);
+            userUseCase.lookupUserFields(ids, selected, writer);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(writer.toLookupResult(ids));
+        }
+        return ResponseEntity.ok(userUseCase.lookupUsers(new UserLookupDto(ids, null)));
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Get user changes", description = "Change feed for incremental sync: every create, " +
+               "update and delete after the given sequence number, oldest first. Deletes carry no user. " +
+               "Resume with since=nextSince; with wait, an empty feed holds the request until a change commits")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes retrieved; empty if the wait ran out"),
+        @ApiResponse(responseCode = "400", description = "Invalid sequence number, limit or wait")
+    })
+    public DeferredResult<UserChangePageDto> getChanges(
+            @Parameter(description = "Sequence number of the last change already applied; 0 for the full history")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes in the page")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Seconds to wait for a change when there is none yet, up to 60; 0 answers at once")
+            @RequestParam(defaultValue = "0") int wait) {
+        
+        if (wait < 0 || wait > MAX_CHANGES_WAIT_SECONDS) {
+            throw new IllegalArgumentException("Wait must be between 0 and " + MAX_CHANGES_WAIT_SECONDS + " seconds");
+        }
+        UserChangePageDto page = userUseCase.getChanges(since, limit);
+        if (!page.isEmpty() || wait == 0) {
+            DeferredResult<UserChangePageDto> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+        return changeFeedLongPoll.await(since, Duration.ofSeconds(wait), () -> userUseCase.getChanges(since, limit));
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user events", description = "Server-Sent Events stream of created, updated " +
+               "and deleted users as they are written. Reconnect with Last-Event-ID to receive what was missed; " +
+               "a reset event means the gap is too old to replay and the client should resync from /changes. " +
+               "A dropped event counts events skipped because the client fell behind")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream started"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers; retry later")
+    })
+    public ResponseEntity<SseEmitter> streamUserEvents(
+            @Parameter(description = "ID of the last event received, sent by reconnecting clients")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        SseEmitter emitter = new SseEmitter(eventStreamTimeoutMillis);
+        if (!userEventBroadcaster.subscribe(emitter, lastEventId)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-cache").body(emitter);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all users", description = "Streams every user as newline-delimited JSON. " +
+               "The response is gzip-compressed when the client sends Accept-Encoding: gzip")
+    @ApiResponse(responseCode = "200", description = "Export stream started")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        
+        StreamingResponseBody body = responseStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(responseStream, GZIP_BUFFER_SIZE) : responseStream;
+            try (NdjsonUserWriter writer = new NdjsonUserWriter(objectMapper.getFactory(), out)) {
+                userUseCase.exportUsers(writer);
+            }
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
       @PutMapping("/{id}")
     @Operation(summary = "Update user", description = "Updates an existing user with new information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "400", description = "Malformed request"),
+        @ApiResponse(responseCode = "422", description = "Input breaks a validation rule"),
         @ApiResponse(responseCode = "404", description = "User not found"),
-        @ApiResponse(responseCode = "409", description = "Email already exists for another user")
+        @ApiResponse(responseCode = "409", description = "Email already exists for another user"),
+        @ApiResponse(responseCode = "412", description = "User was modified since the version named by If-Match, " +
+                     "or does not exist and If-Match is *")
     })
     public ResponseEntity<UserResponseDto> updateUser(
             @Parameter(description = "User ID", required = true)
             @PathVariable Long id,
-            @Valid @RequestBody UpdateUserDto updateUserDto) {
+            @Parameter(description = "ETag of the version being replaced; the update fails if it is stale")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody UpdateUserDto updateUserDto) {
+        
+        UserResponseDto updatedUser = whenMatched(ifMatch,
+            () -> userUseCase.updateUser(id, updateUserDto, versionOf(ifMatch)));
+        return withValidators(ResponseEntity.ok(), updatedUser).body(updatedUser);
+    }
+    
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    @Operation(summary = "Partially update user", description = "Applies a JSON Merge Patch (RFC 7396). " +
+               "Only the fields present in the document are validated and written")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "User updated successfully"),
+        @ApiResponse(responseCode = "400", description = "Malformed request"),
+        @ApiResponse(responseCode = "422", description = "Input breaks a validation rule"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "409", description = "Email already exists for another user"),
+        @ApiResponse(responseCode = "415", description = "Body is not application/merge-patch+json")
+    })
+    public ResponseEntity<UserResponseDto> patchUser(
+            @Parameter(description = "User ID", required = true)
+            @PathVariable Long id,
+            @RequestBody PatchUserDto patchUserDto) {
         
-        UserResponseDto updatedUser = userUseCase.updateUser(id, updateUserDto);
-        return ResponseEntity.ok(updatedUser);
+        UserResponseDto patchedUser = userUseCase.patchUser(id, patchUserDto);
+        return withValidators(ResponseEntity.ok(), patchedUser).body(patchedUser);
     }
       @DeleteMapping("/{id}")
     @Operation(summary = "Delete user", description = "Deletes a user by their unique identifier")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "User deleted successfully"),
         @ApiResponse(responseCode = "404", description = "User not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid user ID")
+        @ApiResponse(responseCode = "400", description = "Invalid user ID"),
+        @ApiResponse(responseCode = "412", description = "User was modified since the version named by If-Match, " +
+                     "or does not exist and If-Match is *")
     })
     public ResponseEntity<Void> deleteUser(
             @Parameter(description = "User ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the version being deleted; the delete fails if it is stale")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        userUseCase.deleteUser(id);
+        whenMatched(ifMatch, () -> {
+            userUseCase.deleteUser(id, versionOf(ifMatch));
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Strong entity tag derived from the row version
+     */
+    static String eTagOf(Long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Row version named by an If-Match header, or null when any current version will do
+     * Only a single strong tag can match; weak or foreign tags never do (RFC 9110 13.1.1)
+     */
+    static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || isAnyVersion(ifMatch)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Falls through to the mismatch below
+            }
+        }
+        throw new VersionMismatchException("If-Match does not name a current version of this user");
+    }
+    
+    /**
+     * Run a conditional write; If-Match: * only matches a user that exists, so a missing
+     * user fails the precondition with 412 instead of answering 404 (RFC 9110 13.1.1)
+     */
+    private static <T> T whenMatched(String ifMatch, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (UserNotFoundException e) {
+            if (ifMatch != null && isAnyVersion(ifMatch)) {
+                throw new VersionMismatchException("If-Match: * requires a current version of this user");
+            }
+            throw e;
+        }
+    }
+    
+    private static boolean isAnyVersion(String ifMatch) {
+        return ifMatch.trim().equals("*");
+    }
+    
+    private static long epochMillisOf(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response,
+                                                             UserResponseDto user) {
+        return response.eTag(eTagOf(user.getVersion()))
+                       .lastModified(epochMillisOf(user.getUpdatedAt()));
+    }
+
     // @GetMapping("/health")
     // @Operation(summary = "Health check", description = "Simple health check endpoint")
     // @ApiResponse(responseCode = "200", description = "Service is healthy")
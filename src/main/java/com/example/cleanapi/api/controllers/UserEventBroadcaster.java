@@ -0,0 +1,362 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.dtos.UserEventDto;
+import com.example.cleanapi.borders.interfaces.UserEventPublisher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans user lifecycle events out to Server-Sent Events subscribers
+ * Publishing only queues the event for the dispatcher thread, so a write pays the
+ * same small cost whatever the number of subscribers. The dispatcher numbers each
+ * event, serializes it once, keeps it in a replay window and offers it to every
+ * subscriber's bounded buffer; buffers are drained by a sender pool of the
+ * broadcaster's own, so a client blocking its send never takes threads from
+ * the rest of the application.
+ * A subscriber whose buffer is full either loses the event (drop) or is
+ * disconnected (disconnect), so a slow client never holds up the others.
+ */
+@Component
+class UserEventBroadcaster implements UserEventPublisher, DisposableBean {
+
+    /**
+     * What to do with an event for a subscriber whose buffer is full
+     */
+    enum SlowConsumerPolicy {
+        /** Skip the event and tell the subscriber how many it missed */
+        DROP,
+        /** End the stream; the client reconnects with Last-Event-ID */
+        DISCONNECT
+    }
+
+    static final String RESET_EVENT = "reset";
+    static final String DROPPED_EVENT = "dropped";
+
+    // Suggested reconnect delay, sent first so the response is committed before any event
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final Executor senders;
+    private final int bufferSize;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final int maxSubscribers;
+    private final ScheduledExecutorService dispatcher;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Confined to the dispatcher thread
+    private final Frame[] replay;
+    private final long firstId;
+    private long lastId;
+
+    /**
+     * @param sendThreads Threads of the sender pool; each blocked client send holds one
+     */
+    @Autowired
+    UserEventBroadcaster(ObjectMapper objectMapper,
+                         @Value("${app.events.send-threads:4}") int sendThreads,
+                         @Value("${app.events.buffer-size:256}") int bufferSize,
+                         @Value("${app.events.slow-consumer:drop}") String slowConsumerPolicy,
+                         @Value("${app.events.heartbeat:15s}") Duration heartbeat,
+                         @Value("${app.events.max-subscribers:1000}") int maxSubscribers) {
+        this(objectMapper, senderPool(sendThreads, maxSubscribers), bufferSize, slowConsumerPolicy,
+             heartbeat, maxSubscribers);
+    }
+
+    UserEventBroadcaster(ObjectMapper objectMapper, Executor senders, int bufferSize,
+                         String slowConsumerPolicy, Duration heartbeat, int maxSubscribers) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Event buffer size must be positive");
+        }
+        if (maxSubscribers < 1) {
+            throw new IllegalArgumentException("Maximum subscribers must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.senders = senders;
+        this.bufferSize = bufferSize;
+        this.slowConsumerPolicy = SlowConsumerPolicy.valueOf(slowConsumerPolicy.trim().toUpperCase(Locale.ROOT));
+        this.maxSubscribers = maxSubscribers;
+        // The replay window matches the buffer, so a resumed backlog always fits
+        this.replay = new Frame[bufferSize];
+        // Ids from an earlier run are always below this one and get a reset instead of a bad replay
+        this.firstId = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.lastId = firstId;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!heartbeat.isZero()) {
+            long period = heartbeat.toMillis();
+            dispatcher.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void publish(UserEventDto event) {
+        try {
+            dispatcher.execute(() -> dispatch(event));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; subscribers are being disconnected anyway
+            logger.debug("Dropped {} during shutdown", event);
+        }
+    }
+
+    /**
+     * Attach an emitter to the stream
+     * @param emitter Emitter of the subscribing request
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, or null for live events only
+     * @return false if the subscriber limit is reached; the emitter is then left untouched
+     */
+    boolean subscribe(SseEmitter emitter, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        try {
+            // Registered in line with dispatch, so nothing falls between the replay and live events
+            dispatcher.execute(() -> register(subscriber, lastEventId));
+        } catch (RejectedExecutionException e) {
+            subscriber.close();
+            emitter.complete();
+        }
+        return true;
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Events skipped for subscribers with a full buffer
+     */
+    long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.disconnect();
+        }
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ExecutorService senderPool(int sendThreads, int maxSubscribers) {
+        if (sendThreads < 1 || maxSubscribers < 1) {
+            throw new IllegalArgumentException("Send threads and maximum subscribers must be positive");
+        }
+        AtomicInteger threads = new AtomicInteger();
+        // A subscriber has at most one drain queued or running, so the queue never outgrows the subscriber limit
+        return new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                                      new ArrayBlockingQueue<>(maxSubscribers),
+                                      task -> {
+                                          Thread thread = new Thread(task, "user-events-send-"
+                                                                           + threads.incrementAndGet());
+                                          thread.setDaemon(true);
+                                          return thread;
+                                      });
+    }
+
+    private void dispatch(UserEventDto event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize {}", event, e);
+            return;
+        }
+        long id = ++lastId;
+        Frame frame = new Frame(Long.toString(id), event.getType().name().toLowerCase(Locale.ROOT), data);
+        replay[(int) (id % replay.length)] = frame;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    private void register(Subscriber subscriber, String lastEventId) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (lastEventId != null) {
+            replayAfter(subscriber, lastEventId);
+        }
+        subscribers.add(subscriber);
+        subscriber.drain();
+    }
+
+    private void replayAfter(Subscriber subscriber, String lastEventId) {
+        long oldestRetained = Math.max(firstId + 1, lastId - replay.length + 1);
+        long resumeAfter;
+        try {
+            resumeAfter = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            resumeAfter = -1;
+        }
+        if (resumeAfter < oldestRetained - 1 || resumeAfter > lastId) {
+            // Missed events are gone; the client resyncs through the change feed
+            subscriber.queue.offer(new Frame(Long.toString(lastId), RESET_EVENT, "{}"));
+            return;
+        }
+        for (long id = resumeAfter + 1; id <= lastId; id++) {
+            subscriber.queue.offer(replay[(int) (id % replay.length)]);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // Not worth a drop or a disconnect: a busy stream needs no heartbeat
+            if (subscriber.queue.offer(Frame.HEARTBEAT)) {
+                subscriber.drain();
+            }
+        }
+    }
+
+    private record Frame(String id, String name, String data) {
+
+        static final Frame HEARTBEAT = new Frame(null, null, null);
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (id != null) {
+                event.id(id);
+            }
+            return event.name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    // Identity semantics: every connection is its own subscriber
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Frame> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Dispatcher thread only
+        private long missed;
+        // Drain only; drains never overlap
+        private boolean opened;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Called on the dispatcher thread only
+         */
+        void offer(Frame frame) {
+            // After a gap the notice goes in first, so it lands exactly where events are missing
+            boolean accepted = missed == 0
+                ? queue.offer(frame)
+                : queue.remainingCapacity() >= 2 && queue.offer(dropNotice()) && queue.offer(frame);
+            if (!accepted) {
+                if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                    disconnect();
+                    return;
+                }
+                missed++;
+                dropped.incrementAndGet();
+            }
+            drain();
+        }
+
+        private Frame dropNotice() {
+            Frame notice = new Frame(null, DROPPED_EVENT, "{\"count\":" + missed + "}");
+            missed = 0;
+            return notice;
+        }
+
+        /**
+         * Send queued frames on the sender pool, one drain per subscriber at a time
+         */
+        void drain() {
+            if (closed.get() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::sendQueued);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                disconnect();
+            }
+        }
+
+        private void sendQueued() {
+            try {
+                if (!opened) {
+                    opened = true;
+                    emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS));
+                }
+                Frame frame;
+                while (!closed.get() && (frame = queue.poll()) != null) {
+                    emitter.send(frame.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // A frame offered after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                drain();
+            }
+        }
+
+        void disconnect() {
+            if (close()) {
+                emitter.complete();
+            }
+        }
+
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscribers.remove(this);
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.cleanapi.api.filters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency, gradient style
+ * Latency is tracked as a short-term and a long-term moving average. While the
+ * short-term one stays within {@code tolerance} times the long-term one the
+ * limit grows by a fraction of its square root per response; beyond that it
+ * shrinks in proportion (the gradient), so queueing shows up as a falling
+ * limit before it shows up as timeouts. A server error cuts the limit by a
+ * fixed ratio (multiplicative decrease); only requests that started after the
+ * last cut can cut again, so one burst of errors counts as a single signal.
+ * The limit only grows while it is actually in use.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    // Moving average weights: about the last 10 and the last 600 responses
+    private static final double SHORT_ALPHA = 2.0 / 11;
+    private static final double LONG_ALPHA = 2.0 / 601;
+    // How far each response moves the limit toward its new estimate
+    private static final double SMOOTHING = 0.2;
+    // Never shrink by more than half on latency alone
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private double shortNanos;
+    private double longNanos;
+    private long lastDecreaseAt = Long.MIN_VALUE;
+
+    /**
+     * @param tolerance How many times the long-term latency the short-term latency may reach before the limit shrinks
+     * @param backoffRatio Factor applied to the limit on a server error, between 0 and 1
+     */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance <= 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Tolerance must exceed 1 and backoff ratio lie between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Take a slot if fewer requests than the limit are in flight
+     * @return false if the request should be shed
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot without a latency sample, e.g. for a request that went async
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Give back a slot and feed the limit with the request's outcome
+     * @param startedAt System.nanoTime() when the request took its slot
+     * @param failed Whether the request ended in a server error
+     */
+    void release(long startedAt, boolean failed) {
+        long now = System.nanoTime();
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(startedAt, now - startedAt, failed, inFlightBefore);
+    }
+
+    private synchronized void update(long startedAt, long latency, boolean failed, int inFlightBefore) {
+        if (failed) {
+            if (startedAt > lastDecreaseAt) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = System.nanoTime();
+            }
+            return;
+        }
+        shortNanos = shortNanos == 0 ? latency : shortNanos + (latency - shortNanos) * SHORT_ALPHA;
+        longNanos = longNanos == 0 ? latency : longNanos + (latency - longNanos) * LONG_ALPHA;
+        // Once load has passed, let the long-term average come back down quickly
+        if (longNanos > shortNanos * 2) {
+            longNanos *= 0.95;
+        }
+        // Grow only when the limit is what holds traffic back, not while it sits mostly unused
+        if (inFlightBefore * 2 < limit) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longNanos / Math.max(1.0, shortNanos)));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + estimate * SMOOTHING));
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getLimit() {
+        return limit;
+    }
+}
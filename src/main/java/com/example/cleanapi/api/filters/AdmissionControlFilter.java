@@ -0,0 +1,187 @@
+package com.example.cleanapi.api.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before it turns into queueing
+ * Every request first takes a token from its client's bucket and is answered
+ * 429 when the bucket is empty. Clients are told apart by X-API-Key only when
+ * the key is one of the configured API keys; any other request is keyed by its
+ * remote address, so rotating made-up keys does not buy fresh buckets. Behind
+ * a proxy that address is the client's only with server.forward-headers-strategy
+ * set (see application.properties). The request then needs a slot under the
+ * adaptive concurrency limit of its class, reads or writes, and is answered
+ * 503 when none is free, so a write burst cannot starve reads or the other way
+ * round. Both answers carry Retry-After.
+ * Health checks are never shed, so an overload does not look like a dead instance.
+ * Meters: app.admission.limit and app.admission.inflight (class), app.admission.rejected
+ * (class, reason), app.admission.clients and app.admission.clients.overflow.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    static final String EXEMPT_PREFIX = "/api/v1/health";
+
+    // Short-term latency this many times the long-term average starts shrinking the limit
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // Cut applied when requests end in server errors
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * Bounds of one adaptive concurrency limit
+     */
+    public record ConcurrencyLimit(int initial, int min, int max) {
+    }
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final ClientRateLimiter clients;
+    private final Set<String> apiKeys;
+
+    private final Counter readsShed;
+    private final Counter writesShed;
+    private final Counter readsThrottled;
+    private final Counter writesThrottled;
+
+    /**
+     * @param clientRate Sustained requests per second allowed per client; 0 turns per-client limits off
+     * @param clientBurst Requests a client may send at once above the sustained rate
+     * @param maxClients Most clients with a bucket of their own; beyond it new clients share one
+     * @param apiKeys Keys trusted to identify a client; requests with any other key are keyed by address
+     */
+    public AdmissionControlFilter(ConcurrencyLimit readLimit, ConcurrencyLimit writeLimit,
+                                  double clientRate, int clientBurst, int maxClients, Set<String> apiKeys,
+                                  MeterRegistry registry) {
+        this.reads = limiter(readLimit);
+        this.writes = limiter(writeLimit);
+        this.clients = clientRate > 0 ? new ClientRateLimiter(clientRate, clientBurst, maxClients) : null;
+        this.apiKeys = Set.copyOf(apiKeys);
+
+        registerGauges(registry, "read", reads);
+        registerGauges(registry, "write", writes);
+        if (clients != null) {
+            Gauge.builder("app.admission.clients", clients, ClientRateLimiter::getClients)
+                 .description("Clients with a token bucket")
+                 .register(registry);
+            FunctionCounter.builder("app.admission.clients.overflow", clients, ClientRateLimiter::getOverflowed)
+                           .description("Requests charged to the shared bucket because every client slot was taken")
+                           .register(registry);
+        }
+        this.readsShed = rejected(registry, "read", "concurrency");
+        this.writesShed = rejected(registry, "write", "concurrency");
+        this.readsThrottled = rejected(registry, "read", "rate");
+        this.writesThrottled = rejected(registry, "write", "rate");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(EXEMPT_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = isRead(request.getMethod());
+
+        if (clients != null) {
+            long waitNanos = clients.tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                (read ? readsThrottled : writesThrottled).increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos),
+                       "Rate limit exceeded, retry later");
+                return;
+            }
+        }
+
+        AdaptiveConcurrencyLimiter limiter = read ? reads : writes;
+        if (!limiter.tryAcquire()) {
+            (read ? readsShed : writesShed).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, retry later");
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed) {
+                // The exception ends up as a server error further out
+                limiter.release(startedAt, true);
+            } else if (request.isAsyncStarted()) {
+                // Streams and long polls hold no thread once async; their duration says nothing about load
+                limiter.release();
+            } else {
+                limiter.release(startedAt, response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // Same shape as the ErrorResponse bodies written by GlobalExceptionHandler
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfter, String message)
+            throws IOException {
+        String body = "{\"message\":\"" + message + "\",\"status\":" + status.value() +
+                      ",\"timestamp\":\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()) +
+                      "\",\"validationErrors\":null}";
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(ConcurrencyLimit limit) {
+        return new AdaptiveConcurrencyLimiter(limit.initial(), limit.min(), limit.max(),
+                                              LATENCY_TOLERANCE, BACKOFF_RATIO);
+    }
+
+    private static void registerGauges(MeterRegistry registry, String requestClass, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("app.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+             .description("Current concurrency limit estimate")
+             .tag("class", requestClass)
+             .register(registry);
+        Gauge.builder("app.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+             .description("Requests holding a concurrency slot")
+             .tag("class", requestClass)
+             .register(registry);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String requestClass, String reason) {
+        return Counter.builder("app.admission.rejected")
+                      .description("Requests turned away before reaching a controller")
+                      .tag("class", requestClass)
+                      .tag("reason", reason)
+                      .register(registry);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.cleanapi.api.filters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket per client
+ * Each client may send bursts of up to {@code burst} requests and a sustained
+ * {@code ratePerSecond}. Buckets of clients that have been quiet long enough to
+ * refill completely carry no state worth keeping and are dropped once the
+ * number of tracked clients reaches maxClients. The cap is hard: while no bucket
+ * can be dropped, clients without one share a single overflow bucket, so a flood
+ * of new clients is throttled together instead of growing the map.
+ */
+final class ClientRateLimiter {
+
+    // Full scans for idle buckets run at most this often while the map is full
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratePerNano;
+    private final double burst;
+    private final int maxClients;
+    private final long refillNanos;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    // Buckets in the map plus those about to be added; never above maxClients
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final AtomicLong lastEviction;
+    private final Bucket overflow;
+    private final LongAdder overflowed = new LongAdder();
+
+    ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Rate, burst and maximum clients must be positive");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.maxClients = maxClients;
+        this.refillNanos = (long) Math.ceil(burst / ratePerNano);
+        long now = System.nanoTime();
+        this.lastEviction = new AtomicLong(now - EVICTION_INTERVAL_NANOS);
+        this.overflow = new Bucket(burst, now);
+    }
+
+    /**
+     * Take a token for the client
+     * @return 0 if the request may proceed, otherwise nanoseconds until the next token
+     */
+    long tryAcquire(String client) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = admit(client, now);
+        }
+        return bucket.take(now);
+    }
+
+    /**
+     * Clients with a bucket of their own
+     */
+    int getClients() {
+        return buckets.size();
+    }
+
+    /**
+     * Requests charged to the shared overflow bucket because the map was full
+     */
+    long getOverflowed() {
+        return overflowed.sum();
+    }
+
+    private Bucket admit(String client, long now) {
+        if (!reserve()) {
+            evictIdle(now);
+            if (!reserve()) {
+                overflowed.increment();
+                return overflow;
+            }
+        }
+        Bucket created = new Bucket(burst, now);
+        Bucket existing = buckets.putIfAbsent(client, created);
+        if (existing != null) {
+            // Another request of the same client added it first
+            tracked.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    private boolean reserve() {
+        if (tracked.incrementAndGet() <= maxClients) {
+            return true;
+        }
+        tracked.decrementAndGet();
+        return false;
+    }
+
+    private void evictIdle(long now) {
+        long last = lastEviction.get();
+        // One scan at a time, and not on every request while nothing is idle
+        if (now - last < EVICTION_INTERVAL_NANOS || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            if (entry.getValue().idleSince(now) >= refillNanos && buckets.remove(entry.getKey(), entry.getValue())) {
+                tracked.decrementAndGet();
+            }
+        }
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized long take(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / ratePerNano);
+        }
+
+        synchronized long idleSince(long now) {
+            return now - refilledAt;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.cleanapi.api.filters;
+
+import com.example.cleanapi.metrics.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adds a Server-Timing header with the phase breakdown to a sample of requests
+ * Requests left out of the sample pass straight through: no recorder, no
+ * response wrapper, no allocation. The header is written just before the
+ * response commits, so it includes every phase up to serialization.
+ * <p>
+ * The header reveals database time and statement counts. With a token set,
+ * only callers presenting it in X-Server-Timing-Token get the header, on every
+ * such request; everyone else is never sampled.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Server-Timing-Token";
+
+    private final double sampleRate;
+    private final byte[] token;
+
+    /**
+     * @param sampleRate Share of requests that get the header, from 0 (none) to 1 (all)
+     */
+    public ServerTimingFilter(double sampleRate) {
+        this(sampleRate, null);
+    }
+
+    /**
+     * @param sampleRate Share of requests that get the header when no token is set
+     * @param token Secret a caller must send to get the header, or null or empty to sample anyone
+     */
+    public ServerTimingFilter(double sampleRate, String token) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!sampled(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.begin();
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            // Covers responses that never touched the body, such as a bare status
+            timedResponse.stamp();
+            ServerTiming.end(timing);
+        }
+    }
+
+    private boolean sampled(HttpServletRequest request) {
+        if (token != null) {
+            String presented = request.getHeader(TOKEN_HEADER);
+            return presented != null && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8));
+        }
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Writes the header on the first call that can commit the response
+     */
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean stamped;
+
+        TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void stamp() {
+            if (!stamped && !isCommitted()) {
+                stamped = true;
+                setHeader(ServerTiming.HEADER, timing.headerValue());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            stamp();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            stamp();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamp();
+            super.sendRedirect(location);
+        }
+    }
+}
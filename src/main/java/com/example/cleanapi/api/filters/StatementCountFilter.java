@@ -0,0 +1,52 @@
+package com.example.cleanapi.api.filters;
+
+import com.example.cleanapi.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, per route
+ * Meter: app.db.statements (method, uri), where uri is the matched route pattern
+ * such as /api/v1/users/{id}, never the raw path. Statements run after the
+ * request thread hands off to async processing are not counted.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    static final String SUMMARY = "app.db.statements";
+
+    private final MeterRegistry registry;
+
+    public StatementCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            DistributionSummary.builder(SUMMARY)
+                               .baseUnit("statements")
+                               .tag("method", request.getMethod())
+                               .tag("uri", route(request))
+                               .register(registry)
+                               .record(statements);
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for returning the per-item outcome of a batch create request
+ * Results are in the same order as the submitted users
+ */
+public class BatchCreateResultDto {
+
+    @JsonProperty("created")
+    private final int created;
+
+    @JsonProperty("failed")
+    private final int failed;
+
+    @JsonProperty("results")
+    private final List<BatchItemResultDto> results;
+
+    public BatchCreateResultDto(List<BatchItemResultDto> results) {
+        int createdCount = 0;
+        for (BatchItemResultDto result : results) {
+            if (result.getStatus() == BatchItemResultDto.Status.CREATED) {
+                createdCount++;
+            }
+        }
+        this.created = createdCount;
+        this.failed = results.size() - createdCount;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchItemResultDto> getResults() {
+        return results;
+    }
+
+    @JsonIgnore
+    public boolean isFullySuccessful() {
+        return failed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCreateResultDto{" +
+               "created=" + created +
+               ", failed=" + failed +
+               '}';
+    }
+}
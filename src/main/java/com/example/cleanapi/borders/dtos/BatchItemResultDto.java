@@ -0,0 +1,79 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of one item in a batch create request
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+
+    /**
+     * Outcome of a batch item
+     */
+    public enum Status {
+        CREATED,
+        INVALID,
+        CONFLICT
+    }
+
+    @JsonProperty("index")
+    private final int index;
+
+    @JsonProperty("status")
+    private final Status status;
+
+    @JsonProperty("user")
+    private final UserResponseDto user;
+
+    @JsonProperty("errors")
+    private final List<String> errors;
+
+    private BatchItemResultDto(int index, Status status, UserResponseDto user, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.user = user;
+        this.errors = errors;
+    }
+
+    public static BatchItemResultDto created(int index, UserResponseDto user) {
+        return new BatchItemResultDto(index, Status.CREATED, user, null);
+    }
+
+    public static BatchItemResultDto invalid(int index, List<String> errors) {
+        return new BatchItemResultDto(index, Status.INVALID, null, errors);
+    }
+
+    public static BatchItemResultDto conflict(int index, String error) {
+        return new BatchItemResultDto(index, Status.CONFLICT, null, List.of(error));
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemResultDto{" +
+               "index=" + index +
+               ", status=" + status +
+               ", user=" + user +
+               ", errors=" + errors +
+               '}';
+    }
+}
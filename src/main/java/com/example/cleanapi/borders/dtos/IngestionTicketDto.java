@@ -0,0 +1,79 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for the state of a create request accepted for asynchronous ingestion
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestionTicketDto {
+
+    /**
+     * State of a queued create request
+     */
+    public enum Status {
+        PENDING,
+        CREATED,
+        INVALID,
+        CONFLICT,
+        FAILED
+    }
+
+    @JsonProperty("ticket")
+    private final String ticket;
+
+    @JsonProperty("status")
+    private final Status status;
+
+    @JsonProperty("user")
+    private final UserResponseDto user;
+
+    @JsonProperty("errors")
+    private final List<String> errors;
+
+    private IngestionTicketDto(String ticket, Status status, UserResponseDto user, List<String> errors) {
+        this.ticket = ticket;
+        this.status = status;
+        this.user = user;
+        this.errors = errors;
+    }
+
+    public static IngestionTicketDto pending(String ticket) {
+        return new IngestionTicketDto(ticket, Status.PENDING, null, null);
+    }
+
+    public static IngestionTicketDto created(String ticket, UserResponseDto user) {
+        return new IngestionTicketDto(ticket, Status.CREATED, user, null);
+    }
+
+    public static IngestionTicketDto failed(String ticket, Status status, List<String> errors) {
+        return new IngestionTicketDto(ticket, status, null, errors);
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionTicketDto{" +
+               "ticket='" + ticket + '\'' +
+               ", status=" + status +
+               '}';
+    }
+}
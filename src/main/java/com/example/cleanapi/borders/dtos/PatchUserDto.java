@@ -0,0 +1,79 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for partially updating a user with a JSON Merge Patch (RFC 7396)
+ * Tracks which members were present in the document, since an absent member
+ * means "leave unchanged" while an explicit null means "remove"
+ */
+public class PatchUserDto {
+
+    private String name;
+    private boolean nameSet;
+
+    private String email;
+    private boolean emailSet;
+
+    // Default constructor
+    public PatchUserDto() {}
+
+    // Factory methods
+    public static PatchUserDto ofName(String name) {
+        PatchUserDto dto = new PatchUserDto();
+        dto.setName(name);
+        return dto;
+    }
+
+    public static PatchUserDto ofEmail(String email) {
+        PatchUserDto dto = new PatchUserDto();
+        dto.setEmail(email);
+        return dto;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("name")
+    public void setName(String name) {
+        this.name = name;
+        this.nameSet = true;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @JsonProperty("email")
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailSet = true;
+    }
+
+    @JsonIgnore
+    public boolean hasName() {
+        return nameSet;
+    }
+
+    @JsonIgnore
+    public boolean hasEmail() {
+        return emailSet;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !nameSet && !emailSet;
+    }
+
+    @Override
+    public String toString() {
+        return "PatchUserDto{" +
+               (nameSet ? "name='" + name + "'" : "") +
+               (nameSet && emailSet ? ", " : "") +
+               (emailSet ? "email='" + email + "'" : "") +
+               '}';
+    }
+}
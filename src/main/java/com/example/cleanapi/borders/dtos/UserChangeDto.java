@@ -0,0 +1,87 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of the user change feed
+ * Carries the user as it is now, not as it was at the time of the change, so
+ * applying the entries in sequence order always converges on the current state.
+ * The user is absent for deletes (tombstones) and for users deleted since.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChangeDto {
+
+    @JsonProperty("seq")
+    private final long seq;
+
+    @JsonProperty("type")
+    private final UserChangeType type;
+
+    @JsonProperty("userId")
+    private final Long userId;
+
+    @JsonProperty("changedAt")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime changedAt;
+
+    @JsonProperty("user")
+    private final UserResponseDto user;
+
+    public UserChangeDto(long seq, UserChangeType type, Long userId, LocalDateTime changedAt, UserResponseDto user) {
+        this.seq = seq;
+        this.type = type;
+        this.userId = userId;
+        this.changedAt = changedAt;
+        this.user = user;
+    }
+
+    /**
+     * Entry as recorded, before the user is attached
+     */
+    public UserChangeDto(long seq, UserChangeType type, Long userId, LocalDateTime changedAt) {
+        this(seq, type, userId, changedAt, null);
+    }
+
+    /**
+     * The same entry carrying the given user
+     * @param user The user as stored now, or null when it no longer exists
+     */
+    public UserChangeDto withUser(UserResponseDto user) {
+        return new UserChangeDto(seq, type, userId, changedAt, user);
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public UserChangeType getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeDto{" +
+               "seq=" + seq +
+               ", type=" + type +
+               ", userId=" + userId +
+               ", changedAt=" + changedAt +
+               '}';
+    }
+}
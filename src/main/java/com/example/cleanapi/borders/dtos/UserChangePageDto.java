@@ -0,0 +1,61 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the user change feed
+ * Pass nextSince as the since parameter of the next request to continue the feed
+ */
+public class UserChangePageDto {
+
+    @JsonProperty("changes")
+    private final List<UserChangeDto> changes;
+
+    @JsonProperty("nextSince")
+    private final long nextSince;
+
+    @JsonProperty("hasMore")
+    private final boolean hasMore;
+
+    public UserChangePageDto(List<UserChangeDto> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * A page with no changes, to be resumed from the same position
+     */
+    public static UserChangePageDto empty(long since) {
+        return new UserChangePageDto(List.of(), since, false);
+    }
+
+    public List<UserChangeDto> getChanges() {
+        return changes;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangePageDto{" +
+               "changes=" + changes.size() +
+               ", nextSince=" + nextSince +
+               ", hasMore=" + hasMore +
+               '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for a user lifecycle event pushed to subscribers
+ * Created and updated events carry the user as written; deleted events only the ID
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserEventDto {
+
+    @JsonProperty("type")
+    private final UserChangeType type;
+
+    @JsonProperty("userId")
+    private final Long userId;
+
+    @JsonProperty("user")
+    private final UserResponseDto user;
+
+    private UserEventDto(UserChangeType type, Long userId, UserResponseDto user) {
+        this.type = type;
+        this.userId = userId;
+        this.user = user;
+    }
+
+    public static UserEventDto created(UserResponseDto user) {
+        return new UserEventDto(UserChangeType.CREATED, user.getId(), user);
+    }
+
+    public static UserEventDto updated(UserResponseDto user) {
+        return new UserEventDto(UserChangeType.UPDATED, user.getId(), user);
+    }
+
+    public static UserEventDto deleted(Long userId) {
+        return new UserEventDto(UserChangeType.DELETED, userId, null);
+    }
+
+    public UserChangeType getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserEventDto{" +
+               "type=" + type +
+               ", userId=" + userId +
+               '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for looking up many users at once by ID and/or email
+ */
+public class UserLookupDto {
+
+    @JsonProperty("ids")
+    private List<Long> ids;
+
+    @JsonProperty("emails")
+    private List<String> emails;
+
+    // Default constructor
+    public UserLookupDto() {}
+
+    // Constructor
+    public UserLookupDto(List<Long> ids, List<String> emails) {
+        this.ids = ids;
+        this.emails = emails;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids != null ? ids : List.of();
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getEmails() {
+        return emails != null ? emails : List.of();
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+
+    @Override
+    public String toString() {
+        return "UserLookupDto{" +
+               "ids=" + getIds().size() +
+               ", emails=" + getEmails().size() +
+               '}';
+    }
+}
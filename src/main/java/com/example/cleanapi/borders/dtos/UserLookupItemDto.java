@@ -0,0 +1,72 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for the outcome of one key in a lookup request
+ * Carries the requested id or email so callers can match results without relying on position
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserLookupItemDto {
+
+    /**
+     * Outcome of a lookup key
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    @JsonProperty("id")
+    private final Long id;
+
+    @JsonProperty("email")
+    private final String email;
+
+    @JsonProperty("status")
+    private final Status status;
+
+    @JsonProperty("user")
+    private final UserResponseDto user;
+
+    private UserLookupItemDto(Long id, String email, Status status, UserResponseDto user) {
+        this.id = id;
+        this.email = email;
+        this.status = status;
+        this.user = user;
+    }
+
+    public static UserLookupItemDto byId(Long id, UserResponseDto user) {
+        return new UserLookupItemDto(id, null, user != null ? Status.FOUND : Status.NOT_FOUND, user);
+    }
+
+    public static UserLookupItemDto byEmail(String email, UserResponseDto user) {
+        return new UserLookupItemDto(null, email, user != null ? Status.FOUND : Status.NOT_FOUND, user);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserLookupItemDto{" +
+               "id=" + id +
+               ", email='" + email + '\'' +
+               ", status=" + status +
+               '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cleanapi.borders.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for returning the result of a lookup request
+ * Results follow the request order: every requested id, then every requested email
+ */
+public class UserLookupResultDto {
+
+    @JsonProperty("found")
+    private final int found;
+
+    @JsonProperty("notFound")
+    private final int notFound;
+
+    @JsonProperty("results")
+    private final List<UserLookupItemDto> results;
+
+    public UserLookupResultDto(List<UserLookupItemDto> results) {
+        int foundCount = 0;
+        for (UserLookupItemDto result : results) {
+            if (result.getStatus() == UserLookupItemDto.Status.FOUND) {
+                foundCount++;
+            }
+        }
+        this.found = foundCount;
+        this.notFound = results.size() - foundCount;
+        this.results = results;
+    }
+
+    public int getFound() {
+        return found;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public List<UserLookupItemDto> getResults() {
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "UserLookupResultDto{" +
+               "found=" + found +
+               ", notFound=" + notFound +
+               '}';
+    }
+}
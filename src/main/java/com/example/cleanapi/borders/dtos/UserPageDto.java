@@ -0,0 +1,53 @@
+package com.example.cleanapi.borders.dtos;
+
+import java.util.List;
+
+/**
+ * DTO for one keyset page of users
+ * The controller writes the users as the response body and exposes
+ * the cursor and total count as headers. Only the first page is counted:
+ * a full count costs the whole table, which keyset pages must not.
+ */
+public class UserPageDto {
+
+    private final List<UserResponseDto> users;
+    private final String nextCursor;
+    private final Long totalCount;
+
+    public UserPageDto(List<UserResponseDto> users, String nextCursor, Long totalCount) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
+
+    public List<UserResponseDto> getUsers() {
+        return users;
+    }
+
+    /**
+     * Opaque cursor for the next page, or null when this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Users in total, or null for pages after the first, which are not counted
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPageDto{" +
+               "users=" + users.size() +
+               ", nextCursor='" + nextCursor + '\'' +
+               ", totalCount=" + totalCount +
+               '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.cleanapi.borders.dtos;
 
+import com.example.cleanapi.borders.entities.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -27,6 +28,9 @@ public class UserResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
 
+    @JsonProperty("version")
+    private Long version;
+
     // Default constructor
     public UserResponseDto() {}
 
@@ -39,6 +43,24 @@ public class UserResponseDto {
         this.updatedAt = updatedAt;
     }
 
+    // Full constructor with row version
+    public UserResponseDto(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt,
+                           Long version) {
+        this(id, name, email, createdAt, updatedAt);
+        this.version = version;
+    }
+
+    public static UserResponseDto of(User user) {
+        return new UserResponseDto(
+            user.getId(),
+            user.getName(),
+            user.getEmail(),
+            user.getCreatedAt(),
+            user.getUpdatedAt(),
+            user.getVersion()
+        );
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -80,6 +102,14 @@ public class UserResponseDto {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "UserResponseDto{" +
@@ -88,6 +118,7 @@ public class UserResponseDto {
                ", email='" + email + '\'' +
                ", createdAt=" + createdAt +
                ", updatedAt=" + updatedAt +
+               ", version=" + version +
                '}';
     }
 }
@@ -13,6 +13,7 @@ public class User {
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // Default constructor
     public User() {
@@ -30,12 +31,43 @@ public class User {
 
     // Full constructor
     public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, createdAt, updatedAt, null, true);
+    }
+
+    // Full constructor with the row version assigned by persistence
+    public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, name, email, createdAt, updatedAt, version, true);
+    }
+
+    private User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                 boolean validate) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
-        validateUser();
+        this.version = version;
+        if (validate) {
+            validateUser();
+        }
+    }
+
+    /**
+     * Create a new user from input that already passed UserValidator
+     * Skips the entity checks, which that pipeline already covers
+     */
+    public static User ofValidated(String name, String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return new User(null, name, email, now, now, null, false);
+    }
+
+    /**
+     * Rebuild a user loaded from storage
+     * Stored rows were validated when written, so reads do not pay for it again
+     */
+    public static User rehydrate(Long id, String name, String email, LocalDateTime createdAt,
+                                 LocalDateTime updatedAt, Long version) {
+        return new User(id, name, email, createdAt, updatedAt, version, false);
     }
 
     // Business logic - validation rules
@@ -109,6 +141,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -131,6 +171,7 @@ public class User {
                ", email='" + email + '\'' +
                ", createdAt=" + createdAt +
                ", updatedAt=" + updatedAt +
+               ", version=" + version +
                '}';
     }
 }
@@ -0,0 +1,10 @@
+package com.example.cleanapi.borders.entities;
+
+/**
+ * Kind of write recorded in the user change feed
+ */
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
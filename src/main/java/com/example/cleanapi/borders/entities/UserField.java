@@ -0,0 +1,59 @@
+package com.example.cleanapi.borders.entities;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The user attributes a client can select with ?fields=
+ * Declaration order is the order fields appear in responses, matching UserResponseDto
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    CREATED_AT("created_at"),
+    UPDATED_AT("updated_at"),
+    VERSION("version");
+
+    private final String fieldName;
+
+    UserField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * Name of the field in JSON responses and of the matching column
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Parse a comma-separated field list such as "id,email"
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    public static Set<UserField> parseList(String fields) {
+        EnumSet<UserField> selected = EnumSet.noneOf(UserField.class);
+        if (fields != null) {
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    selected.add(of(trimmed));
+                }
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one field");
+        }
+        return selected;
+    }
+
+    private static UserField of(String fieldName) {
+        for (UserField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + fieldName);
+    }
+}
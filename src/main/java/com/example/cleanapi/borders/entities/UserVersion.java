@@ -0,0 +1,48 @@
+package com.example.cleanapi.borders.entities;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Version stamp of a stored user
+ * Enough to answer a conditional request without loading the whole user
+ */
+public class UserVersion {
+    private final Long version;
+    private final LocalDateTime updatedAt;
+
+    public UserVersion(Long version, LocalDateTime updatedAt) {
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserVersion that = (UserVersion) o;
+        return Objects.equals(version, that.version) &&
+               Objects.equals(updatedAt, that.updatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, updatedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "UserVersion{" +
+               "version=" + version +
+               ", updatedAt=" + updatedAt +
+               '}';
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Base class for expected business failures such as a missing user or a taken email
+ * These are control flow answered with a 4xx status, never bugs, so no stack
+ * trace is captured: filling one in costs more than the rest of the request
+ * when clients probe for ids that do not exist.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Thrown when a write would give two users the same email
+ * Raised from the database unique constraint, which also covers concurrent
+ * writers, or early when the email filter says the email may be taken
+ */
+public class EmailConflictException extends DomainException {
+
+    public static final String DEFAULT_MESSAGE = "User with this email already exists";
+
+    public EmailConflictException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public EmailConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Thrown when a create request finds the ingestion queue full
+ * Backpressure rather than a failure: the client should retry shortly,
+ * so like domain exceptions it carries no stack trace
+ */
+public class IngestionQueueFullException extends RuntimeException {
+
+    public static final String DEFAULT_MESSAGE = "Too many pending user creations, retry shortly";
+
+    public IngestionQueueFullException() {
+        super(DEFAULT_MESSAGE, null, false, false);
+    }
+}
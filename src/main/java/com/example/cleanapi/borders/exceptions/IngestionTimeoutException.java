@@ -0,0 +1,16 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Thrown when a create request is not written within the ingestion wait limit
+ * The request is withdrawn if its batch has not started yet, but a batch already
+ * being written may still store it, so the client should look the user up by
+ * email before retrying. Like domain exceptions it carries no stack trace
+ */
+public class IngestionTimeoutException extends RuntimeException {
+
+    public static final String DEFAULT_MESSAGE = "User creation timed out and may still complete; check before retrying";
+
+    public IngestionTimeoutException() {
+        super(DEFAULT_MESSAGE, null, false, false);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Thrown when the requested user does not exist
+ * The message is only built if someone reads it
+ */
+public class UserNotFoundException extends DomainException {
+
+    public static final String MESSAGE_PREFIX = "User not found with ID: ";
+
+    private final Long userId;
+
+    public UserNotFoundException(Long userId) {
+        super(null);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getMessage() {
+        return MESSAGE_PREFIX + userId;
+    }
+}
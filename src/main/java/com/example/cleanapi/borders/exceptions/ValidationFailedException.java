@@ -0,0 +1,25 @@
+package com.example.cleanapi.borders.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown when well-formed input breaks a business validation rule
+ */
+public class ValidationFailedException extends DomainException {
+
+    private final List<String> errors;
+
+    public ValidationFailedException(List<String> errors) {
+        super(null);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Validation failed: " + String.join("; ", errors);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.cleanapi.borders.exceptions;
+
+/**
+ * Thrown when a conditional write names a version the user no longer has
+ * The check happens inside the UPDATE or DELETE itself, so a concurrent
+ * writer can never slip in between the check and the write
+ */
+public class VersionMismatchException extends DomainException {
+
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.cleanapi.borders.interfaces;
+
+/**
+ * Notified after a write that recorded user changes has committed
+ */
+public interface UserChangeListener {
+
+    /**
+     * Called on the committing thread once the transaction is done; must return quickly
+     * @param lastSequence Highest sequence number committed so far
+     */
+    void changesCommitted(long lastSequence);
+}
@@ -0,0 +1,23 @@
+package com.example.cleanapi.borders.interfaces;
+
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+
+import java.util.List;
+
+/**
+ * Read side of the user change feed
+ * Every create, update and delete is recorded with a sequence number, and reads
+ * stop short of any lower number still being committed, so a reader that
+ * resumes after the last number it saw never misses a change
+ */
+public interface UserChangeRepository {
+
+    /**
+     * Find the changes recorded after the given sequence number
+     * @param since Sequence number of the last change already seen, or 0 to start from the beginning
+     * @param limit Maximum number of changes to return
+     * @return At most {@code limit} changes in sequence order, ending before the first change not yet committed;
+     *         the entries carry no user, which callers look up through the UserRepository
+     */
+    List<UserChangeDto> findSince(long since, int limit);
+}
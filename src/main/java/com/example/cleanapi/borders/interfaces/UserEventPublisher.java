@@ -0,0 +1,17 @@
+package com.example.cleanapi.borders.interfaces;
+
+import com.example.cleanapi.borders.dtos.UserEventDto;
+
+/**
+ * Outbound port for user lifecycle events
+ * Called on the request thread after a write has been stored, so implementations
+ * must hand the event off in constant time and never block on subscribers
+ */
+public interface UserEventPublisher {
+
+    /**
+     * Publish an event about a stored write
+     * @param event The event
+     */
+    void publish(UserEventDto event);
+}
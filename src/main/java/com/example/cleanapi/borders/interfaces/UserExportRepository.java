@@ -0,0 +1,25 @@
+package com.example.cleanapi.borders.interfaces;
+
+import java.util.function.Consumer;
+
+/**
+ * Repository interface for bulk, forward-only reads of the user set
+ * Kept apart from {@link UserRepository} because it deliberately bypasses
+ * the domain entity and hands out raw rows
+ */
+public interface UserExportRepository {
+
+    /**
+     * Stream every user, ordered by ID, to the given consumer
+     * @param consumer Receives each row as it is read from the database
+     * @return Number of rows streamed
+     */
+    long streamAll(UserRowConsumer consumer);
+    
+    /**
+     * Stream only the email column of every user
+     * @param consumer Receives each email as it is read from the database
+     * @return Number of emails streamed
+     */
+    long streamEmails(Consumer<String> consumer);
+}
@@ -0,0 +1,33 @@
+package com.example.cleanapi.borders.interfaces;
+
+import com.example.cleanapi.borders.entities.UserField;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Callback receiving the selected columns of each user row, one field at a time
+ * Only the fields that were selected are read and passed on, so nothing is
+ * built for the rest. Fields arrive in {@link UserField} declaration order.
+ */
+public interface UserFieldConsumer {
+
+    void startUser() throws IOException;
+
+    /**
+     * Receives {@link UserField#ID} and {@link UserField#VERSION}
+     */
+    void longField(UserField field, long value) throws IOException;
+
+    /**
+     * Receives {@link UserField#NAME} and {@link UserField#EMAIL}
+     */
+    void stringField(UserField field, String value) throws IOException;
+
+    /**
+     * Receives {@link UserField#CREATED_AT} and {@link UserField#UPDATED_AT}
+     */
+    void dateTimeField(UserField field, LocalDateTime value) throws IOException;
+
+    void endUser() throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.example.cleanapi.borders.interfaces;
+
+import com.example.cleanapi.borders.entities.UserField;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Repository interface for reads that select only some user columns
+ * Like {@link UserExportRepository} it hands out raw fields rather than
+ * domain entities, so the SELECT list and the response carry the same fields
+ */
+public interface UserProjectionRepository {
+
+    /**
+     * Read the selected fields of one user
+     * @return true if the user exists
+     */
+    boolean findById(long id, Set<UserField> fields, UserFieldConsumer consumer);
+
+    /**
+     * Read the selected fields of the users with the given IDs using chunked IN queries
+     * @param ids The user IDs; duplicates are read once
+     * @return Number of users read; rows arrive in no particular order
+     */
+    long findAllByIds(Collection<Long> ids, Set<UserField> fields, UserFieldConsumer consumer);
+
+    /**
+     * Read the selected fields of one keyset page ordered by (createdAt, id)
+     * @param afterCreatedAt Creation timestamp of the last user already seen, or null for the first page
+     * @param afterId ID of the last user already seen, or null for the first page
+     * @param limit Maximum number of users to read
+     * @return Number of users read
+     */
+    long findPage(LocalDateTime afterCreatedAt, Long afterId, int limit,
+                  Set<UserField> fields, UserFieldConsumer consumer);
+}
@@ -0,0 +1,38 @@
+package com.example.cleanapi.borders.interfaces;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-side repository returning response DTOs directly
+ * Reads do not need the domain entity, so implementations may map rows
+ * straight to UserResponseDto; writes keep going through {@link UserRepository}
+ */
+public interface UserQueryRepository {
+
+    /**
+     * Find a user by their ID
+     * @param id The user ID
+     * @return Optional containing the user if found
+     */
+    Optional<UserResponseDto> findById(Long id);
+
+    /**
+     * Find all users
+     * @return List of all users
+     */
+    List<UserResponseDto> findAll();
+
+    /**
+     * Find a page of users ordered by (createdAt, id), starting strictly after
+     * the given keyset position
+     * @param afterCreatedAt Creation timestamp of the last user already seen, or null for the first page
+     * @param afterId ID of the last user already seen, or null for the first page
+     * @param limit Maximum number of users to return
+     * @return List of at most {@code limit} users in keyset order
+     */
+    List<UserResponseDto> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
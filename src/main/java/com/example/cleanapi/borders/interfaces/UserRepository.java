@@ -1,9 +1,13 @@
 package com.example.cleanapi.borders.interfaces;
 
 import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserVersion;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface following Clean Architecture principles
@@ -16,9 +20,40 @@ public interface UserRepository {
      * Save a new user or update an existing one
      * @param user The user to save
      * @return The saved user with generated ID
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if the email is already taken
      */
     User save(User user);
     
+    /**
+     * Update the name and email of an existing user with a single conditional UPDATE,
+     * without loading the row first. When the user carries a version, the UPDATE only
+     * applies if the stored row still has that version.
+     * @param user The user carrying the ID, the new values and optionally the expected version
+     * @return The updated user, or empty if no user has that ID
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if the email is already taken
+     * @throws com.example.cleanapi.borders.exceptions.VersionMismatchException if the stored version differs
+     */
+    Optional<User> update(User user);
+    
+    /**
+     * Update only the given columns of an existing user plus updated_at, without
+     * loading the row first. A null value leaves that column unchanged.
+     * @param id The user ID
+     * @param name The new name, or null to keep the stored one
+     * @param email The new email, or null to keep the stored one
+     * @param updatedAt The new modification timestamp
+     * @return The updated user, or empty if no user has that ID
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if the email is already taken
+     */
+    Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt);
+    
+    /**
+     * Save several new users in one transaction using batched inserts
+     * @param users The users to save
+     * @return The saved users with generated IDs, in the same order
+     */
+    List<User> saveAll(List<User> users);
+    
     /**
      * Find a user by their ID
      * @param id The user ID
@@ -26,6 +61,27 @@ public interface UserRepository {
      */
     Optional<User> findById(Long id);
     
+    /**
+     * Find only the version and modification time of a user, without loading the row
+     * @param id The user ID
+     * @return Optional containing the version stamp if the user exists
+     */
+    Optional<UserVersion> findVersionById(Long id);
+    
+    /**
+     * Find the users with the given IDs using a few chunked IN queries
+     * @param ids The user IDs; duplicates are looked up once
+     * @return The users that exist, in no particular order
+     */
+    List<User> findAllByIds(Collection<Long> ids);
+    
+    /**
+     * Find the users with the given emails using a few chunked IN queries
+     * @param emails The user emails; duplicates are looked up once
+     * @return The users that exist, in no particular order
+     */
+    List<User> findAllByEmails(Collection<String> emails);
+    
     /**
      * Find a user by their email address
      * @param email The user email
@@ -40,12 +96,38 @@ public interface UserRepository {
     List<User> findAll();
     
     /**
-     * Delete a user by their ID
+     * Find a page of users ordered by (createdAt, id), starting strictly after
+     * the given keyset position
+     * @param afterCreatedAt Creation timestamp of the last user already seen, or null for the first page
+     * @param afterId ID of the last user already seen, or null for the first page
+     * @param limit Maximum number of users to return
+     * @return List of at most {@code limit} users in keyset order
+     */
+    List<User> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit);
+    
+    /**
+     * Count all users
+     * @return Total number of users
+     */
+    long count();
+    
+    /**
+     * Delete a user by their ID with a single DELETE statement
      * @param id The user ID
      * @return true if user was deleted, false if not found
      */
     boolean deleteById(Long id);
     
+    /**
+     * Delete a user by their ID with a single DELETE statement, only if the stored
+     * row still has the expected version
+     * @param id The user ID
+     * @param expectedVersion The version the caller last saw
+     * @return true if user was deleted, false if not found
+     * @throws com.example.cleanapi.borders.exceptions.VersionMismatchException if the stored version differs
+     */
+    boolean deleteById(Long id, Long expectedVersion);
+    
     /**
      * Check if a user exists by ID
      * @param id The user ID
@@ -59,4 +141,33 @@ public interface UserRepository {
      * @return true if user exists
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Ask an in-memory index whether an email can already be taken, without a query
+     * Repositories without such an index answer UNKNOWN
+     * @param email The user email
+     * @return ABSENT only when no stored user can have the email
+     */
+    default EmailHint emailHint(String email) {
+        return EmailHint.UNKNOWN;
+    }
+    
+    /**
+     * Answer of {@link #emailHint(String)}
+     */
+    enum EmailHint {
+        /** No stored user has the email, so a write can skip the uniqueness check */
+        ABSENT,
+        /** A stored user may have the email; only a query can tell */
+        POSSIBLY_PRESENT,
+        /** No index is available */
+        UNKNOWN
+    }
+    
+    /**
+     * Find which of the given emails already belong to a user, in a single query
+     * @param emails The emails to check
+     * @return The subset of emails that already exist
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
 }
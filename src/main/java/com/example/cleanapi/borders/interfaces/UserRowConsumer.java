@@ -0,0 +1,19 @@
+package com.example.cleanapi.borders.interfaces;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Callback receiving raw user columns one row at a time
+ * Lets bulk readers stream rows without building domain entities or DTOs
+ */
+@FunctionalInterface
+public interface UserRowConsumer {
+
+    /**
+     * Accept one user row
+     * @throws IOException if the row cannot be written downstream; aborts the stream
+     */
+    void accept(long id, String name, String email,
+                LocalDateTime createdAt, LocalDateTime updatedAt) throws IOException;
+}
@@ -1,10 +1,19 @@
 package com.example.cleanapi.borders.interfaces;
 
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
 import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Use Case interface for User operations
@@ -16,37 +25,169 @@ public interface UserUseCase {
      * Create a new user
      * @param createUserDto Data for creating the user
      * @return The created user response
-     * @throws IllegalArgumentException if email already exists
+     * @throws com.example.cleanapi.borders.exceptions.ValidationFailedException if validation fails
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if email already exists
      */
     UserResponseDto createUser(CreateUserDto createUserDto);
     
+    /**
+     * Create several users at once
+     * Items that fail validation or collide on email are reported individually
+     * and do not prevent the others from being created, also when another request
+     * takes one of the emails while the batch is being inserted
+     * @param createUserDtos Data for each user to create
+     * @return Per-item results in request order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if concurrent creates
+     *         keep taking emails of the batch after repeated inserts; nothing is created then
+     */
+    BatchCreateResultDto createUsers(List<CreateUserDto> createUserDtos);
+    
     /**
      * Get a user by ID
      * @param id The user ID
      * @return The user response
-     * @throws IllegalArgumentException if user not found
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
      */
     UserResponseDto getUserById(Long id);
     
+    /**
+     * Get only the selected fields of a user, read with a projection query
+     * @param id The user ID
+     * @param fields The fields to read
+     * @param consumer Receives the selected fields of the user
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     */
+    void getUserFields(Long id, Set<UserField> fields, UserFieldConsumer consumer);
+    
+    /**
+     * Get only the version stamp of a user, to answer conditional requests cheaply
+     * @param id The user ID
+     * @return The user's current version and modification time
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     */
+    UserVersion getUserVersion(Long id);
+    
+    /**
+     * Get many users at once by ID and/or email, with one chunked IN query per key kind
+     * @param lookupDto The ids and emails to look up
+     * @return One result per requested key in request order, marking keys with no user as not found
+     * @throws IllegalArgumentException if the lookup is empty or too large
+     */
+    UserLookupResultDto lookupUsers(UserLookupDto lookupDto);
+    
+    /**
+     * Get only the selected fields of many users by ID, read with chunked projection queries
+     * Rows arrive in no particular order and always include the ID, even when not selected,
+     * so the caller can match them to the requested ids
+     * @param ids The user IDs
+     * @param fields The fields to read
+     * @param consumer Receives the fields of each user found
+     * @return Number of users found
+     * @throws IllegalArgumentException if the lookup is empty or too large
+     */
+    long lookupUserFields(List<Long> ids, Set<UserField> fields, UserFieldConsumer consumer);
+    
     /**
      * Get all users
      * @return List of all users
      */
     List<UserResponseDto> getAllUsers();
     
+    /**
+     * Get one keyset page of users ordered by creation time
+     * @param after Opaque cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of users in the page
+     * @return The page with the cursor for the next one; only the first page has a total count
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    UserPageDto getUsersPage(String after, int limit);
+    
+    /**
+     * Get only the selected fields of one keyset page of users ordered by creation time
+     * Rows always include the ID and creation time, which the cursor is built from
+     * @param after Opaque cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of users in the page
+     * @param fields The fields to read
+     * @param consumer Receives the fields of each user in the page, in order
+     * @return The page cursor, and the total count on the first page; its user list is empty
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    UserPageDto getUsersPage(String after, int limit, Set<UserField> fields, UserFieldConsumer consumer);
+    
+    /**
+     * Stream every user to the given consumer without materializing the result
+     * @param consumer Receives each user row as it is read
+     * @return Number of users exported
+     */
+    long exportUsers(UserRowConsumer consumer);
+    
+    /**
+     * Get the user changes recorded after a sequence number, for incremental sync
+     * Deletes appear as entries without a user (tombstones)
+     * @param since Sequence number of the last change already seen, or 0 to start from the beginning
+     * @param limit Maximum number of changes in the page
+     * @return The changes in sequence order with the position to resume from
+     * @throws IllegalArgumentException if the sequence number or limit is invalid
+     */
+    UserChangePageDto getChanges(long since, int limit);
+    
     /**
      * Update an existing user
      * @param id The user ID
      * @param updateUserDto Data for updating the user
      * @return The updated user response
-     * @throws IllegalArgumentException if user not found or email already exists
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     * @throws com.example.cleanapi.borders.exceptions.ValidationFailedException if validation fails
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if email already exists
      */
     UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto);
     
+    /**
+     * Update an existing user only if it still has the expected version
+     * @param id The user ID
+     * @param updateUserDto Data for updating the user
+     * @param expectedVersion The version the caller last saw, or null to update unconditionally
+     * @return The updated user response
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     * @throws com.example.cleanapi.borders.exceptions.ValidationFailedException if validation fails
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if email already exists
+     * @throws com.example.cleanapi.borders.exceptions.VersionMismatchException if the user was modified since
+     */
+    UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto, Long expectedVersion);
+    
+    /**
+     * Partially update an existing user; only the fields present in the patch change
+     * @param id The user ID
+     * @param patchUserDto Merge patch with the fields to change
+     * @return The updated user response
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     * @throws com.example.cleanapi.borders.exceptions.ValidationFailedException if validation fails
+     * @throws com.example.cleanapi.borders.exceptions.EmailConflictException if email already exists
+     */
+    UserResponseDto patchUser(Long id, PatchUserDto patchUserDto);
+    
     /**
      * Delete a user by ID
      * @param id The user ID
-     * @throws IllegalArgumentException if user not found
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
      */
     void deleteUser(Long id);
+    
+    /**
+     * Delete a user by ID only if it still has the expected version
+     * @param id The user ID
+     * @param expectedVersion The version the caller last saw, or null to delete unconditionally
+     * @throws IllegalArgumentException if the ID is not positive
+     * @throws com.example.cleanapi.borders.exceptions.UserNotFoundException if user not found
+     * @throws com.example.cleanapi.borders.exceptions.VersionMismatchException if the user was modified since
+     */
+    void deleteUser(Long id, Long expectedVersion);
 }
@@ -0,0 +1,161 @@
+package com.example.cleanapi.borders.validators;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Immutable set of disposable email domains stored as 64-bit hashes
+ * An open-addressing table of longs keeps 100k+ domains in a few MB and lets
+ * lookups hash a region of the email in place, without creating substrings.
+ * Two distinct domains sharing a 64-bit hash is possible in principle but
+ * negligible at this size.
+ */
+public final class DisposableDomainSet {
+
+    private static final DisposableDomainSet EMPTY = new DisposableDomainSet(new long[0], 0);
+
+    // Zero marks an empty slot; a domain hashing to zero is stored as this instead
+    private static final long ZERO_HASH_SUBSTITUTE = 0x9e3779b97f4a7c15L;
+
+    private final long[] table;
+    private final int mask;
+    private final int size;
+
+    private DisposableDomainSet(long[] table, int size) {
+        this.table = table;
+        this.mask = table.length - 1;
+        this.size = size;
+    }
+
+    public static DisposableDomainSet empty() {
+        return EMPTY;
+    }
+
+    public static DisposableDomainSet of(String... domains) {
+        return fromHashes(Arrays.stream(domains)
+                                .mapToLong(domain -> hash(domain, 0, domain.length()))
+                                .toArray(), domains.length);
+    }
+
+    /**
+     * Read one domain per line; blank lines and lines starting with '#' are skipped
+     */
+    public static DisposableDomainSet read(InputStream input) throws IOException {
+        long[] hashes = new long[1024];
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int start = 0;
+                int end = line.length();
+                while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+                while (end > start && Character.isWhitespace(line.charAt(end - 1))) end--;
+                if (start == end || line.charAt(start) == '#') {
+                    continue;
+                }
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = hash(line, start, end);
+            }
+        }
+        return fromHashes(hashes, count);
+    }
+
+    /**
+     * Load the list bundled on the classpath, or an empty set if there is none
+     */
+    public static DisposableDomainSet fromClasspath(String resource) {
+        InputStream input = DisposableDomainSet.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            return EMPTY;
+        }
+        try {
+            return read(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DisposableDomainSet fromHashes(long[] hashes, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        // Power-of-two capacity at most ~2/3 full keeps probe chains short
+        int capacity = Integer.highestOneBit(Math.max(2, count + count / 2) - 1) << 1;
+        long[] table = new long[capacity];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long hash = hashes[i] == 0 ? ZERO_HASH_SUBSTITUTE : hashes[i];
+            int slot = (int) hash & (capacity - 1);
+            while (table[slot] != 0 && table[slot] != hash) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] == 0) {
+                table[slot] = hash;
+                size++;
+            }
+        }
+        return new DisposableDomainSet(table, size);
+    }
+
+    /**
+     * Whether chars [start, end) of the given text, compared case-insensitively, are a listed domain
+     */
+    public boolean contains(CharSequence text, int start, int end) {
+        if (size == 0) {
+            return false;
+        }
+        long hash = hash(text, start, end);
+        if (hash == 0) {
+            hash = ZERO_HASH_SUBSTITUTE;
+        }
+        int slot = (int) hash & mask;
+        long candidate;
+        while ((candidate = table[slot]) != 0) {
+            if (candidate == hash) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean contains(String domain) {
+        return contains(domain, 0, domain.length());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMemoryBytes() {
+        return table.length * 8L;
+    }
+
+    /**
+     * 64-bit FNV-1a over the ASCII-lowercased chars, finished with the MurmurHash3 mixer
+     */
+    private static long hash(CharSequence text, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            h ^= c;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
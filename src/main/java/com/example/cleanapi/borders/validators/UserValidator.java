@@ -1,130 +1,319 @@
 package com.example.cleanapi.borders.validators;
 
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 
 /**
  * Custom validator for user-related operations
- * Implements business validation rules beyond basic bean validation
+ * This is the only validation a user write goes through: controllers do not
+ * run Bean Validation and use cases build entities with User.ofValidated.
+ * The checks scan the input in place, so validating a valid user allocates
+ * nothing; error lists are only created once a rule actually fails.
  */
 @Component
 public class UserValidator {
     
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
-    );
+    static final String DEFAULT_DISPOSABLE_DOMAINS = "disposable-domains.txt";
     
-    private static final Pattern NAME_PATTERN = Pattern.compile(
-        "^[a-zA-ZÀ-ÿ\\s]+$"
-    );
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_EMAIL_LENGTH = 254;
+    
+    private final Supplier<DisposableDomainSet> disposableDomains;
+    private final ValidationMode defaultMode;
+    
+    /**
+     * Validator using the disposable-domain list bundled on the classpath
+     */
+    public UserValidator() {
+        this(constant(DisposableDomainSet.fromClasspath(DEFAULT_DISPOSABLE_DOMAINS)));
+    }
+    
+    public UserValidator(Supplier<DisposableDomainSet> disposableDomains) {
+        this(disposableDomains, ValidationMode.COLLECT_ALL);
+    }
+    
+    /**
+     * @param disposableDomains Source of the current disposable-domain list; read on every validation
+     *                          so a reloaded list takes effect immediately
+     * @param defaultMode Mode used when the caller does not pick one
+     */
+    @Autowired
+    public UserValidator(Supplier<DisposableDomainSet> disposableDomains,
+                         @Value("${app.validation.mode:collect-all}") ValidationMode defaultMode) {
+        this.disposableDomains = disposableDomains;
+        this.defaultMode = defaultMode;
+    }
     
     /**
      * Validate CreateUserDto with business rules
      */
     public ValidationResult validateCreateUser(CreateUserDto dto) {
-        List<String> errors = new ArrayList<>();
-        
+        return validateCreateUser(dto, defaultMode);
+    }
+    
+    public ValidationResult validateCreateUser(CreateUserDto dto, ValidationMode mode) {
         if (dto == null) {
-            errors.add("User data cannot be null");
-            return new ValidationResult(false, errors);
-        }
-        
-        // Validate name
-        if (dto.getName() == null || dto.getName().trim().isEmpty()) {
-            errors.add("Name is required");
-        } else {
-            validateName(dto.getName(), errors);
-        }
-        
-        // Validate email
-        if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
-            errors.add("Email is required");
-        } else {
-            validateEmail(dto.getEmail(), errors);
+            return ValidationResult.invalid("User data cannot be null");
         }
-        
-        return new ValidationResult(errors.isEmpty(), errors);
+        return validate(true, dto.getName(), true, dto.getEmail(), false, mode);
     }
     
     /**
      * Validate UpdateUserDto with business rules
      */
     public ValidationResult validateUpdateUser(UpdateUserDto dto) {
-        List<String> errors = new ArrayList<>();
-        
+        return validateUpdateUser(dto, defaultMode);
+    }
+    
+    public ValidationResult validateUpdateUser(UpdateUserDto dto, ValidationMode mode) {
         if (dto == null) {
-            errors.add("User data cannot be null");
-            return new ValidationResult(false, errors);
+            return ValidationResult.invalid("User data cannot be null");
+        }
+        return validate(true, dto.getName(), true, dto.getEmail(), false, mode);
+    }
+    
+    /**
+     * Validate PatchUserDto with business rules
+     * Only the members present in the patch are checked; absent members stay as stored
+     */
+    public ValidationResult validatePatchUser(PatchUserDto dto) {
+        return validatePatchUser(dto, defaultMode);
+    }
+    
+    public ValidationResult validatePatchUser(PatchUserDto dto, ValidationMode mode) {
+        if (dto == null) {
+            return ValidationResult.invalid("User data cannot be null");
         }
+        return validate(dto.hasName(), dto.getName(), dto.hasEmail(), dto.getEmail(), true, mode);
+    }
+    
+    /**
+     * The single validation pipeline behind every entry point
+     * Each field is scanned once; in FAIL_FAST mode the scan stops at the first failed rule.
+     * @param partial Whether this is a patch, where a present null means the field would be removed
+     */
+    private ValidationResult validate(boolean checkName, String name, boolean checkEmail, String email,
+                                      boolean partial, ValidationMode mode) {
+        List<String> errors = null;
         
         // Validate name
-        if (dto.getName() == null || dto.getName().trim().isEmpty()) {
-            errors.add("Name is required");
-        } else {
-            validateName(dto.getName(), errors);
+        if (checkName) {
+            if (name == null && partial) {
+                errors = addError(errors, "Name cannot be removed");
+            } else if (isBlank(name)) {
+                errors = addError(errors, "Name is required");
+            } else {
+                errors = validateName(name, errors, mode);
+            }
+        }
+        if (stop(errors, mode)) {
+            return ValidationResult.of(errors);
         }
         
         // Validate email
-        if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
-            errors.add("Email is required");
-        } else {
-            validateEmail(dto.getEmail(), errors);
+        if (checkEmail) {
+            if (email == null && partial) {
+                errors = addError(errors, "Email cannot be removed");
+            } else if (isBlank(email)) {
+                errors = addError(errors, "Email is required");
+            } else {
+                errors = validateEmail(email, errors, mode);
+            }
         }
         
-        return new ValidationResult(errors.isEmpty(), errors);
+        return ValidationResult.of(errors);
     }
     
-    private void validateName(String name, List<String> errors) {
-        String trimmedName = name.trim();
+    private List<String> validateName(String name, List<String> errors, ValidationMode mode) {
+        int start = trimStart(name);
+        int end = trimEnd(name, start);
+        int length = end - start;
+        
+        if (length < 2) {
+            errors = addError(errors, "Name must be at least 2 characters long");
+        }
         
-        if (trimmedName.length() < 2) {
-            errors.add("Name must be at least 2 characters long");
+        if (length > MAX_NAME_LENGTH) {
+            errors = addError(errors, "Name must not exceed 100 characters");
+        }
+        if (stop(errors, mode)) {
+            return errors;
         }
         
-        if (trimmedName.length() > 100) {
-            errors.add("Name must not exceed 100 characters");
+        boolean lettersAndSpacesOnly = true;
+        boolean consecutiveSpaces = false;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (!isNameChar(c)) {
+                lettersAndSpacesOnly = false;
+                if (mode == ValidationMode.FAIL_FAST) {
+                    break;
+                }
+            }
+            if (c == ' ' && i + 1 < end && name.charAt(i + 1) == ' ') {
+                consecutiveSpaces = true;
+            }
         }
         
-        if (!NAME_PATTERN.matcher(trimmedName).matches()) {
-            errors.add("Name must contain only letters and spaces");
+        if (!lettersAndSpacesOnly) {
+            errors = addError(errors, "Name must contain only letters and spaces");
         }
         
         // Check for consecutive spaces
-        if (trimmedName.contains("  ")) {
-            errors.add("Name cannot contain consecutive spaces");
+        if (consecutiveSpaces && !stop(errors, mode)) {
+            errors = addError(errors, "Name cannot contain consecutive spaces");
         }
+        
+        return errors;
     }
     
-    private void validateEmail(String email, List<String> errors) {
-        String trimmedEmail = email.trim().toLowerCase();
+    private List<String> validateEmail(String email, List<String> errors, ValidationMode mode) {
+        int start = trimStart(email);
+        int end = trimEnd(email, start);
+        
+        if (end - start > MAX_EMAIL_LENGTH) {
+            errors = addError(errors, "Email must not exceed 254 characters");
+            if (stop(errors, mode)) {
+                return errors;
+            }
+        }
         
-        if (trimmedEmail.length() > 254) {
-            errors.add("Email must not exceed 254 characters");
+        int at = emailDomainStart(email, start, end);
+        if (at < 0) {
+            errors = addError(errors, "Email format is invalid");
         }
         
-        if (!EMAIL_PATTERN.matcher(trimmedEmail).matches()) {
-            errors.add("Email format is invalid");
+        // Check for disposable email domains (business rule example)
+        if (at >= 0 && isDisposable(email, at, end)) {
+            errors = addError(errors, "Disposable email addresses are not allowed");
         }
         
-        // Check for common disposable email domains (business rule example)
-        String[] disposableDomains = {"10minutemail.com", "tempmail.org", "guerrillamail.com"};
-        for (String domain : disposableDomains) {
-            if (trimmedEmail.endsWith("@" + domain)) {
-                errors.add("Disposable email addresses are not allowed");
-                break;
+        return errors;
+    }
+    
+    /**
+     * Whether the domain, or any parent domain above the top level, is on the disposable list
+     */
+    private boolean isDisposable(String email, int domainStart, int end) {
+        DisposableDomainSet domains = disposableDomains.get();
+        for (int i = domainStart; i < end; i++) {
+            if (i == domainStart || email.charAt(i - 1) == '.') {
+                if (email.indexOf('.', i) < 0) {
+                    // Only the top-level domain is left
+                    return false;
+                }
+                if (domains.contains(email, i, end)) {
+                    return true;
+                }
             }
         }
+        return false;
+    }
+    
+    /**
+     * Hand-written equivalent of {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$}
+     * @return Index of the first domain char after '@', or -1 if the email is malformed
+     */
+    static int emailDomainStart(String email, int start, int end) {
+        int at = start;
+        while (at < end && isLocalPartChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == start || at == end || email.charAt(at) != '@') {
+            return -1;
+        }
+        
+        int domainStart = at + 1;
+        int lastDot = -1;
+        for (int i = domainStart; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return -1;
+            }
+        }
+        // At least one char before the last dot and two or more letters after it
+        if (lastDot <= domainStart || end - lastDot - 1 < 2) {
+            return -1;
+        }
+        for (int i = lastDot + 1; i < end; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return -1;
+            }
+        }
+        return domainStart;
+    }
+    
+    private static boolean isNameChar(char c) {
+        // Same set as [a-zA-Z\u00C0-\u00FF\s]
+        return isAsciiLetter(c) || (c >= '\u00C0' && c <= '\u00FF')
+            || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+    
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+    
+    // Same notion of whitespace as String.trim(), without creating the trimmed copy
+    private static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    private static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || trimStart(value) == value.length();
+    }
+    
+    private static boolean stop(List<String> errors, ValidationMode mode) {
+        return errors != null && mode == ValidationMode.FAIL_FAST;
+    }
+    
+    private static List<String> addError(List<String> errors, String error) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(error);
+        return errors;
+    }
+    
+    private static Supplier<DisposableDomainSet> constant(DisposableDomainSet domains) {
+        return () -> domains;
     }
     
     /**
      * Validation result wrapper
      */
     public static class ValidationResult {
+        private static final ValidationResult VALID = new ValidationResult(true, List.of());
+        
         private final boolean valid;
         private final List<String> errors;
         
@@ -133,6 +322,23 @@ public class UserValidator {
             this.errors = errors;
         }
         
+        /**
+         * Shared result for input that passed every rule
+         */
+        public static ValidationResult valid() {
+            return VALID;
+        }
+        
+        static ValidationResult invalid(String error) {
+            List<String> errors = new ArrayList<>(1);
+            errors.add(error);
+            return new ValidationResult(false, errors);
+        }
+        
+        static ValidationResult of(List<String> errors) {
+            return errors == null ? VALID : new ValidationResult(false, errors);
+        }
+        
         public boolean isValid() {
             return valid;
         }
@@ -0,0 +1,17 @@
+package com.example.cleanapi.borders.validators;
+
+/**
+ * How much of the input UserValidator examines once a rule fails
+ */
+public enum ValidationMode {
+
+    /**
+     * Stop at the first failed rule; cheapest way to reject bad input
+     */
+    FAIL_FAST,
+
+    /**
+     * Run every rule and report all failures at once
+     */
+    COLLECT_ALL
+}
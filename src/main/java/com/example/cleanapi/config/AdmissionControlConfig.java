@@ -0,0 +1,46 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.api.filters.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+/**
+ * Admission control for the API: per-client rate limits and adaptive
+ * concurrency limits for reads and writes, applied before any other work.
+ * Turned off with app.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Value("${app.admission.reads.initial-limit:50}") int readInitial,
+            @Value("${app.admission.reads.min-limit:5}") int readMin,
+            @Value("${app.admission.reads.max-limit:150}") int readMax,
+            @Value("${app.admission.writes.initial-limit:20}") int writeInitial,
+            @Value("${app.admission.writes.min-limit:2}") int writeMin,
+            @Value("${app.admission.writes.max-limit:50}") int writeMax,
+            @Value("${app.admission.client.rate:100}") double clientRate,
+            @Value("${app.admission.client.burst:200}") int clientBurst,
+            @Value("${app.admission.client.max-clients:10000}") int maxClients,
+            @Value("${app.admission.client.api-keys:}") Set<String> apiKeys,
+            MeterRegistry registry) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+            new AdmissionControlFilter.ConcurrencyLimit(readInitial, readMin, readMax),
+            new AdmissionControlFilter.ConcurrencyLimit(writeInitial, writeMin, writeMax),
+            clientRate, clientBurst, maxClients, apiKeys, registry);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Right inside the Server-Timing filter: shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -60,6 +60,9 @@ public class CorsConfig {
             "Content-Type", 
             "Authorization", 
             "X-Total-Count",
+            "Link",
+            "ETag",
+            "Last-Modified",
             "Access-Control-Allow-Origin",
             "Access-Control-Allow-Credentials"
         ));
@@ -0,0 +1,93 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.borders.validators.DisposableDomainSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the disposable-domain list loaded from a file or classpath resource
+ * The list is re-read whenever the underlying file changes and swapped in as
+ * a whole, so validators always see either the old or the new list.
+ */
+public class DisposableDomainLoader implements Supplier<DisposableDomainSet>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DisposableDomainLoader.class);
+
+    private final Resource resource;
+    private final ScheduledExecutorService reloadExecutor;
+
+    private volatile DisposableDomainSet current = DisposableDomainSet.empty();
+    private long loadedLastModified = Long.MIN_VALUE;
+
+    public DisposableDomainLoader(Resource resource, Duration reloadInterval) {
+        this.resource = resource;
+        reload();
+        if (reloadInterval.isZero() || reloadInterval.isNegative()) {
+            this.reloadExecutor = null;
+        } else {
+            this.reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "disposable-domain-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = reloadInterval.toMillis();
+            reloadExecutor.scheduleWithFixedDelay(this::reloadIfChanged, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public DisposableDomainSet get() {
+        return current;
+    }
+
+    /**
+     * Re-read the list if the resource changed since the last load
+     * Resources without a modification time (e.g. inside a jar) are loaded once
+     * @return true if a new list was swapped in
+     */
+    public synchronized boolean reloadIfChanged() {
+        long lastModified = lastModified();
+        if (lastModified == loadedLastModified || lastModified == 0L) {
+            return false;
+        }
+        return reload();
+    }
+
+    private synchronized boolean reload() {
+        long lastModified = lastModified();
+        try (InputStream input = resource.getInputStream()) {
+            current = DisposableDomainSet.read(input);
+            loadedLastModified = lastModified;
+            log.info("Loaded {} disposable email domains from {}", current.size(), resource.getDescription());
+            return true;
+        } catch (IOException e) {
+            // Keep serving the previous list; a half-written file is retried on the next tick
+            log.warn("Could not load disposable email domains from {}: {}", resource.getDescription(), e.getMessage());
+            return false;
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.cleanapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Hikari pools for databases beyond the one Spring Boot configures
+ * They share the driver and credentials of spring.datasource, and the pool
+ * settings of spring.datasource.hikari, which Boot would otherwise bind to its
+ * own pool only. Each reports its metrics under its own pool name.
+ */
+final class HikariPools {
+
+    static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private HikariPools() {
+    }
+
+    static HikariDataSource create(DataSourceProperties properties, Environment environment, String url, String name,
+                                   ObjectProvider<MeterRegistry> registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                                          .type(HikariDataSource.class)
+                                          .url(url)
+                                          .build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        // Set after binding: every pool needs its own URL and name whatever the shared settings say
+        pool.setJdbcUrl(url);
+        pool.setPoolName(name);
+        registry.ifAvailable(pool::setMetricRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.api.filters.ServerTimingFilter;
+import com.example.cleanapi.api.filters.StatementCountFilter;
+import com.example.cleanapi.metrics.InstrumentedDataSource;
+import com.example.cleanapi.metrics.TimedJsonHttpMessageConverter;
+import com.example.cleanapi.repositories.BloomFilterUserRepository;
+import com.example.cleanapi.repositories.CachingUserRepository;
+import com.example.cleanapi.usecases.GroupCommitUserUseCase;
+import com.example.cleanapi.usecases.SingleFlightUserUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application metrics beyond what the actuator collects on its own
+ * (JVM, GC, Hikari pool and HTTP server metrics come from Spring Boot).
+ * The use case and repository timers are wired in UserUseCaseConfig and
+ * UserRepositoryConfig. Meters are skipped when app.metrics.enabled is false,
+ * the Server-Timing header when app.server-timing.enabled is false.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Wrap the pooled DataSource so statements can be counted and timed per request
+     * The Hikari pool stays reachable through unwrap, so its metrics still bind
+     */
+    @Bean
+    @ConditionalOnExpression("${app.metrics.enabled:true} or ${app.server-timing.enabled:true}")
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(MeterRegistry registry) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+            new FilterRegistrationBean<>(new StatementCountFilter(registry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * User cache meters, read from the cache's counters when app.cache.users.enabled is true
+     * Hits over hits plus misses gives the hit ratio, as with Micrometer's cache binders
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder userCacheMeters(ObjectProvider<CachingUserRepository> userCache) {
+        return registry -> {
+            CachingUserRepository cache = userCache.getIfAvailable();
+            if (cache == null) {
+                return;
+            }
+            Gauge.builder("app.users.cache.size", cache, CachingUserRepository::size)
+                    .description("Users held in the cache")
+                    .register(registry);
+            FunctionCounter.builder("app.users.cache.gets", cache, CachingUserRepository::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("app.users.cache.gets", cache, CachingUserRepository::getMisses)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("app.users.cache.evictions", cache, CachingUserRepository::getEvictions)
+                    .description("Users dropped from the cache for size or age")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Email Bloom filter meters, read from the filter's counters when app.email-filter.enabled is true
+     * False positives over false positives plus definitely-absent lookups gives the observed rate
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder emailFilterMeters(ObjectProvider<BloomFilterUserRepository> emailFilter) {
+        return registry -> {
+            BloomFilterUserRepository filter = emailFilter.getIfAvailable();
+            if (filter == null) {
+                return;
+            }
+            FunctionCounter.builder("app.users.email.filter.lookups", filter,
+                            BloomFilterUserRepository::getDefinitelyAbsent)
+                    .tag("result", "absent").register(registry);
+            FunctionCounter.builder("app.users.email.filter.lookups", filter,
+                            BloomFilterUserRepository::getPossiblyPresent)
+                    .tag("result", "possibly_present").register(registry);
+            FunctionCounter.builder("app.users.email.filter.false.positives", filter,
+                            BloomFilterUserRepository::getFalsePositives)
+                    .description("Possible hits the database did not confirm")
+                    .register(registry);
+            FunctionCounter.builder("app.users.email.filter.rebuilds", filter, BloomFilterUserRepository::getRebuilds)
+                    .register(registry);
+            Gauge.builder("app.users.email.filter.insertions", filter, BloomFilterUserRepository::getInsertions)
+                    .register(registry);
+            Gauge.builder("app.users.email.filter.stale", filter, BloomFilterUserRepository::getStaleEntries)
+                    .description("Deleted or replaced emails still set in the filter")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Read coalescing meters, read from the decorator's counters when app.single-flight.enabled is true
+     * Joined over loaded plus joined gives the share of reads that shared a lookup
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder singleFlightMeters(ObjectProvider<SingleFlightUserUseCase> singleFlight) {
+        return registry -> {
+            SingleFlightUserUseCase coalescer = singleFlight.getIfAvailable();
+            if (coalescer == null) {
+                return;
+            }
+            FunctionCounter.builder("app.users.single.flight.lookups", coalescer, SingleFlightUserUseCase::getLoads)
+                    .tag("result", "loaded").register(registry);
+            FunctionCounter.builder("app.users.single.flight.lookups", coalescer, SingleFlightUserUseCase::getJoins)
+                    .tag("result", "joined").register(registry);
+            FunctionCounter.builder("app.users.single.flight.timeouts", coalescer,
+                            SingleFlightUserUseCase::getTimeouts)
+                    .description("Joined lookups that gave up waiting and ran their own query")
+                    .register(registry);
+            Gauge.builder("app.users.single.flight.active", coalescer, SingleFlightUserUseCase::inFlight)
+                    .description("Lookups currently in flight")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Group commit meters, read from the decorator's counters when ingestion is enabled
+     * Requests over commit count gives the batch size; the two timers give write and queueing time
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterBinder groupCommitMeters(ObjectProvider<GroupCommitUserUseCase> ingestion) {
+        return registry -> {
+            GroupCommitUserUseCase groupCommit = ingestion.getIfAvailable();
+            if (groupCommit == null) {
+                return;
+            }
+            Gauge.builder("app.users.ingestion.queued", groupCommit, GroupCommitUserUseCase::getQueued)
+                    .description("Creates waiting for a group commit")
+                    .register(registry);
+            FunctionCounter.builder("app.users.ingestion.requests", groupCommit, GroupCommitUserUseCase::getCommitted)
+                    .tag("outcome", "committed").register(registry);
+            FunctionCounter.builder("app.users.ingestion.requests", groupCommit, GroupCommitUserUseCase::getFailed)
+                    .tag("outcome", "failed").register(registry);
+            FunctionCounter.builder("app.users.ingestion.requests", groupCommit, GroupCommitUserUseCase::getRejected)
+                    .tag("outcome", "rejected").register(registry);
+            FunctionCounter.builder("app.users.ingestion.requests", groupCommit, GroupCommitUserUseCase::getTimedOut)
+                    .tag("outcome", "timed_out").register(registry);
+            FunctionTimer.builder("app.users.ingestion.commit", groupCommit,
+                            GroupCommitUserUseCase::getBatches, GroupCommitUserUseCase::getCommitNanos,
+                            TimeUnit.NANOSECONDS)
+                    .description("Group commits and the time spent writing them")
+                    .register(registry);
+            FunctionTimer.builder("app.users.ingestion.queue", groupCommit,
+                            g -> g.getCommitted() + g.getFailed(), GroupCommitUserUseCase::getQueueNanos,
+                            TimeUnit.NANOSECONDS)
+                    .description("Time creates waited for their group commit")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.server-timing.sample-rate:0.01}") double sampleRate,
+            @Value("${app.server-timing.token:}") String token) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+            new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate, token));
+        registration.addUrlPatterns("/api/*");
+        // Outermost, so total covers the other filters too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Replaces Spring Boot's Jackson converter with one that times serialization on sampled requests
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MappingJackson2HttpMessageConverter timedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.repositories.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas behind a routing DataSource, replacing the auto-configured pool
+ * Read-only transactions (@Transactional(readOnly = true)) go to the replicas
+ * listed in app.datasource.read-replicas.urls, everything else to
+ * spring.datasource.url. Replicas share the primary's driver, credentials and
+ * spring.datasource.hikari settings. Each database gets its own Hikari pool,
+ * named after its role.
+ * Turned on with app.datasource.read-replicas.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${app.datasource.read-replicas.urls}") List<String> replicaUrls,
+            @Value("${app.datasource.read-replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${app.datasource.read-replicas.retry-after:30s}") Duration retryAfter,
+            ObjectProvider<MeterRegistry> registry) {
+        HikariDataSource primary = HikariPools.create(properties, environment, properties.determineUrl(), "primary",
+                                                     registry);
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (String url : replicaUrls) {
+            HikariDataSource replica = HikariPools.create(properties, environment, url.trim(),
+                                                          "replica-" + (replicas.size() + 1), registry);
+            // A replica that is down should cost a read little before it falls back to the primary,
+            // whatever spring.datasource.hikari.connection-timeout allows the primary
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, retryAfter.toMillis());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserProjectionRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.repositories.DomainUserProjectionRepository;
+import com.example.cleanapi.repositories.ShardedUserExportRepository;
+import com.example.cleanapi.repositories.ShardedUserRepository;
+import com.example.cleanapi.repositories.UserChangeLog;
+import com.example.cleanapi.repositories.UserShards;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Users partitioned over the databases listed in app.sharding.urls
+ * The sharded repository replaces the JPA one at the bottom of the decorator
+ * chain assembled in UserRepositoryConfig; exports and field projections read
+ * the shards too. The change feed and everything else stay in spring.datasource.
+ * Shard pools share the driver, credentials and spring.datasource.hikari
+ * settings of spring.datasource. The shard list is part of every user ID,
+ * so shards may only be appended, never removed or reordered, and only while
+ * no users exist.
+ * Turned on with app.sharding.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public UserShards userShards(DataSourceProperties properties, Environment environment,
+                                 @Value("${app.sharding.urls}") List<String> urls,
+                                 ObjectProvider<MeterRegistry> registry) {
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            pools.add(HikariPools.create(properties, environment, url.trim(), "shard-" + pools.size(), registry));
+        }
+        UserShards shards = new UserShards(pools);
+        shards.initializeSchema();
+        return shards;
+    }
+
+    @Bean
+    public ShardedUserRepository shardedUserRepository(UserShards userShards, UserChangeLog userChangeLog,
+                                                       PlatformTransactionManager transactionManager,
+                                                       @Value("${app.sharding.query-threads:16}") int queryThreads,
+                                                       @Value("${app.sharding.query-timeout:5s}") Duration queryTimeout) {
+        return new ShardedUserRepository(userShards, userChangeLog, transactionManager, queryThreads,
+                                         queryTimeout.toMillis());
+    }
+
+    @Bean
+    @Primary
+    public UserExportRepository shardedUserExportRepository(UserShards userShards,
+                                                            @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        return new ShardedUserExportRepository(userShards, fetchSize);
+    }
+
+    /**
+     * Projections go through the decorated UserRepository, so they merge pages across shards and use the cache
+     */
+    @Bean
+    @Primary
+    public UserProjectionRepository shardedUserProjectionRepository(UserRepository userRepository) {
+        return new DomainUserProjectionRepository(userRepository);
+    }
+}
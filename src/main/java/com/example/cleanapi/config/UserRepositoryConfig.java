@@ -0,0 +1,129 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.metrics.MeteredUserQueryRepository;
+import com.example.cleanapi.metrics.MeteredUserRepository;
+import com.example.cleanapi.repositories.BloomFilterUserRepository;
+import com.example.cleanapi.repositories.CachingUserRepository;
+import com.example.cleanapi.repositories.DomainUserQueryRepository;
+import com.example.cleanapi.repositories.JpaUserQueryRepository;
+import com.example.cleanapi.repositories.ShardedUserRepository;
+import com.example.cleanapi.repositories.UserRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Assembles the UserRepository seen by the use cases
+ * Optional decorators are layered around the JPA implementation here, so
+ * the use case layer always depends on the plain borders interface.
+ * Order, innermost first: JPA (or the sharded repository when sharding is
+ * on), email Bloom filter, cache, metrics.
+ * The read-side UserQueryRepository maps rows straight to DTOs, unless the
+ * cache or sharding is on, in which case reads go through the UserRepository;
+ * either way it gets its own metrics decorator.
+ */
+@Configuration
+public class UserRepositoryConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.email-filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public BloomFilterUserRepository bloomFilterUserRepository(
+            UserRepositoryImpl userRepositoryImpl,
+            ObjectProvider<ShardedUserRepository> shardedUserRepository,
+            UserExportRepository userExportRepository,
+            @Value("${app.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        BloomFilterUserRepository repository = new BloomFilterUserRepository(
+            base(userRepositoryImpl, shardedUserRepository), userExportRepository, expectedInsertions, falsePositiveRate);
+        repository.rebuild();
+        return repository;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.users", name = "enabled", havingValue = "true")
+    public CachingUserRepository cachingUserRepository(
+            UserRepositoryImpl userRepositoryImpl,
+            ObjectProvider<ShardedUserRepository> shardedUserRepository,
+            ObjectProvider<BloomFilterUserRepository> bloomFilterUserRepository,
+            @Value("${app.cache.users.max-size:10000}") int maxSize,
+            @Value("${app.cache.users.ttl:5m}") Duration ttl) {
+        UserRepository inner = orElse(bloomFilterUserRepository.getIfAvailable(),
+                                      base(userRepositoryImpl, shardedUserRepository));
+        return new CachingUserRepository(inner, maxSize, ttl.toMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeteredUserRepository meteredUserRepository(
+            UserRepositoryImpl userRepositoryImpl,
+            ObjectProvider<ShardedUserRepository> shardedUserRepository,
+            ObjectProvider<BloomFilterUserRepository> bloomFilterUserRepository,
+            ObjectProvider<CachingUserRepository> cachingUserRepository,
+            MeterRegistry registry) {
+        UserRepository inner = orElse(cachingUserRepository.getIfAvailable(),
+                                      orElse(bloomFilterUserRepository.getIfAvailable(),
+                                             base(userRepositoryImpl, shardedUserRepository)));
+        return new MeteredUserRepository(inner, registry);
+    }
+
+    @Bean
+    @Primary
+    public UserRepository userRepository(UserRepositoryImpl userRepositoryImpl,
+                                         ObjectProvider<ShardedUserRepository> shardedUserRepository,
+                                         ObjectProvider<BloomFilterUserRepository> bloomFilterUserRepository,
+                                         ObjectProvider<CachingUserRepository> cachingUserRepository,
+                                         ObjectProvider<MeteredUserRepository> meteredUserRepository) {
+        return orElse(meteredUserRepository.getIfAvailable(),
+                      orElse(cachingUserRepository.getIfAvailable(),
+                             orElse(bloomFilterUserRepository.getIfAvailable(),
+                                    base(userRepositoryImpl, shardedUserRepository))));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeteredUserQueryRepository meteredUserQueryRepository(
+            JpaUserQueryRepository jpaUserQueryRepository,
+            ObjectProvider<ShardedUserRepository> shardedUserRepository,
+            ObjectProvider<CachingUserRepository> cachingUserRepository,
+            MeterRegistry registry) {
+        return new MeteredUserQueryRepository(
+            reads(jpaUserQueryRepository, shardedUserRepository, cachingUserRepository), registry);
+    }
+
+    @Bean
+    @Primary
+    public UserQueryRepository userQueryRepository(JpaUserQueryRepository jpaUserQueryRepository,
+                                                   ObjectProvider<ShardedUserRepository> shardedUserRepository,
+                                                   ObjectProvider<CachingUserRepository> cachingUserRepository,
+                                                   ObjectProvider<MeteredUserQueryRepository> meteredUserQueryRepository) {
+        UserQueryRepository metered = meteredUserQueryRepository.getIfAvailable();
+        return metered != null
+            ? metered
+            : reads(jpaUserQueryRepository, shardedUserRepository, cachingUserRepository);
+    }
+
+    private static UserQueryRepository reads(JpaUserQueryRepository jpaUserQueryRepository,
+                                             ObjectProvider<ShardedUserRepository> shardedUserRepository,
+                                             ObjectProvider<CachingUserRepository> cachingUserRepository) {
+        UserRepository reads = orElse(cachingUserRepository.getIfAvailable(), shardedUserRepository.getIfAvailable());
+        return reads != null ? new DomainUserQueryRepository(reads) : jpaUserQueryRepository;
+    }
+
+    private static UserRepository base(UserRepositoryImpl userRepositoryImpl,
+                                       ObjectProvider<ShardedUserRepository> shardedUserRepository) {
+        return orElse(shardedUserRepository.getIfAvailable(), userRepositoryImpl);
+    }
+
+    private static UserRepository orElse(UserRepository decorator, UserRepository inner) {
+        return decorator != null ? decorator : inner;
+    }
+}
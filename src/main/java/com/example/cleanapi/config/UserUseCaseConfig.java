@@ -0,0 +1,78 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.borders.validators.UserValidator;
+import com.example.cleanapi.metrics.MeteredUserUseCase;
+import com.example.cleanapi.usecases.GroupCommitUserUseCase;
+import com.example.cleanapi.usecases.SingleFlightUserUseCase;
+import com.example.cleanapi.usecases.UserUseCaseImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Assembles the UserUseCase seen by the controllers
+ * Optional decorators are layered around the implementation here.
+ * Order, innermost first: implementation, group commit, read coalescing, metrics.
+ * Metrics sit outermost so timings include time spent waiting on a shared read
+ * or for a group commit.
+ */
+@Configuration
+public class UserUseCaseConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.ingestion", name = "enabled", havingValue = "true")
+    public GroupCommitUserUseCase groupCommitUserUseCase(
+            UserUseCaseImpl userUseCaseImpl,
+            UserValidator userValidator,
+            @Value("${app.ingestion.max-batch-size:500}") int maxBatchSize,
+            @Value("${app.ingestion.max-delay:5ms}") Duration maxDelay,
+            @Value("${app.ingestion.max-wait:5s}") Duration maxWait,
+            @Value("${app.ingestion.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.ingestion.ticket-ttl:10m}") Duration ticketTtl) {
+        return new GroupCommitUserUseCase(userUseCaseImpl, userValidator, maxBatchSize, maxDelay.toMillis(),
+                                          maxWait.toMillis(), queueCapacity, ticketTtl.toMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.single-flight", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SingleFlightUserUseCase singleFlightUserUseCase(
+            UserUseCaseImpl userUseCaseImpl,
+            ObjectProvider<GroupCommitUserUseCase> groupCommitUserUseCase,
+            @Value("${app.single-flight.max-wait:2s}") Duration maxWait) {
+        return new SingleFlightUserUseCase(orElse(groupCommitUserUseCase.getIfAvailable(), userUseCaseImpl),
+                                           maxWait.toMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeteredUserUseCase meteredUserUseCase(UserUseCaseImpl userUseCaseImpl,
+                                                 ObjectProvider<GroupCommitUserUseCase> groupCommitUserUseCase,
+                                                 ObjectProvider<SingleFlightUserUseCase> singleFlightUserUseCase,
+                                                 MeterRegistry registry) {
+        return new MeteredUserUseCase(orElse(singleFlightUserUseCase.getIfAvailable(),
+                                             orElse(groupCommitUserUseCase.getIfAvailable(), userUseCaseImpl)),
+                                      registry);
+    }
+
+    @Bean
+    @Primary
+    public UserUseCase userUseCase(UserUseCaseImpl userUseCaseImpl,
+                                   ObjectProvider<GroupCommitUserUseCase> groupCommitUserUseCase,
+                                   ObjectProvider<SingleFlightUserUseCase> singleFlightUserUseCase,
+                                   ObjectProvider<MeteredUserUseCase> meteredUserUseCase) {
+        return orElse(meteredUserUseCase.getIfAvailable(),
+                      orElse(singleFlightUserUseCase.getIfAvailable(),
+                             orElse(groupCommitUserUseCase.getIfAvailable(), userUseCaseImpl)));
+    }
+
+    private static UserUseCase orElse(UserUseCase decorator, UserUseCase inner) {
+        return decorator != null ? decorator : inner;
+    }
+}
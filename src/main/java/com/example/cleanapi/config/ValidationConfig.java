@@ -0,0 +1,22 @@
+package com.example.cleanapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+
+/**
+ * Supplies the reference data used by the validators
+ */
+@Configuration
+public class ValidationConfig {
+
+    @Bean
+    public DisposableDomainLoader disposableDomainLoader(
+            @Value("${app.validation.disposable-domains.location:classpath:disposable-domains.txt}") Resource location,
+            @Value("${app.validation.disposable-domains.reload-interval:30s}") Duration reloadInterval) {
+        return new DisposableDomainLoader(location, reloadInterval);
+    }
+}
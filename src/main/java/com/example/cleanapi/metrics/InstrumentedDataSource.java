@@ -0,0 +1,91 @@
+package com.example.cleanapi.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that observes the statements run on its connections
+ * Every prepared statement is reported to StatementCounter, and on requests
+ * sampled for Server-Timing each execution is timed as the db phase.
+ * Works below both Hibernate and JdbcTemplate, so every SQL path is seen.
+ * A JDBC batch is one statement, matching one round trip to the database.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Close the wrapped pool, which the container can no longer see behind this wrapper
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrumented(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrumented(super.getConnection(username, password));
+    }
+
+    private static Connection instrumented(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+            InstrumentedDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> invokeOnConnection(target, method, args));
+    }
+
+    private static Object invokeOnConnection(Connection target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        boolean createsStatement = name.equals("prepareStatement") || name.equals("prepareCall")
+                                   || name.equals("createStatement");
+        if (createsStatement) {
+            StatementCounter.increment();
+        }
+        Object result = invoke(target, method, args);
+        // Statements are only wrapped while a Server-Timing recorder is active
+        if (createsStatement && ServerTiming.isRecording()) {
+            return timed(result, method.getReturnType());
+        }
+        return result;
+    }
+
+    private static Object timed(Object statement, Class<?> statementType) {
+        return Proxy.newProxyInstance(
+            InstrumentedDataSource.class.getClassLoader(),
+            new Class<?>[] {statementType},
+            (proxy, method, args) -> {
+                if (!method.getName().startsWith("execute")) {
+                    return invoke(statement, method, args);
+                }
+                long started = ServerTiming.start();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    ServerTiming.stop(ServerTiming.Phase.DB, started);
+                }
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.cleanapi.metrics;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * UserQueryRepository decorator recording a timer per operation and a counter per failure
+ * Covers the read side that MeteredUserRepository does not see, whichever implementation serves it.
+ * Meters: app.users.query.repository (operation, outcome) and app.users.query.repository.errors (operation, exception)
+ */
+public class MeteredUserQueryRepository implements UserQueryRepository {
+
+    static final String TIMER = "app.users.query.repository";
+    static final String ERRORS = "app.users.query.repository.errors";
+
+    private final UserQueryRepository delegate;
+    private final OperationMeters meters;
+
+    public MeteredUserQueryRepository(UserQueryRepository delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.meters = new OperationMeters(registry, TIMER, ERRORS);
+    }
+
+    @Override
+    public Optional<UserResponseDto> findById(Long id) {
+        return meters.record("findById", () -> delegate.findById(id));
+    }
+
+    @Override
+    public List<UserResponseDto> findAll() {
+        return meters.record("findAll", () -> delegate.findAll());
+    }
+
+    @Override
+    public List<UserResponseDto> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return meters.record("findPage", () -> delegate.findPage(afterCreatedAt, afterId, limit));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.cleanapi.metrics;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.repositories.DelegatingUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * UserRepository decorator recording a timer per operation and a counter per failure
+ * Sits outermost, so cache and Bloom filter answers are timed along with database calls.
+ * Meters: app.users.repository (operation, outcome) and app.users.repository.errors (operation, exception)
+ */
+public class MeteredUserRepository extends DelegatingUserRepository {
+
+    static final String TIMER = "app.users.repository";
+    static final String ERRORS = "app.users.repository.errors";
+
+    private final OperationMeters meters;
+
+    public MeteredUserRepository(UserRepository delegate, MeterRegistry registry) {
+        super(delegate);
+        this.meters = new OperationMeters(registry, TIMER, ERRORS);
+    }
+
+    @Override
+    public User save(User user) {
+        return meters.record("save", () -> delegate.save(user));
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        return meters.record("update", () -> delegate.update(user));
+    }
+
+    @Override
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        return meters.record("patch", () -> delegate.patch(id, name, email, updatedAt));
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        return meters.record("saveAll", () -> delegate.saveAll(users));
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return meters.record("findById", () -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        return meters.record("findVersionById", () -> delegate.findVersionById(id));
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return meters.record("findByEmail", () -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return meters.record("findAllByIds", () -> delegate.findAllByIds(ids));
+    }
+
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        return meters.record("findAllByEmails", () -> delegate.findAllByEmails(emails));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return meters.record("findAll", () -> delegate.findAll());
+    }
+
+    @Override
+    public List<User> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return meters.record("findPage", () -> delegate.findPage(afterCreatedAt, afterId, limit));
+    }
+
+    @Override
+    public long count() {
+        return meters.record("count", () -> delegate.count());
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return meters.record("deleteById", () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        return meters.record("deleteById", () -> delegate.deleteById(id, expectedVersion));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return meters.record("existsById", () -> delegate.existsById(id));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return meters.record("existsByEmail", () -> delegate.existsByEmail(email));
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return meters.record("findExistingEmails", () -> delegate.findExistingEmails(emails));
+    }
+}
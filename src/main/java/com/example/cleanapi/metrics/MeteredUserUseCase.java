@@ -0,0 +1,123 @@
+package com.example.cleanapi.metrics;
+
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.usecases.DelegatingUserUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * UserUseCase decorator recording a timer per operation and a counter per failure
+ * Meters: app.users.operations (operation, outcome) and app.users.errors (operation, exception)
+ */
+public class MeteredUserUseCase extends DelegatingUserUseCase {
+
+    static final String TIMER = "app.users.operations";
+    static final String ERRORS = "app.users.errors";
+
+    private final OperationMeters meters;
+
+    public MeteredUserUseCase(UserUseCase delegate, MeterRegistry registry) {
+        super(delegate);
+        this.meters = new OperationMeters(registry, TIMER, ERRORS);
+    }
+
+    @Override
+    public UserResponseDto createUser(CreateUserDto createUserDto) {
+        return meters.record("createUser", () -> delegate.createUser(createUserDto));
+    }
+
+    @Override
+    public BatchCreateResultDto createUsers(List<CreateUserDto> createUserDtos) {
+        return meters.record("createUsers", () -> delegate.createUsers(createUserDtos));
+    }
+
+    @Override
+    public UserResponseDto getUserById(Long id) {
+        return meters.record("getUserById", () -> delegate.getUserById(id));
+    }
+
+    @Override
+    public void getUserFields(Long id, Set<UserField> fields, UserFieldConsumer consumer) {
+        meters.run("getUserFields", () -> delegate.getUserFields(id, fields, consumer));
+    }
+
+    @Override
+    public UserVersion getUserVersion(Long id) {
+        return meters.record("getUserVersion", () -> delegate.getUserVersion(id));
+    }
+
+    @Override
+    public UserLookupResultDto lookupUsers(UserLookupDto lookupDto) {
+        return meters.record("lookupUsers", () -> delegate.lookupUsers(lookupDto));
+    }
+
+    @Override
+    public long lookupUserFields(List<Long> ids, Set<UserField> fields, UserFieldConsumer consumer) {
+        return meters.record("lookupUserFields", () -> delegate.lookupUserFields(ids, fields, consumer));
+    }
+
+    @Override
+    public List<UserResponseDto> getAllUsers() {
+        return meters.record("getAllUsers", () -> delegate.getAllUsers());
+    }
+
+    @Override
+    public UserPageDto getUsersPage(String after, int limit) {
+        return meters.record("getUsersPage", () -> delegate.getUsersPage(after, limit));
+    }
+
+    @Override
+    public UserPageDto getUsersPage(String after, int limit, Set<UserField> fields, UserFieldConsumer consumer) {
+        return meters.record("getUsersPage", () -> delegate.getUsersPage(after, limit, fields, consumer));
+    }
+
+    @Override
+    public long exportUsers(UserRowConsumer consumer) {
+        return meters.record("exportUsers", () -> delegate.exportUsers(consumer));
+    }
+
+    @Override
+    public UserChangePageDto getChanges(long since, int limit) {
+        return meters.record("getChanges", () -> delegate.getChanges(since, limit));
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto) {
+        return meters.record("updateUser", () -> delegate.updateUser(id, updateUserDto));
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto, Long expectedVersion) {
+        return meters.record("updateUser", () -> delegate.updateUser(id, updateUserDto, expectedVersion));
+    }
+
+    @Override
+    public UserResponseDto patchUser(Long id, PatchUserDto patchUserDto) {
+        return meters.record("patchUser", () -> delegate.patchUser(id, patchUserDto));
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        meters.run("deleteUser", () -> delegate.deleteUser(id));
+    }
+
+    @Override
+    public void deleteUser(Long id, Long expectedVersion) {
+        meters.run("deleteUser", () -> delegate.deleteUser(id, expectedVersion));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cleanapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times named operations and counts their failures by exception type
+ * Meters are registered once per operation and exception type and then reused,
+ * so the per-call cost is a map lookup and a clock read. Tags only take values
+ * from a fixed set (operation names, outcome, exception class), never from
+ * request data, to keep the series count bounded.
+ */
+final class OperationMeters {
+
+    private final MeterRegistry registry;
+    private final String timerName;
+    private final String errorsName;
+    private final Map<String, Timers> timers = new ConcurrentHashMap<>();
+    private final Map<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+
+    /**
+     * @param timerName Timer per operation, tagged with operation and outcome
+     * @param errorsName Counter per operation, tagged with operation and exception
+     */
+    OperationMeters(MeterRegistry registry, String timerName, String errorsName) {
+        this.registry = registry;
+        this.timerName = timerName;
+        this.errorsName = errorsName;
+    }
+
+    <T> T record(String operation, Supplier<T> call) {
+        Timers operationTimers = timers.computeIfAbsent(operation, this::register);
+        long start = registry.config().clock().monotonicTime();
+        try {
+            T result = call.get();
+            operationTimers.success.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException | Error e) {
+            operationTimers.error.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+            errors.computeIfAbsent(new ErrorKey(operation, e.getClass()), this::register).increment();
+            throw e;
+        }
+    }
+
+    void run(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timers register(String operation) {
+        return new Timers(timer(operation, "success"), timer(operation, "error"));
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder(timerName)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(registry);
+    }
+
+    private Counter register(ErrorKey key) {
+        return Counter.builder(errorsName)
+                      .tag("operation", key.operation())
+                      .tag("exception", key.type().getSimpleName())
+                      .register(registry);
+    }
+
+    private record Timers(Timer success, Timer error) {
+    }
+
+    private record ErrorKey(String operation, Class<?> type) {
+    }
+}
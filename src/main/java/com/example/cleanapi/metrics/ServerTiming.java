@@ -0,0 +1,130 @@
+package com.example.cleanapi.metrics;
+
+/**
+ * Per-request phase timings reported in the Server-Timing response header
+ * A recorder exists only on threads serving a sampled request. Everywhere else
+ * start() returns 0 and stop() returns at once, so instrumented code costs one
+ * ThreadLocal read and allocates nothing when the request is not sampled.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    /**
+     * Timed phases, in header order
+     * Time not spent in any of them is reported as app: controller, use case logic and mapping
+     */
+    public enum Phase {
+        VALIDATE("validate"),
+        DB("db"),
+        JSON("json");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedAt;
+    private final long[] nanos = new long[PHASES.length];
+    private int statements;
+
+    private ServerTiming(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Start recording on the current thread
+     * @return The recorder, to be passed to {@link #end(ServerTiming)} when the request is done
+     */
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stop recording on the current thread
+     * The recorder itself can still be read, e.g. by an async thread writing the response
+     */
+    public static void end(ServerTiming timing) {
+        if (CURRENT.get() == timing) {
+            CURRENT.remove();
+        }
+    }
+
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Mark the start of a phase
+     * @return Start time to hand back to {@link #stop(Phase, long)}, or 0 if not recording
+     */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Add the time since start to a phase; does nothing if not recording
+     */
+    public static void stop(Phase phase, long started) {
+        if (started == 0L) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += System.nanoTime() - started;
+            if (phase == Phase.DB) {
+                timing.statements++;
+            }
+        }
+    }
+
+    /**
+     * Render the header value, e.g.
+     * {@code validate;dur=0.041, db;dur=1.275;desc="2 statements", json;dur=0.102, app;dur=0.530, total;dur=1.948}
+     * Phases that took no time are left out; app and total are always present
+     */
+    public String headerValue() {
+        long total = System.nanoTime() - startedAt;
+        long accounted = 0;
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long phaseNanos = nanos[phase.ordinal()];
+            if (phaseNanos == 0) {
+                continue;
+            }
+            accounted += phaseNanos;
+            appendMetric(header, phase.metricName, phaseNanos);
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(statements)
+                      .append(statements == 1 ? " statement\"" : " statements\"");
+            }
+        }
+        appendMetric(header, "app", Math.max(0, total - accounted));
+        appendMetric(header, "total", total);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        // Milliseconds with microsecond precision, without going through String.format
+        long micros = nanos / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cleanapi.metrics;
+
+/**
+ * Counts the SQL statements the current thread prepares between start and stop
+ * Statements prepared while no count is running are ignored, so background work
+ * such as startup or the Bloom filter rebuild costs nothing.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Start counting on the current thread, discarding any count already running
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stop counting on the current thread
+     * @return Statements prepared since start, or 0 if no count was running
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UserRepository decorator answering email membership from a Bloom filter
+ * Emails the filter has never seen are reported absent without a database
+ * round trip; possible hits fall through to the wrapped repository.
+ * <p>
+ * Deleted or replaced emails cannot be removed from a Bloom filter. They only
+ * cause extra fall-through queries, and the filter is rebuilt in the
+ * background once they make up too large a share of it.
+ */
+public class BloomFilterUserRepository extends DelegatingUserRepository implements AutoCloseable {
+
+    private static final double MAX_STALE_RATIO = 0.1;
+    // Small tables rebuild cheaply but gain nothing from it
+    private static final long MIN_STALE_BEFORE_REBUILD = 1024;
+
+    private final UserExportRepository emailSource;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+    private final ExecutorService rebuildExecutor;
+
+    // Null until the first build completes; until then every call falls through
+    private volatile EmailBloomFilter filter;
+    // Filter being built, so concurrent writes land in both
+    private volatile EmailBloomFilter building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder possiblyPresent = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public BloomFilterUserRepository(UserRepository delegate, UserExportRepository emailSource,
+                                     long minExpectedInsertions, double falsePositiveRate) {
+        this(delegate, emailSource, minExpectedInsertions, falsePositiveRate,
+             Executors.newSingleThreadExecutor(runnable -> {
+                 Thread thread = new Thread(runnable, "email-bloom-rebuild");
+                 thread.setDaemon(true);
+                 return thread;
+             }));
+    }
+
+    BloomFilterUserRepository(UserRepository delegate, UserExportRepository emailSource,
+                              long minExpectedInsertions, double falsePositiveRate,
+                              ExecutorService rebuildExecutor) {
+        super(delegate);
+        this.emailSource = emailSource;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Build a fresh filter from the users.email column and swap it in
+     * Sized for at least twice the current row count so it has room to grow
+     */
+    public void rebuild() {
+        EmailBloomFilter next = new EmailBloomFilter(
+            Math.max(minExpectedInsertions, 2 * delegate.count()), falsePositiveRate);
+        building = next;
+        try {
+            // Entries marked stale from here on may already be in the new filter, so only
+            // the ones counted before the scan are dropped with the old filter
+            long staleBeforeScan = staleEntries.get();
+            emailSource.streamEmails(next::put);
+            filter = next;
+            staleEntries.addAndGet(-staleBeforeScan);
+            rebuilds.incrementAndGet();
+        } finally {
+            building = null;
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (isDefinitelyAbsent(email)) {
+            return false;
+        }
+        boolean exists = delegate.existsByEmail(email);
+        recordFallThrough(exists);
+        return exists;
+    }
+
+    @Override
+    public EmailHint emailHint(String email) {
+        EmailBloomFilter current = filter;
+        if (current == null || email == null) {
+            return delegate.emailHint(email);
+        }
+        if (!current.mightContain(email)) {
+            definitelyAbsent.increment();
+            return EmailHint.ABSENT;
+        }
+        // The follow-up query goes through existsByEmail or findByEmail, which count the outcome
+        return EmailHint.POSSIBLY_PRESENT;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (isDefinitelyAbsent(email)) {
+            return Optional.empty();
+        }
+        Optional<User> user = delegate.findByEmail(email);
+        recordFallThrough(user.isPresent());
+        return user;
+    }
+
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        EmailBloomFilter current = filter;
+        if (current == null) {
+            return delegate.findAllByEmails(emails);
+        }
+
+        List<String> candidates = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (current.mightContain(email)) {
+                candidates.add(email);
+            }
+        }
+        definitelyAbsent.add(emails.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<User> users = delegate.findAllByEmails(candidates);
+        possiblyPresent.add(candidates.size());
+        falsePositives.add(Math.max(0, candidates.size() - users.size()));
+        return users;
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        EmailBloomFilter current = filter;
+        if (current == null) {
+            return delegate.findExistingEmails(emails);
+        }
+
+        // Only emails the filter might know about go into the IN query
+        List<String> candidates = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (current.mightContain(email)) {
+                candidates.add(email);
+            }
+        }
+        definitelyAbsent.add(emails.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> existing = delegate.findExistingEmails(candidates);
+        possiblyPresent.add(candidates.size());
+        falsePositives.add(candidates.size() - existing.size());
+        return existing;
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        add(saved.getEmail());
+        if (user.getId() != null) {
+            // An update may have replaced an email the filter still remembers
+            markStale();
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        Optional<User> updated = delegate.update(user);
+        updated.ifPresent(saved -> {
+            add(saved.getEmail());
+            markStale();
+        });
+        return updated;
+    }
+
+    @Override
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        Optional<User> patched = delegate.patch(id, name, email, updatedAt);
+        if (email != null && patched.isPresent()) {
+            add(email);
+            markStale();
+        }
+        return patched;
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        List<User> saved = delegate.saveAll(users);
+        for (User user : saved) {
+            add(user.getEmail());
+        }
+        scheduleRebuildIfNeeded();
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        if (deleted) {
+            markStale();
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        boolean deleted = delegate.deleteById(id, expectedVersion);
+        if (deleted) {
+            markStale();
+        }
+        return deleted;
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    public long getDefinitelyAbsent() {
+        return definitelyAbsent.sum();
+    }
+
+    public long getPossiblyPresent() {
+        return possiblyPresent.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Share of lookups for absent emails that the filter failed to rule out
+     */
+    public double getObservedFalsePositiveRate() {
+        long falsePositiveCount = getFalsePositives();
+        long absentLookups = falsePositiveCount + getDefinitelyAbsent();
+        return absentLookups == 0 ? 0.0 : (double) falsePositiveCount / absentLookups;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        EmailBloomFilter current = filter;
+        return current != null ? current.getExpectedFalsePositiveRate() : 0.0;
+    }
+
+    public long getMemoryBytes() {
+        EmailBloomFilter current = filter;
+        return current != null ? current.getMemoryBytes() : 0L;
+    }
+
+    public long getInsertions() {
+        EmailBloomFilter current = filter;
+        return current != null ? current.getInsertions() : 0L;
+    }
+
+    public long getStaleEntries() {
+        return staleEntries.get();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.get();
+    }
+
+    @Override
+    public void close() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private boolean isDefinitelyAbsent(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null && email != null && !current.mightContain(email)) {
+            definitelyAbsent.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void recordFallThrough(boolean found) {
+        if (filter == null) {
+            return;
+        }
+        possiblyPresent.increment();
+        if (!found) {
+            falsePositives.increment();
+        }
+    }
+
+    private void add(String email) {
+        // Read in the reverse order of the swap in rebuild (filter, then building), so an
+        // email missed by the filter being built always reaches the one that replaced it
+        EmailBloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        EmailBloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+    }
+
+    private void markStale() {
+        staleEntries.incrementAndGet();
+        scheduleRebuildIfNeeded();
+    }
+
+    private void scheduleRebuildIfNeeded() {
+        EmailBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        long staleLimit = Math.max(MIN_STALE_BEFORE_REBUILD, (long) (current.getInsertions() * MAX_STALE_RATIO));
+        boolean tooStale = staleEntries.get() > staleLimit;
+        boolean overCapacity = current.getInsertions() > current.getExpectedInsertions();
+        if ((tooStale || overCapacity) && rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache decorator for UserRepository
+ * Users are cached by ID with a secondary email index, bounded by size and by
+ * time-to-live. Every write invalidates the affected entries.
+ * Reads take no lock: both maps are concurrent and a hit only stamps its own
+ * entry. Eviction is approximate LRU: once the cache passes maxSize, one thread
+ * drops the least recently read tenth, ranked by a clock that inserts advance.
+ */
+public class CachingUserRepository extends DelegatingUserRepository {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final int evictionTarget;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    // Recency for eviction: advanced by inserts only, so reads never write shared state beyond their entry
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // Bumped by every invalidation so loads that raced with a write are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingUserRepository(UserRepository delegate, int maxSize, long ttlMillis) {
+        this(delegate, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    CachingUserRepository(UserRepository delegate, int maxSize, long ttlMillis, LongSupplier nanoClock) {
+        super(delegate);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        // Evict a tenth at a time, so the eviction scan is amortized over many inserts
+        this.evictionTarget = maxSize - maxSize / 10;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return delegate.findById(id);
+        }
+
+        User cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(copyOf(cached));
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        Optional<User> loaded = delegate.findById(id);
+        loaded.ifPresent(user -> put(user, loadGeneration));
+        return loaded.map(CachingUserRepository::copyOf);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        User cached = id != null ? lookup(id) : null;
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(new UserVersion(cached.getVersion(), cached.getUpdatedAt()));
+        }
+        // The version-only query is already cheap; not worth caching on its own
+        misses.increment();
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        User cached = lookupByEmail(email);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(copyOf(cached));
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        Optional<User> loaded = delegate.findByEmail(email);
+        loaded.ifPresent(user -> put(user, loadGeneration));
+        return loaded.map(CachingUserRepository::copyOf);
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            User cached = id != null ? lookup(id) : null;
+            if (cached != null) {
+                found.add(copyOf(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.add(found.size());
+        misses.add(missing.size());
+        if (!missing.isEmpty()) {
+            // Only the misses go to the IN query
+            long loadGeneration = currentGeneration();
+            for (User user : delegate.findAllByIds(missing)) {
+                put(user, loadGeneration);
+                found.add(copyOf(user));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        List<User> found = new ArrayList<>(emails.size());
+        List<String> missing = new ArrayList<>();
+        for (String email : emails) {
+            User cached = lookupByEmail(email);
+            if (cached != null) {
+                found.add(copyOf(cached));
+            } else {
+                missing.add(email);
+            }
+        }
+        hits.add(found.size());
+        misses.add(missing.size());
+        if (!missing.isEmpty()) {
+            long loadGeneration = currentGeneration();
+            for (User user : delegate.findAllByEmails(missing)) {
+                put(user, loadGeneration);
+                found.add(copyOf(user));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        if (id != null && lookup(id) != null) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        // Only positive answers are cached; absence must always be confirmed
+        if (lookupByEmail(email) != null) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        invalidate(user.getId(), user.getEmail());
+        invalidate(saved.getId(), saved.getEmail());
+        return saved;
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        try {
+            return delegate.update(user);
+        } finally {
+            // A version mismatch means another writer got there first
+            invalidate(user.getId(), user.getEmail());
+        }
+    }
+
+    @Override
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        Optional<User> patched = delegate.patch(id, name, email, updatedAt);
+        invalidate(id, email);
+        return patched;
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        List<User> saved = delegate.saveAll(users);
+        for (User user : saved) {
+            invalidate(user.getId(), user.getEmail());
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean deleted = delegate.deleteById(id);
+        invalidate(id, null);
+        return deleted;
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        boolean deleted = delegate.deleteById(id, expectedVersion);
+        invalidate(id, null);
+        return deleted;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private User lookup(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - nanoClock.getAsLong() <= 0) {
+            if (remove(id, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        entry.touch(clock.get());
+        return entry.user;
+    }
+
+    private User lookupByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        Long id = idsByEmail.get(email);
+        User user = id != null ? lookup(id) : null;
+        // The index may briefly point at an entry that has since been replaced
+        return user != null && email.equals(user.getEmail()) ? user : null;
+    }
+
+    private long currentGeneration() {
+        return generation.get();
+    }
+
+    private void put(User user, long loadGeneration) {
+        if (loadGeneration != generation.get()) {
+            return;
+        }
+        // Inserts advance the clock by two, so entries read since the last insert rank above it
+        Entry entry = new Entry(user, nanoClock.getAsLong() + ttlNanos, clock.addAndGet(2) - 1);
+        Entry replaced = entries.put(user.getId(), entry);
+        if (replaced != null && !replaced.user.getEmail().equals(user.getEmail())) {
+            idsByEmail.remove(replaced.user.getEmail(), user.getId());
+        }
+        idsByEmail.put(user.getEmail(), user.getId());
+        if (loadGeneration != generation.get()) {
+            // A write invalidated while this load was being stored; it may have missed the new entry
+            remove(user.getId(), entry);
+            return;
+        }
+        evictLeastRecentlyUsed();
+    }
+
+    /**
+     * Drop the least recently used entries down to evictionTarget
+     * One thread evicts at a time while the others carry on; the sort is paid
+     * once per maxSize - evictionTarget inserts rather than on every insert
+     */
+    private void evictLeastRecentlyUsed() {
+        // Looping covers inserts that arrived while another thread was evicting and skipped this
+        while (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                List<Map.Entry<Long, Entry>> candidates = new ArrayList<>(entries.entrySet());
+                candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+                int excess = candidates.size() - evictionTarget;
+                for (int i = 0; i < excess; i++) {
+                    Map.Entry<Long, Entry> candidate = candidates.get(i);
+                    if (remove(candidate.getKey(), candidate.getValue())) {
+                        evictions.increment();
+                    }
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void invalidate(Long id, String email) {
+        // Bumped before removing, so a load storing concurrently either sees the bump or is removed here
+        generation.incrementAndGet();
+        if (id != null) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                remove(id, entry);
+            }
+        }
+        if (email != null) {
+            Long cachedId = idsByEmail.get(email);
+            Entry entry = cachedId != null ? entries.get(cachedId) : null;
+            if (entry != null) {
+                remove(cachedId, entry);
+            }
+        }
+    }
+
+    // Removes the entry only if it is still the one cached, so a newer one survives
+    private boolean remove(Long id, Entry entry) {
+        if (!entries.remove(id, entry)) {
+            return false;
+        }
+        idsByEmail.remove(entry.user.getEmail(), id);
+        return true;
+    }
+
+    /**
+     * Callers may mutate the users they receive, so the cached instance never leaves
+     */
+    private static User copyOf(User user) {
+        return User.rehydrate(
+            user.getId(),
+            user.getName(),
+            user.getEmail(),
+            user.getCreatedAt(),
+            user.getUpdatedAt(),
+            user.getVersion()
+        );
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+        // Value of the access clock when last read; only an approximate order is needed
+        private volatile long lastAccess;
+
+        private Entry(User user, long expiresAt, long lastAccess) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        void touch(long now) {
+            // Hot entries are read far more often than the clock moves; skip the redundant write
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+    }
+}
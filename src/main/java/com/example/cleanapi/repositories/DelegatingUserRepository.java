@@ -0,0 +1,115 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Base class for UserRepository decorators
+ * Forwards every call to the wrapped repository so subclasses only
+ * override the operations they actually change
+ */
+public abstract class DelegatingUserRepository implements UserRepository {
+
+    protected final UserRepository delegate;
+
+    protected DelegatingUserRepository(UserRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public User save(User user) {
+        return delegate.save(user);
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        return delegate.update(user);
+    }
+
+    @Override
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        return delegate.patch(id, name, email, updatedAt);
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        return delegate.saveAll(users);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        return delegate.findAllByEmails(emails);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return delegate.findPage(afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return delegate.deleteById(id);
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        return delegate.deleteById(id, expectedVersion);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public EmailHint emailHint(String email) {
+        return delegate.emailHint(email);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserProjectionRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * UserProjectionRepository answered through the domain UserRepository
+ * Used when users are sharded, where no single query can select the columns
+ * of a page; whole users are loaded and only the requested fields passed on
+ */
+public class DomainUserProjectionRepository implements UserProjectionRepository {
+
+    private final UserRepository userRepository;
+
+    public DomainUserProjectionRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean findById(long id, Set<UserField> fields, UserFieldConsumer consumer) {
+        return emit(userRepository.findById(id).stream().toList(), fields, consumer) > 0;
+    }
+
+    @Override
+    public long findAllByIds(Collection<Long> ids, Set<UserField> fields, UserFieldConsumer consumer) {
+        return emit(userRepository.findAllByIds(ids), fields, consumer);
+    }
+
+    @Override
+    public long findPage(LocalDateTime afterCreatedAt, Long afterId, int limit,
+                         Set<UserField> fields, UserFieldConsumer consumer) {
+        return emit(userRepository.findPage(afterCreatedAt, afterId, limit), fields, consumer);
+    }
+
+    private static long emit(List<User> users, Set<UserField> fields, UserFieldConsumer consumer) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one field");
+        }
+        // Declaration order, as the JDBC projection emits them
+        Set<UserField> columns = fields instanceof EnumSet ? fields : EnumSet.copyOf(fields);
+        try {
+            for (User user : users) {
+                consumer.startUser();
+                for (UserField field : columns) {
+                    switch (field) {
+                        case ID -> consumer.longField(field, user.getId());
+                        case VERSION -> consumer.longField(field, user.getVersion());
+                        case NAME -> consumer.stringField(field, user.getName());
+                        case EMAIL -> consumer.stringField(field, user.getEmail());
+                        case CREATED_AT -> consumer.dateTimeField(field, user.getCreatedAt());
+                        case UPDATED_AT -> consumer.dateTimeField(field, user.getUpdatedAt());
+                    }
+                }
+                consumer.endUser();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return users.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * UserQueryRepository answered through the domain UserRepository
+ * Used when the UserRepository is decorated with a cache, so reads keep
+ * hitting the cache instead of going to the database on every request
+ */
+public class DomainUserQueryRepository implements UserQueryRepository {
+
+    private final UserRepository userRepository;
+
+    public DomainUserQueryRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Optional<UserResponseDto> findById(Long id) {
+        return userRepository.findById(id).map(UserResponseDto::of);
+    }
+
+    @Override
+    public List<UserResponseDto> findAll() {
+        return userRepository.findAll().stream().map(UserResponseDto::of).toList();
+    }
+
+    @Override
+    public List<UserResponseDto> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return userRepository.findPage(afterCreatedAt, afterId, limit).stream().map(UserResponseDto::of).toList();
+    }
+}
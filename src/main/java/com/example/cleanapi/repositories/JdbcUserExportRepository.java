@@ -0,0 +1,77 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of UserExportRepository using a forward-only JDBC cursor
+ * Rows are handed to the consumer as they arrive, so memory use does not
+ * depend on the size of the users table
+ */
+@Repository
+public class JdbcUserExportRepository implements UserExportRepository {
+
+    private static final String EXPORT_SQL =
+        "SELECT id, name, email, created_at, updated_at FROM users ORDER BY id";
+    private static final String EMAILS_SQL = "SELECT email FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JdbcUserExportRepository(DataSource dataSource,
+                                    @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public long streamAll(UserRowConsumer consumer) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> connection.prepareStatement(
+                EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+            (ResultSet rs) -> {
+                try {
+                    consumer.accept(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        toLocalDateTime(rs.getTimestamp(4)),
+                        toLocalDateTime(rs.getTimestamp(5))
+                    );
+                } catch (IOException e) {
+                    // Client went away: abort the query instead of reading the rest of the table
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        return count[0];
+    }
+
+    @Override
+    public long streamEmails(Consumer<String> consumer) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> connection.prepareStatement(
+                EMAILS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+            (ResultSet rs) -> {
+                consumer.accept(rs.getString(1));
+                count[0]++;
+            });
+        return count[0];
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserProjectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Implementation of UserProjectionRepository that puts only the selected
+ * columns in the SELECT list and passes each value straight to the consumer
+ * Reads go to the database directly and do not consult the repository cache.
+ */
+@Repository
+public class JdbcUserProjectionRepository implements UserProjectionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Column list per field combination, indexed by the bit mask of the selected fields
+    private final String[] selectLists = new String[1 << UserField.values().length];
+
+    @Autowired
+    public JdbcUserProjectionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean findById(long id, Set<UserField> fields, UserFieldConsumer consumer) {
+        String sql = "SELECT " + selectList(fields) + " FROM users WHERE id = :id";
+        return query(sql, new MapSqlParameterSource("id", id), fields, consumer) > 0;
+    }
+
+    @Override
+    public long findAllByIds(Collection<Long> ids, Set<UserField> fields, UserFieldConsumer consumer) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String sql = "SELECT " + selectList(fields) + " FROM users WHERE id IN (:ids)";
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        long count = 0;
+        for (int from = 0; from < distinct.size(); from += UserRepositoryImpl.IN_CHUNK_SIZE) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + UserRepositoryImpl.IN_CHUNK_SIZE, distinct.size()));
+            count += query(sql, new MapSqlParameterSource("ids", chunk), fields, consumer);
+        }
+        return count;
+    }
+
+    @Override
+    public long findPage(LocalDateTime afterCreatedAt, Long afterId, int limit,
+                         Set<UserField> fields, UserFieldConsumer consumer) {
+        // Same keyset predicates as UserJpaRepository, served by idx_users_created_at_id
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        StringBuilder sql = new StringBuilder("SELECT ").append(selectList(fields)).append(" FROM users ");
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append("WHERE created_at >= :createdAt AND (created_at > :createdAt OR id > :id) ");
+            params.addValue("createdAt", afterCreatedAt).addValue("id", afterId);
+        }
+        sql.append("ORDER BY created_at ASC, id ASC FETCH FIRST :limit ROWS ONLY");
+        return query(sql.toString(), params, fields, consumer);
+    }
+
+    private long query(String sql, MapSqlParameterSource params, Set<UserField> fields, UserFieldConsumer consumer) {
+        UserField[] columns = ordered(fields).toArray(new UserField[0]);
+        long[] count = {0};
+        jdbcTemplate.query(sql, params, (ResultSet rs) -> {
+            try {
+                emit(rs, columns, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private static void emit(ResultSet rs, UserField[] columns, UserFieldConsumer consumer)
+            throws SQLException, IOException {
+        consumer.startUser();
+        for (int i = 0; i < columns.length; i++) {
+            UserField field = columns[i];
+            switch (field) {
+                case ID, VERSION -> consumer.longField(field, rs.getLong(i + 1));
+                case NAME, EMAIL -> consumer.stringField(field, rs.getString(i + 1));
+                case CREATED_AT, UPDATED_AT -> consumer.dateTimeField(field, toLocalDateTime(rs.getTimestamp(i + 1)));
+            }
+        }
+        consumer.endUser();
+    }
+
+    private String selectList(Set<UserField> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Fields must name at least one field");
+        }
+        fields = ordered(fields);
+        int mask = 0;
+        for (UserField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        // Racing threads build the same immutable string, so no locking is needed
+        String selectList = selectLists[mask];
+        if (selectList == null) {
+            StringJoiner columns = new StringJoiner(", ");
+            for (UserField field : fields) {
+                columns.add(field.getFieldName());
+            }
+            selectList = columns.toString();
+            selectLists[mask] = selectList;
+        }
+        return selectList;
+    }
+
+    /**
+     * Columns are selected and emitted in declaration order, whatever set the caller passed
+     */
+    private static Set<UserField> ordered(Set<UserField> fields) {
+        return fields instanceof EnumSet ? fields : EnumSet.copyOf(fields);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
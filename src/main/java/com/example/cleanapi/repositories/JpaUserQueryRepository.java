@@ -0,0 +1,67 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of UserQueryRepository using JPQL constructor expressions
+ * Rows become UserResponseDto in one step: no UserJpaEntity is managed, so the
+ * persistence context keeps no snapshots, and no domain User is built.
+ * Transactions are read-only, which also turns off flushing.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class JpaUserQueryRepository implements UserQueryRepository {
+
+    private static final String SELECT_DTO =
+        "SELECT new com.example.cleanapi.borders.dtos.UserResponseDto(" +
+        "u.id, u.name, u.email, u.createdAt, u.updatedAt, u.version) FROM UserJpaEntity u ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<UserResponseDto> findById(Long id) {
+        return query(SELECT_DTO + "WHERE u.id = :id")
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst();
+    }
+
+    @Override
+    public List<UserResponseDto> findAll() {
+        return query(SELECT_DTO).getResultList();
+    }
+
+    @Override
+    public List<UserResponseDto> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // Same keyset predicates as UserJpaRepository, served by idx_users_created_at_id
+        TypedQuery<UserResponseDto> query;
+        if (afterCreatedAt == null || afterId == null) {
+            query = query(SELECT_DTO + "ORDER BY u.createdAt ASC, u.id ASC");
+        } else {
+            query = query(SELECT_DTO +
+                          "WHERE u.createdAt >= :createdAt " +
+                          "AND (u.createdAt > :createdAt OR u.id > :id) " +
+                          "ORDER BY u.createdAt ASC, u.id ASC")
+                .setParameter("createdAt", afterCreatedAt)
+                .setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<UserResponseDto> query(String jpql) {
+        return entityManager.createQuery(jpql, UserResponseDto.class)
+                            .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
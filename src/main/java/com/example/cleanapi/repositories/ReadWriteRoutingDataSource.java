@@ -0,0 +1,199 @@
+package com.example.cleanapi.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource that sends read-only transactions to replicas
+ * Connections are handed out lazily, at the first statement, so the choice can
+ * see the transaction's read-only flag, which is set after the transaction has
+ * begun. Read-only transactions go to the replicas in turn; everything else,
+ * including work outside a transaction, goes to the primary.
+ * Once a request has run a read-write transaction, the rest of it reads from
+ * the primary too, so it always sees its own writes despite replica lag.
+ * A replica that fails to hand out a connection is skipped for retryAfter;
+ * with no replica available, reads fall back to the primary.
+ */
+public class ReadWriteRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PINNED_TO_PRIMARY = ReadWriteRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+
+    private final Target primary;
+    private final List<Target> replicas;
+    private final long retryAfterNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+    // Per replica: System.nanoTime() before which it is skipped, 0 when healthy
+    private final AtomicLongArray unhealthyUntil;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    /**
+     * @param retryAfterMillis How long a failing replica is left out before it is tried again
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                      long retryAfterMillis) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = new Target(primary, "primary");
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Target(replicas.get(i), "replica-" + (i + 1)));
+        }
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+        this.unhealthyUntil = new AtomicLongArray(replicas.size());
+        setTargetDataSource(new LazyConnectionDataSourceProxy(new Router()));
+    }
+
+    /**
+     * Connections handed out by the primary
+     */
+    public long getPrimaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    /**
+     * Connections handed out by replicas
+     */
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    /**
+     * Replica connection attempts that failed and moved on to the next replica or the primary
+     */
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    /**
+     * Names of the replicas currently in rotation
+     */
+    public List<String> getHealthyReplicas() {
+        long now = System.nanoTime();
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            if (isHealthy(i, now)) {
+                healthy.add(replicas.get(i).name);
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Close the pools behind the primary and the replicas
+     */
+    @Override
+    public void close() throws Exception {
+        primary.close();
+        for (Target replica : replicas) {
+            replica.close();
+        }
+    }
+
+    private Connection routedConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                pinToPrimary();
+            }
+            return primaryConnection();
+        }
+        if (isPinnedToPrimary()) {
+            return primaryConnection();
+        }
+
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int offset = 0; offset < replicas.size(); offset++) {
+            int index = (start + offset) % replicas.size();
+            if (!isHealthy(index, now)) {
+                continue;
+            }
+            Target replica = replicas.get(index);
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                unhealthyUntil.set(index, 0);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                unhealthyUntil.set(index, Math.max(1, now + retryAfterNanos));
+                failovers.increment();
+                logger.warn("Replica {} unavailable, leaving it out for {} ms: {}", replica.name,
+                            TimeUnit.NANOSECONDS.toMillis(retryAfterNanos), e.getMessage());
+            }
+        }
+        return primaryConnection();
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        Connection connection = primary.dataSource.getConnection();
+        primaryConnections.increment();
+        return connection;
+    }
+
+    private boolean isHealthy(int index, long now) {
+        long until = unhealthyUntil.get(index);
+        return until == 0 || now - until >= 0;
+    }
+
+    private static boolean isPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+            && attributes.getAttribute(PINNED_TO_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    // Request scoped, so the pin ends with the request and threads outside a request are never pinned
+    private static void pinToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PINNED_TO_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Picks the target when the lazy proxy first needs a real connection
+     */
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return routedConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+        }
+    }
+
+    private record Target(DataSource dataSource, String name) {
+
+        void close() throws Exception {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import com.example.cleanapi.repositories.UserShards.Shard;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of UserExportRepository over the user shards
+ * Every shard streams its rows ordered by ID on its own cursor, and the
+ * cursors are merged as they are read, so the export keeps its global ID
+ * order while holding no more than one fetch per shard in memory.
+ */
+public class ShardedUserExportRepository implements UserExportRepository {
+
+    private static final String EXPORT_SQL =
+        "SELECT id, name, email, created_at, updated_at FROM users ORDER BY id";
+    private static final String EMAILS_SQL = "SELECT email FROM users";
+
+    private final UserShards shards;
+    private final int fetchSize;
+    private final SQLExceptionTranslator exceptionTranslator = new SQLStateSQLExceptionTranslator();
+
+    public ShardedUserExportRepository(UserShards shards, int fetchSize) {
+        this.shards = shards;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long streamAll(UserRowConsumer consumer) {
+        List<Connection> connections = new ArrayList<>(shards.size());
+        List<PreparedStatement> statements = new ArrayList<>(shards.size());
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(shards.size(), Comparator.comparingLong(Cursor::id));
+        long count = 0;
+        try {
+            for (Shard shard : shards.all()) {
+                Connection connection = shard.dataSource().getConnection();
+                connections.add(connection);
+                PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statements.add(statement);
+                statement.setFetchSize(fetchSize);
+                advance(statement.executeQuery(), heads);
+            }
+            while (!heads.isEmpty()) {
+                ResultSet rows = heads.poll().rows();
+                try {
+                    consumer.accept(
+                        rows.getLong(1),
+                        rows.getString(2),
+                        rows.getString(3),
+                        toLocalDateTime(rows.getTimestamp(4)),
+                        toLocalDateTime(rows.getTimestamp(5))
+                    );
+                } catch (IOException e) {
+                    // Client went away: abort the queries instead of reading the rest of every shard
+                    throw new UncheckedIOException(e);
+                }
+                count++;
+                advance(rows, heads);
+            }
+            return count;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("Export users", EXPORT_SQL, e);
+        } finally {
+            statements.forEach(JdbcUtils::closeStatement);
+            connections.forEach(JdbcUtils::closeConnection);
+        }
+    }
+
+    @Override
+    public long streamEmails(Consumer<String> consumer) {
+        long count = 0;
+        for (Shard shard : shards.all()) {
+            JdbcTemplate jdbcTemplate = shard.jdbc().getJdbcTemplate();
+            long[] shardCount = {0};
+            jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                        EMAILS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                },
+                (ResultSet rs) -> {
+                    consumer.accept(rs.getString(1));
+                    shardCount[0]++;
+                });
+            count += shardCount[0];
+        }
+        return count;
+    }
+
+    /**
+     * Move a shard's cursor to its next row and queue it again, unless the shard is exhausted
+     */
+    private static void advance(ResultSet rows, PriorityQueue<Cursor> heads) throws SQLException {
+        if (rows.next()) {
+            heads.add(new Cursor(rows.getLong(1), rows));
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private record Cursor(long id, ResultSet rows) {
+    }
+}
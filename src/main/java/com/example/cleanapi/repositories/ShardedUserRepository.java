@@ -0,0 +1,624 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.repositories.UserShards.Shard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of UserRepository that partitions users over several databases
+ * Lookups by ID go to the one shard the ID encodes. Lookups by email go to the
+ * email directory entry on the shard the email hashes to, then to the user's
+ * shard; for users that kept the email they were created with both are the same.
+ * Listing, paging and counting ask every shard in parallel and merge the sorted
+ * results, so a page still follows the (createdAt, id) keyset order.
+ * A create is one local transaction on its shard. An email change claims the
+ * new directory entry first and drops the old one last, so at every step the
+ * email is held by at most one user; a directory entry whose user does not
+ * hold the email is a write in progress, or left over by one that failed, and
+ * is only taken over once it is older than STALE_CLAIM_AGE.
+ * Writes commit on their shard before they are recorded in the change feed,
+ * which stays in the application's own database.
+ */
+public class ShardedUserRepository implements UserRepository, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedUserRepository.class);
+
+    static final Duration STALE_CLAIM_AGE = Duration.ofMinutes(1);
+    // Attempts at a write whose row changed between reading and writing it
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    // Shard queries waiting for a thread, per thread; beyond that callers run them themselves
+    private static final int QUEUED_QUERIES_PER_THREAD = 4;
+
+    private static final String COLUMNS = "id, name, email, created_at, updated_at, version";
+    private static final RowMapper<User> USER_ROW = (rs, rowNum) -> User.rehydrate(
+        rs.getLong(1), rs.getString(2), rs.getString(3),
+        toLocalDateTime(rs.getTimestamp(4)), toLocalDateTime(rs.getTimestamp(5)), rs.getLong(6));
+    private static final Comparator<User> KEYSET_ORDER =
+        Comparator.comparing(User::getCreatedAt).thenComparing(User::getId);
+
+    private final UserShards shards;
+    private final UserChangeLog changeLog;
+    private final TransactionTemplate changeTransaction;
+    private final ExecutorService scatter;
+    private final long queryTimeoutNanos;
+
+    /**
+     * @param transactionManager Transaction manager of the application database, where the change feed lives
+     * @param queryThreads Threads shared by all requests for querying shards in parallel
+     * @param queryTimeoutMillis Longest a request waits for the other shards' answers to a parallel query
+     */
+    public ShardedUserRepository(UserShards shards, UserChangeLog changeLog,
+                                 PlatformTransactionManager transactionManager, int queryThreads,
+                                 long queryTimeoutMillis) {
+        if (queryThreads < 1 || queryTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Query threads and query timeout must be positive");
+        }
+        this.shards = shards;
+        this.changeLog = changeLog;
+        this.changeTransaction = new TransactionTemplate(transactionManager);
+        this.queryTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queryTimeoutMillis);
+        AtomicInteger threads = new AtomicInteger();
+        // A full queue runs the query on the caller's thread: slower under load, but bounded and never refused
+        this.scatter = new ThreadPoolExecutor(queryThreads, queryThreads, 0, TimeUnit.MILLISECONDS,
+                                              new ArrayBlockingQueue<>(queryThreads * QUEUED_QUERIES_PER_THREAD),
+                                              task -> {
+                                                  Thread thread = new Thread(task, "user-shard-query-"
+                                                                                   + threads.incrementAndGet());
+                                                  thread.setDaemon(true);
+                                                  return thread;
+                                              },
+                                              new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public User save(User user) {
+        if (user.getId() != null) {
+            return write(user.getId(), user.getName(), user.getEmail(), user.getUpdatedAt(), user.getVersion())
+                .orElseThrow(() -> new UserNotFoundException(user.getId()));
+        }
+        return saveAll(List.of(user)).get(0);
+    }
+
+    @Override
+    public Optional<User> update(User user) {
+        return write(user.getId(), user.getName(), user.getEmail(), user.getUpdatedAt(), user.getVersion());
+    }
+
+    @Override
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        if (name == null && email == null) {
+            return findById(id);
+        }
+        return write(id, name, email, updatedAt, null);
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        Map<Shard, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            positions.computeIfAbsent(shards.forEmail(users.get(i).getEmail()), shard -> new ArrayList<>()).add(i);
+        }
+
+        // One local transaction per shard; if a later shard fails, the earlier ones are undone
+        User[] saved = new User[users.size()];
+        List<User> committed = new ArrayList<>(users.size());
+        try {
+            for (Map.Entry<Shard, List<Integer>> group : positions.entrySet()) {
+                Shard shard = group.getKey();
+                List<User> batch = group.getValue().stream().map(users::get).toList();
+                List<User> inserted = shard.transaction().execute(status -> insert(shard, batch));
+                for (int i = 0; i < inserted.size(); i++) {
+                    saved[group.getValue().get(i)] = inserted.get(i);
+                }
+                committed.addAll(inserted);
+            }
+        } catch (RuntimeException e) {
+            undoCreates(committed);
+            throw e;
+        }
+        List<User> result = Arrays.asList(saved);
+        recordChanges(UserChangeType.CREATED, result.stream().map(User::getId).toList(), LocalDateTime.now());
+        return result;
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        Shard home = homeOf(id);
+        return home == null ? Optional.empty() : findOn(home, id);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        Shard home = homeOf(id);
+        if (home == null) {
+            return Optional.empty();
+        }
+        return home.jdbc().query("SELECT version, updated_at FROM users WHERE id = :id", Map.of("id", id),
+                                 (rs, rowNum) -> new UserVersion(rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))))
+                   .stream().findFirst();
+    }
+
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Shard, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Shard home = homeOf(id);
+            if (home != null) {
+                byShard.computeIfAbsent(home, shard -> new ArrayList<>()).add(id);
+            }
+        }
+        return flatten(scatter(byShard.keySet(), shard -> inChunks(
+            byShard.get(shard), chunk -> shard.jdbc().query(
+                "SELECT " + COLUMNS + " FROM users WHERE id IN (:ids)", Map.of("ids", chunk), USER_ROW))));
+    }
+
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Long> owners = findOwners(emails);
+        // The directory may point at a user whose email change is still in progress
+        return findAllByIds(owners.values()).stream()
+                                            .filter(user -> user.getId().equals(owners.get(user.getEmail())))
+                                            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findOwner(email).flatMap(this::findById).filter(user -> user.getEmail().equals(email));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return merge(scatter(shards.all(), shard -> shard.jdbc().query(
+            "SELECT " + COLUMNS + " FROM users ORDER BY created_at ASC, id ASC", USER_ROW)), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<User> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // Every shard returns its own first page; the merged page is the smallest of their union
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM users ");
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append("WHERE created_at >= :createdAt AND (created_at > :createdAt OR id > :id) ");
+            params.addValue("createdAt", afterCreatedAt).addValue("id", afterId);
+        }
+        sql.append("ORDER BY created_at ASC, id ASC FETCH FIRST :limit ROWS ONLY");
+        return merge(scatter(shards.all(), shard -> shard.jdbc().query(sql.toString(), params, USER_ROW)), limit);
+    }
+
+    @Override
+    public long count() {
+        return scatter(shards.all(), shard -> shard.jdbc().queryForObject(
+            "SELECT COUNT(*) FROM users", Map.of(), Long.class))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return delete(id, null);
+    }
+
+    @Override
+    public boolean deleteById(Long id, Long expectedVersion) {
+        return delete(id, expectedVersion);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Shard home = homeOf(id);
+        return home != null && home.jdbc().queryForObject(
+            "SELECT COUNT(*) FROM users WHERE id = :id", Map.of("id", id), Long.class) > 0;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findOwner(email).map(owner -> holdsEmail(owner, email)).orElse(false);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findAllByEmails(emails).stream().map(User::getEmail).collect(Collectors.toSet());
+    }
+
+    /**
+     * Stop the shard query threads
+     */
+    @Override
+    public void close() {
+        scatter.shutdownNow();
+    }
+
+    /**
+     * Insert new users on their shard, inside that shard's transaction
+     * Directory entries go in as one batch; if one collides, the batch is
+     * repeated entry by entry so stale entries can be taken over
+     */
+    private List<User> insert(Shard shard, List<User> users) {
+        List<Long> localIds = shard.jdbc().queryForList(
+            "SELECT NEXT VALUE FOR users_seq FROM SYSTEM_RANGE(1, :count)", Map.of("count", users.size()), Long.class);
+        List<User> withIds = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            withIds.add(User.rehydrate(UserShards.globalId(localIds.get(i), shard), user.getName(), user.getEmail(),
+                                       user.getCreatedAt(), user.getUpdatedAt(), 0L));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            shard.jdbc().batchUpdate(
+                "INSERT INTO user_emails (email, user_id, claimed_at) VALUES (:email, :userId, :claimedAt)",
+                withIds.stream().map(user -> claimParams(user.getEmail(), user.getId(), now))
+                       .toArray(SqlParameterSource[]::new));
+        } catch (DuplicateKeyException e) {
+            for (User user : withIds) {
+                claimEmail(shard, user.getEmail(), user.getId());
+            }
+        }
+        try {
+            shard.jdbc().batchUpdate(
+                "INSERT INTO users (" + COLUMNS + ") VALUES (:id, :name, :email, :createdAt, :updatedAt, :version)",
+                withIds.stream().map(ShardedUserRepository::userParams).toArray(SqlParameterSource[]::new));
+        } catch (DuplicateKeyException e) {
+            throw new EmailConflictException();
+        }
+        return withIds;
+    }
+
+    /**
+     * Update a user in place; null name or email keeps the stored value
+     * The stored row is read first, for the email the directory has to release,
+     * and the UPDATE is conditional on the version read, so a concurrent write
+     * in between sends the loop round again instead of being overwritten
+     */
+    private Optional<User> write(Long id, String name, String email, LocalDateTime updatedAt, Long expectedVersion) {
+        Shard home = homeOf(id);
+        if (home == null) {
+            return Optional.empty();
+        }
+        for (int attempt = 1; ; attempt++) {
+            Optional<User> current = findOn(home, id);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            User stored = current.get();
+            checkVersion(expectedVersion, stored);
+
+            String newName = name != null ? name : stored.getName();
+            String newEmail = email != null ? email : stored.getEmail();
+            boolean emailChanged = !newEmail.equals(stored.getEmail());
+            if (emailChanged) {
+                Shard directory = shards.forEmail(newEmail);
+                directory.transaction().executeWithoutResult(status -> claimEmail(directory, newEmail, id));
+            }
+
+            int updated;
+            try {
+                updated = home.jdbc().update(
+                    "UPDATE users SET name = :name, email = :email, updated_at = :updatedAt, version = version + 1 " +
+                    "WHERE id = :id AND version = :version",
+                    new MapSqlParameterSource("name", newName).addValue("email", newEmail)
+                        .addValue("updatedAt", updatedAt).addValue("id", id).addValue("version", stored.getVersion()));
+            } catch (DuplicateKeyException e) {
+                if (emailChanged) {
+                    releaseEmail(newEmail, id);
+                }
+                throw new EmailConflictException();
+            }
+            if (updated == 0) {
+                if (emailChanged) {
+                    releaseEmail(newEmail, id);
+                }
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw new VersionMismatchException("User was modified concurrently; gave up after "
+                                                       + attempt + " attempts");
+                }
+                continue;
+            }
+            if (emailChanged) {
+                releaseEmail(stored.getEmail(), id);
+            }
+            recordChanges(UserChangeType.UPDATED, List.of(id), updatedAt);
+            return Optional.of(User.rehydrate(id, newName, newEmail, stored.getCreatedAt(), updatedAt,
+                                              stored.getVersion() + 1));
+        }
+    }
+
+    private boolean delete(Long id, Long expectedVersion) {
+        Shard home = homeOf(id);
+        if (home == null) {
+            return false;
+        }
+        for (int attempt = 1; ; attempt++) {
+            Optional<User> current = findOn(home, id);
+            if (current.isEmpty()) {
+                return false;
+            }
+            User stored = current.get();
+            checkVersion(expectedVersion, stored);
+            int deleted = home.jdbc().update("DELETE FROM users WHERE id = :id AND version = :version",
+                                             Map.of("id", id, "version", stored.getVersion()));
+            if (deleted > 0) {
+                releaseEmail(stored.getEmail(), id);
+                recordChanges(UserChangeType.DELETED, List.of(id), LocalDateTime.now());
+                return true;
+            }
+            if (attempt == MAX_WRITE_ATTEMPTS) {
+                throw new VersionMismatchException("User was modified concurrently; gave up after "
+                                                   + attempt + " attempts");
+            }
+        }
+    }
+
+    /**
+     * Point the directory entry for an email at the given user, within the current transaction on its shard
+     * @throws EmailConflictException if another user holds the email, or is in the middle of taking it
+     */
+    private void claimEmail(Shard directory, String email, long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> entry = directory.jdbc().queryForList(
+            "SELECT user_id, claimed_at FROM user_emails WHERE email = :email FOR UPDATE", Map.of("email", email));
+        if (entry.isEmpty()) {
+            try {
+                directory.jdbc().update(
+                    "INSERT INTO user_emails (email, user_id, claimed_at) VALUES (:email, :userId, :claimedAt)",
+                    claimParams(email, userId, now));
+                return;
+            } catch (DuplicateKeyException e) {
+                throw new EmailConflictException();
+            }
+        }
+        long owner = ((Number) entry.get(0).get("user_id")).longValue();
+        if (owner == userId) {
+            // Claimed by an earlier attempt of this write; restart its clock so it is not taken over mid-write
+            directory.jdbc().update("UPDATE user_emails SET claimed_at = :claimedAt WHERE email = :email",
+                                    claimParams(email, userId, now));
+            return;
+        }
+        LocalDateTime claimedAt = toLocalDateTime((Timestamp) entry.get(0).get("claimed_at"));
+        if (claimedAt.isAfter(now.minus(STALE_CLAIM_AGE)) || holdsEmail(owner, email)) {
+            throw new EmailConflictException();
+        }
+        logger.info("Taking over stale directory entry for user {} on shard {}", owner, directory.index());
+        directory.jdbc().update(
+            "UPDATE user_emails SET user_id = :userId, claimed_at = :claimedAt WHERE email = :email",
+            claimParams(email, userId, now));
+    }
+
+    /**
+     * Drop a user's directory entry for an email it no longer holds
+     * Best effort: an entry left behind is taken over once it is stale
+     */
+    private void releaseEmail(String email, long userId) {
+        Shard directory = shards.forEmail(email);
+        try {
+            directory.jdbc().update("DELETE FROM user_emails WHERE email = :email AND user_id = :userId",
+                                    Map.of("email", email, "userId", userId));
+        } catch (RuntimeException e) {
+            logger.warn("Could not release directory entry of user {} on shard {}: {}",
+                        userId, directory.index(), e.getMessage());
+        }
+    }
+
+    /**
+     * Remove users created on shards that committed before another shard of the same batch failed
+     */
+    private void undoCreates(List<User> committed) {
+        for (User user : committed) {
+            try {
+                shards.forId(user.getId()).jdbc().update("DELETE FROM users WHERE id = :id",
+                                                         Map.of("id", user.getId()));
+                releaseEmail(user.getEmail(), user.getId());
+            } catch (RuntimeException e) {
+                logger.error("Could not undo creation of user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean holdsEmail(long userId, String email) {
+        Shard home = homeOf(userId);
+        return home != null && home.jdbc().queryForObject(
+            "SELECT COUNT(*) FROM users WHERE id = :id AND email = :email",
+            Map.of("id", userId, "email", email), Long.class) > 0;
+    }
+
+    private Optional<Long> findOwner(String email) {
+        return shards.forEmail(email).jdbc()
+                     .queryForList("SELECT user_id FROM user_emails WHERE email = :email",
+                                   Map.of("email", email), Long.class)
+                     .stream().findFirst();
+    }
+
+    private Map<String, Long> findOwners(Collection<String> emails) {
+        Map<Shard, List<String>> byShard = new LinkedHashMap<>();
+        for (String email : new LinkedHashSet<>(emails)) {
+            byShard.computeIfAbsent(shards.forEmail(email), shard -> new ArrayList<>()).add(email);
+        }
+        Map<String, Long> owners = new HashMap<>();
+        for (List<Map.Entry<String, Long>> found : scatter(byShard.keySet(), shard -> inChunks(
+                byShard.get(shard), chunk -> shard.jdbc().query(
+                    "SELECT email, user_id FROM user_emails WHERE email IN (:emails)", Map.of("emails", chunk),
+                    (rs, rowNum) -> Map.entry(rs.getString(1), rs.getLong(2)))))) {
+            found.forEach(owner -> owners.put(owner.getKey(), owner.getValue()));
+        }
+        return owners;
+    }
+
+    private Optional<User> findOn(Shard home, Long id) {
+        return home.jdbc().query("SELECT " + COLUMNS + " FROM users WHERE id = :id", Map.of("id", id), USER_ROW)
+                   .stream().findFirst();
+    }
+
+    /**
+     * Shard of an ID, or null for an ID no shard could have issued
+     */
+    private Shard homeOf(Long id) {
+        if (id == null || id <= 0 || Math.floorMod(id, (long) UserShards.MAX_SHARDS) >= shards.size()) {
+            return null;
+        }
+        return shards.forId(id);
+    }
+
+    private void recordChanges(UserChangeType type, List<Long> userIds, LocalDateTime changedAt) {
+        try {
+            changeTransaction.executeWithoutResult(status -> changeLog.record(type, userIds, changedAt));
+        } catch (RuntimeException e) {
+            // The write itself has committed on its shard; failing the request now would misreport it
+            logger.error("Could not record {} of users {} in the change feed", type, userIds, e);
+        }
+    }
+
+    private static void checkVersion(Long expectedVersion, User stored) {
+        if (expectedVersion != null && !expectedVersion.equals(stored.getVersion())) {
+            throw new VersionMismatchException(
+                "User was modified concurrently; expected version " + expectedVersion
+                + " but found " + stored.getVersion());
+        }
+    }
+
+    /**
+     * Run a query on several shards at once, the first one on the calling thread
+     * @return One result per shard, in the order given
+     * @throws QueryTimeoutException if the other shards have not all answered within the query timeout
+     */
+    private <T> List<T> scatter(Collection<Shard> targets, Function<Shard, T> query) {
+        Iterator<Shard> shardIterator = targets.iterator();
+        if (!shardIterator.hasNext()) {
+            return List.of();
+        }
+        Shard first = shardIterator.next();
+        List<Future<T>> others = new ArrayList<>(targets.size() - 1);
+        while (shardIterator.hasNext()) {
+            Shard shard = shardIterator.next();
+            others.add(scatter.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(targets.size());
+        long deadline = System.nanoTime() + queryTimeoutNanos;
+        try {
+            results.add(query.apply(first));
+            for (Future<T> other : others) {
+                results.add(other.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Shards did not answer within "
+                                            + TimeUnit.NANOSECONDS.toMillis(queryTimeoutNanos) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        } finally {
+            others.forEach(other -> other.cancel(true));
+        }
+        return results;
+    }
+
+    /**
+     * K-way merge of lists already sorted in keyset order, keeping at most limit users
+     */
+    static List<User> merge(List<List<User>> sorted, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                                                          Comparator.comparing(Cursor::head, KEYSET_ORDER));
+        int total = 0;
+        for (List<User> users : sorted) {
+            total += users.size();
+            Iterator<User> iterator = users.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor(iterator.next(), iterator));
+            }
+        }
+        List<User> merged = new ArrayList<>(Math.min(total, limit));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Cursor smallest = heads.poll();
+            merged.add(smallest.head());
+            if (smallest.rest().hasNext()) {
+                heads.add(new Cursor(smallest.rest().next(), smallest.rest()));
+            }
+        }
+        return merged;
+    }
+
+    private static <K, R> List<R> inChunks(List<K> keys, Function<List<K>, List<R>> query) {
+        List<R> results = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += UserRepositoryImpl.IN_CHUNK_SIZE) {
+            results.addAll(query.apply(keys.subList(from, Math.min(from + UserRepositoryImpl.IN_CHUNK_SIZE,
+                                                                   keys.size()))));
+        }
+        return results;
+    }
+
+    private static <T> List<T> flatten(List<List<T>> lists) {
+        return lists.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private static MapSqlParameterSource claimParams(String email, long userId, LocalDateTime claimedAt) {
+        return new MapSqlParameterSource("email", email).addValue("userId", userId).addValue("claimedAt", claimedAt);
+    }
+
+    private static MapSqlParameterSource userParams(User user) {
+        return new MapSqlParameterSource("id", user.getId())
+            .addValue("name", user.getName())
+            .addValue("email", user.getEmail())
+            .addValue("createdAt", user.getCreatedAt())
+            .addValue("updatedAt", user.getUpdatedAt())
+            .addValue("version", user.getVersion());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private record Cursor(User head, Iterator<User> rest) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.UserChangeType;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for one entry of the user change feed
+ * The sequence number is the primary key, so "changes since N" is a range scan
+ * over the primary key index and reads only the delta.
+ */
+@Entity
+@Table(name = "user_changes")
+public class UserChangeJpaEntity implements Persistable<Long> {
+
+    // Created by db/user-changes-schema.sql; not a generator, UserChangeLog takes a whole batch in one query
+    static final String SEQUENCE = "user_changes_seq";
+
+    // Taken from user_changes_seq by UserChangeLog
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 10)
+    private UserChangeType type;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Default constructor for JPA
+    public UserChangeJpaEntity() {}
+
+    public UserChangeJpaEntity(Long seq, Long userId, UserChangeType type, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.userId = userId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return seq;
+    }
+
+    /**
+     * Entries are only ever inserted; always new, so save() persists without a SELECT first
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public UserChangeType getType() {
+        return type;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
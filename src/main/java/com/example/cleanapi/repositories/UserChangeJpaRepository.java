@@ -0,0 +1,30 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the user change feed
+ */
+public interface UserChangeJpaRepository extends JpaRepository<UserChangeJpaEntity, Long> {
+
+    /**
+     * Entries without their users; the users may live on other databases (shards)
+     */
+    @Query("SELECT new com.example.cleanapi.borders.dtos.UserChangeDto(c.seq, c.type, c.userId, c.changedAt) " +
+           "FROM UserChangeJpaEntity c WHERE c.seq > :since ORDER BY c.seq ASC")
+    List<UserChangeDto> findSince(@Param("since") long since, Pageable pageable);
+
+    /**
+     * Take {@code count} numbers from the change sequence in one round trip
+     * Numbers are never handed out twice, also when the taking transaction rolls back
+     */
+    @Query(value = "SELECT NEXT VALUE FOR " + UserChangeJpaEntity.SEQUENCE + " FROM SYSTEM_RANGE(1, :count)",
+           nativeQuery = true)
+    List<Long> nextSeqs(@Param("count") int count);
+}
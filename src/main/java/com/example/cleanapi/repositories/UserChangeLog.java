@@ -0,0 +1,105 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.interfaces.UserChangeListener;
+import com.example.cleanapi.borders.interfaces.UserChangeRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records user changes with sequence numbers taken from a database sequence
+ * Numbers are taken when a write records its change, but only become visible
+ * when that write commits, and writes commit in any order. A reader resuming
+ * after the highest visible number could then skip a lower one still in
+ * flight, so readers stop at the first gap instead: a missing number belongs
+ * to a write that has not committed yet. A write that rolled back leaves a gap
+ * that never fills; once the change after it is older than the gap timeout,
+ * the gap is taken as final and skipped. The timeout must therefore exceed
+ * the longest write transaction.
+ * Writers share nothing but the sequence, so they neither wait for each other
+ * nor need to run in the same process.
+ */
+@Repository
+public class UserChangeLog implements UserChangeRepository {
+
+    private final UserChangeJpaRepository jpaRepository;
+    private final ObjectProvider<UserChangeListener> listeners;
+    private final Duration gapTimeout;
+
+    @Autowired
+    public UserChangeLog(UserChangeJpaRepository jpaRepository, ObjectProvider<UserChangeListener> listeners,
+                         @Value("${app.changes.gap-timeout:10s}") Duration gapTimeout) {
+        this.jpaRepository = jpaRepository;
+        this.listeners = listeners;
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * Record a change to one user in the current write transaction
+     */
+    void record(UserChangeType type, Long userId, LocalDateTime changedAt) {
+        record(type, List.of(userId), changedAt);
+    }
+
+    /**
+     * Record the same kind of change to several users in the current write transaction
+     * Adds one sequence query and one INSERT (one JDBC batch for several users) to the transaction
+     * @throws IllegalStateException if no transaction is active
+     */
+    void record(UserChangeType type, List<Long> userIds, LocalDateTime changedAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("User changes must be recorded inside the write transaction");
+        }
+
+        List<Long> seqs = new ArrayList<>(jpaRepository.nextSeqs(userIds.size()));
+        Collections.sort(seqs);
+        List<UserChangeJpaEntity> entries = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            entries.add(new UserChangeJpaEntity(seqs.get(i), userIds.get(i), type, changedAt));
+        }
+        jpaRepository.saveAll(entries);
+
+        long lastSeq = seqs.get(seqs.size() - 1);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listeners.orderedStream().forEach(listener -> listener.changesCommitted(lastSeq));
+            }
+        });
+    }
+
+    /**
+     * Changes after {@code since}, up to the first number that is still in flight
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserChangeDto> findSince(long since, int limit) {
+        List<UserChangeDto> changes = jpaRepository.findSince(since, PageRequest.of(0, limit));
+        LocalDateTime settled = LocalDateTime.now().minus(gapTimeout);
+        long expected = since + 1;
+        for (int i = 0; i < changes.size(); i++) {
+            UserChangeDto change = changes.get(i);
+            if (change.getSeq() != expected && change.getChangedAt().isAfter(settled)) {
+                return changes.subList(0, i);
+            }
+            expected = change.getSeq() + 1;
+        }
+        return changes;
+    }
+}
@@ -8,17 +8,28 @@ import java.time.LocalDateTime;
  * This is separate from the domain entity to follow Clean Architecture
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", 
+    uniqueConstraints = {
+        @UniqueConstraint(name = UserJpaEntity.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email")
+    },
+    indexes = {
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id")
+    })
 public class UserJpaEntity {
     
+    static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+    
+    // Pooled sequence instead of IDENTITY: Hibernate can only batch inserts
+    // when it knows the IDs up front, and allocationSize amortizes the fetch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name", nullable = false, length = 100)
     private String name;
     
-    @Column(name = "email", nullable = false, unique = true, length = 254)
+    @Column(name = "email", nullable = false, length = 254)
     private String email;
     
     @Column(name = "created_at", nullable = false)
@@ -27,6 +38,11 @@ public class UserJpaEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Row version, bumped by every write; null until the entity is first persisted
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Default constructor for JPA
     public UserJpaEntity() {}
     
@@ -78,4 +94,12 @@ public class UserJpaEntity {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
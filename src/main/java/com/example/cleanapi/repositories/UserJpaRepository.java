@@ -1,8 +1,17 @@
 package com.example.cleanapi.repositories;
 
+import com.example.cleanapi.borders.entities.UserVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,8 +19,107 @@ import java.util.Optional;
  */
 @Repository
 public interface UserJpaRepository extends JpaRepository<UserJpaEntity, Long> {
-    
+
     Optional<UserJpaEntity> findByEmail(String email);
-    
+
     boolean existsByEmail(String email);
+
+    /**
+     * Version and modification time only, for conditional requests that may not need the row
+     */
+    @Query("SELECT new com.example.cleanapi.borders.entities.UserVersion(u.version, u.updatedAt) " +
+           "FROM UserJpaEntity u WHERE u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT u FROM UserJpaEntity u WHERE u.id IN :ids")
+    List<UserJpaEntity> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u FROM UserJpaEntity u WHERE u.email IN :emails")
+    List<UserJpaEntity> findAllByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.email FROM UserJpaEntity u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Single-statement update returning the stored row from H2's FINAL TABLE, so the
+     * caller gets created_at and the bumped version without reading the row back;
+     * empty when no row matched
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE users SET name = :name, email = :email, " +
+                   "updated_at = :updatedAt, version = version + 1 WHERE id = :id)",
+           nativeQuery = true)
+    Optional<UserJpaEntity> updateNameAndEmail(@Param("id") Long id,
+                                               @Param("name") String name,
+                                               @Param("email") String email,
+                                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Same as updateNameAndEmail, but only when the row still has the expected version
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE users SET name = :name, email = :email, " +
+                   "updated_at = :updatedAt, version = version + 1 WHERE id = :id AND version = :version)",
+           nativeQuery = true)
+    Optional<UserJpaEntity> updateNameAndEmailIfVersion(@Param("id") Long id,
+                                                        @Param("version") Long version,
+                                                        @Param("name") String name,
+                                                        @Param("email") String email,
+                                                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Partial update touching only the name column (and updated_at), returning the stored row
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE users SET name = :name, " +
+                   "updated_at = :updatedAt, version = version + 1 WHERE id = :id)",
+           nativeQuery = true)
+    Optional<UserJpaEntity> updateName(@Param("id") Long id,
+                                       @Param("name") String name,
+                                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Partial update touching only the email column (and updated_at), returning the stored row
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE users SET email = :email, " +
+                   "updated_at = :updatedAt, version = version + 1 WHERE id = :id)",
+           nativeQuery = true)
+    Optional<UserJpaEntity> updateEmail(@Param("id") Long id,
+                                        @Param("email") String email,
+                                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Single-statement delete; unlike deleteById it does not load the entity first
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserJpaEntity u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    /**
+     * Single-statement delete that only applies when the row still has the expected version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserJpaEntity u WHERE u.id = :id AND u.version = :version")
+    int deleteUserByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * First page of the (created_at, id) keyset, served by idx_users_created_at_id
+     */
+    @Query("SELECT u FROM UserJpaEntity u ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserJpaEntity> findFirstPage(Pageable pageable);
+
+    /**
+     * Next page of the (created_at, id) keyset, strictly after the given position.
+     * The leading created_at >= bound lets the index seek straight to the cursor.
+     */
+    @Query("SELECT u FROM UserJpaEntity u " +
+           "WHERE u.createdAt >= :createdAt " +
+           "AND (u.createdAt > :createdAt OR u.id > :id) " +
+           "ORDER BY u.createdAt ASC, u.id ASC")
+    List<UserJpaEntity> findPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
 }
@@ -1,33 +1,131 @@
 package com.example.cleanapi.repositories;
 
 import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
 import com.example.cleanapi.borders.interfaces.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of UserRepository interface using Spring Data JPA
- * This adapter converts between domain entities and JPA entities
+ * This adapter converts between domain entities and JPA entities.
+ * Every write records its change in the user change feed within the same transaction.
  */
 @Repository
 public class UserRepositoryImpl implements UserRepository {
     
+    // Larger lookups are split so no single IN list grows unbounded
+    static final int IN_CHUNK_SIZE = 500;
+    
     private final UserJpaRepository jpaRepository;
+    private final UserChangeLog changeLog;
     
     @Autowired
-    public UserRepositoryImpl(UserJpaRepository jpaRepository) {
+    public UserRepositoryImpl(UserJpaRepository jpaRepository, UserChangeLog changeLog) {
         this.jpaRepository = jpaRepository;
+        this.changeLog = changeLog;
     }
     
     @Override
+    @Transactional
     public User save(User user) {
         UserJpaEntity jpaEntity = mapToJpaEntity(user);
-        UserJpaEntity savedEntity = jpaRepository.save(jpaEntity);
-        return mapToDomainEntity(savedEntity);
+        try {
+            // Flush here so a unique-constraint violation surfaces from this call
+            UserJpaEntity savedEntity = jpaRepository.saveAndFlush(jpaEntity);
+            changeLog.record(user.getId() == null ? UserChangeType.CREATED : UserChangeType.UPDATED,
+                             savedEntity.getId(), savedEntity.getUpdatedAt());
+            return mapToDomainEntity(savedEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public Optional<User> update(User user) {
+        try {
+            // The UPDATE hands back the stored row, so there is no read after the write
+            Optional<UserJpaEntity> updated = user.getVersion() == null
+                ? jpaRepository.updateNameAndEmail(
+                    user.getId(), user.getName(), user.getEmail(), user.getUpdatedAt())
+                : jpaRepository.updateNameAndEmailIfVersion(
+                    user.getId(), user.getVersion(), user.getName(), user.getEmail(), user.getUpdatedAt());
+            if (updated.isEmpty()) {
+                checkVersion(user.getId(), user.getVersion());
+                return Optional.empty();
+            }
+            changeLog.record(UserChangeType.UPDATED, user.getId(), user.getUpdatedAt());
+            return updated.map(this::mapToDomainEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public Optional<User> patch(Long id, String name, String email, LocalDateTime updatedAt) {
+        if (name == null && email == null) {
+            return findById(id);
+        }
+        try {
+            // One fixed statement per column set keeps the SQL cacheable and
+            // leaves untouched columns out of the write
+            Optional<UserJpaEntity> updated;
+            if (email == null) {
+                updated = jpaRepository.updateName(id, name, updatedAt);
+            } else if (name == null) {
+                updated = jpaRepository.updateEmail(id, email, updatedAt);
+            } else {
+                updated = jpaRepository.updateNameAndEmail(id, name, email, updatedAt);
+            }
+            if (updated.isEmpty()) {
+                return Optional.empty();
+            }
+            changeLog.record(UserChangeType.UPDATED, id, updatedAt);
+            return updated.map(this::mapToDomainEntity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public List<User> saveAll(List<User> users) {
+        List<UserJpaEntity> jpaEntities = users.stream()
+                                               .map(this::mapToJpaEntity)
+                                               .collect(Collectors.toList());
+        try {
+            // Single transaction; inserts are grouped by hibernate.jdbc.batch_size and
+            // flushed here so a unique-constraint violation surfaces from this call
+            List<User> saved = jpaRepository.saveAllAndFlush(jpaEntities)
+                                            .stream()
+                                            .map(this::mapToDomainEntity)
+                                            .collect(Collectors.toList());
+            List<Long> ids = saved.stream().map(User::getId).collect(Collectors.toList());
+            changeLog.record(UserChangeType.CREATED, ids, LocalDateTime.now());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e);
+        }
     }
     
     @Override
@@ -36,6 +134,21 @@ public class UserRepositoryImpl implements UserRepository {
                            .map(this::mapToDomainEntity);
     }
     
+    @Override
+    public Optional<UserVersion> findVersionById(Long id) {
+        return jpaRepository.findVersionById(id);
+    }
+    
+    @Override
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return findInChunks(ids, jpaRepository::findAllByIdIn);
+    }
+    
+    @Override
+    public List<User> findAllByEmails(Collection<String> emails) {
+        return findInChunks(emails, jpaRepository::findAllByEmailIn);
+    }
+    
     @Override
     public Optional<User> findByEmail(String email) {
         return jpaRepository.findByEmail(email)
@@ -51,11 +164,40 @@ public class UserRepositoryImpl implements UserRepository {
     }
     
     @Override
+    public List<User> findPage(LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        PageRequest firstRows = PageRequest.of(0, limit);
+        List<UserJpaEntity> rows = (afterCreatedAt == null || afterId == null)
+            ? jpaRepository.findFirstPage(firstRows)
+            : jpaRepository.findPageAfter(afterCreatedAt, afterId, firstRows);
+        
+        return rows.stream()
+                   .map(this::mapToDomainEntity)
+                   .collect(Collectors.toList());
+    }
+    
+    @Override
+    public long count() {
+        return jpaRepository.count();
+    }
+    
+    @Override
+    @Transactional
     public boolean deleteById(Long id) {
-        if (jpaRepository.existsById(id)) {
-            jpaRepository.deleteById(id);
+        if (jpaRepository.deleteUserById(id) > 0) {
+            changeLog.record(UserChangeType.DELETED, id, LocalDateTime.now());
+            return true;
+        }
+        return false;
+    }
+    
+    @Override
+    @Transactional
+    public boolean deleteById(Long id, Long expectedVersion) {
+        if (jpaRepository.deleteUserByIdAndVersion(id, expectedVersion) > 0) {
+            changeLog.record(UserChangeType.DELETED, id, LocalDateTime.now());
             return true;
         }
+        checkVersion(id, expectedVersion);
         return false;
     }
     
@@ -69,10 +211,67 @@ public class UserRepositoryImpl implements UserRepository {
         return jpaRepository.existsByEmail(email);
     }
     
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaRepository.findExistingEmails(emails));
+    }
+    
+    /**
+     * Run an IN query per chunk of distinct keys and collect the mapped results
+     */
+    private <K> List<User> findInChunks(Collection<K> keys, Function<List<K>, List<UserJpaEntity>> query) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<User> users = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+            List<K> chunk = distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()));
+            for (UserJpaEntity jpaEntity : query.apply(chunk)) {
+                users.add(mapToDomainEntity(jpaEntity));
+            }
+        }
+        return users;
+    }
+    
+    /**
+     * Explain why a version-conditional write matched no row
+     * Only runs on the failure path; if the user still exists it was the version that differed
+     */
+    private void checkVersion(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return;
+        }
+        jpaRepository.findVersionById(id).ifPresent(current -> {
+            throw new VersionMismatchException(
+                "User was modified concurrently; expected version " + expectedVersion
+                + " but found " + current.getVersion());
+        });
+    }
+    
+    /**
+     * Map a violation of the email unique constraint to the domain exception
+     * Any other integrity violation is a genuine error and is rethrown as is
+     */
+    private RuntimeException translate(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT)
+                                          .contains(UserJpaEntity.EMAIL_UNIQUE_CONSTRAINT)) {
+                return new EmailConflictException();
+            }
+        }
+        return e;
+    }
+    
     /**
      * Convert domain entity to JPA entity
+     * Package-private so the mapping benchmarks can call it directly
      */
-    private UserJpaEntity mapToJpaEntity(User user) {
+    UserJpaEntity mapToJpaEntity(User user) {
         UserJpaEntity jpaEntity = new UserJpaEntity(
             user.getName(),
             user.getEmail(),
@@ -83,20 +282,23 @@ public class UserRepositoryImpl implements UserRepository {
         if (user.getId() != null) {
             jpaEntity.setId(user.getId());
         }
+        jpaEntity.setVersion(user.getVersion());
         
         return jpaEntity;
     }
     
     /**
      * Convert JPA entity to domain entity
+     * Package-private so the mapping benchmarks can call it directly
      */
-    private User mapToDomainEntity(UserJpaEntity jpaEntity) {
-        return new User(
+    User mapToDomainEntity(UserJpaEntity jpaEntity) {
+        return User.rehydrate(
             jpaEntity.getId(),
             jpaEntity.getName(),
             jpaEntity.getEmail(),
             jpaEntity.getCreatedAt(),
-            jpaEntity.getUpdatedAt()
+            jpaEntity.getUpdatedAt(),
+            jpaEntity.getVersion()
         );
     }
 }
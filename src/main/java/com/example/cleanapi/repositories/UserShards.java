@@ -0,0 +1,117 @@
+package com.example.cleanapi.repositories;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The databases the users table is partitioned over, and where a user lives
+ * A user's shard is fixed when the user is created and encoded in the low
+ * bits of its ID (id = local sequence value * MAX_SHARDS + shard), so any ID
+ * leads straight to its shard. New users are placed by a hash of their email,
+ * which is also where the email directory keeps their entry; an email change
+ * moves the directory entry but never the user.
+ * Both rules depend on the number of shards, so it cannot change once users exist.
+ */
+public class UserShards implements AutoCloseable {
+
+    /**
+     * Upper bound on the number of shards, fixed by the ID encoding
+     */
+    public static final int MAX_SHARDS = 1024;
+
+    static final String SCHEMA = "db/user-shard-schema.sql";
+
+    private final List<Shard> shards;
+
+    public UserShards(List<? extends DataSource> dataSources) {
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are required");
+        }
+        List<Shard> shards = new ArrayList<>(dataSources.size());
+        for (int i = 0; i < dataSources.size(); i++) {
+            shards.add(new Shard(i, dataSources.get(i)));
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    /**
+     * Create the users table, its sequence and the email directory on every shard that lacks them
+     */
+    public void initializeSchema() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCHEMA));
+        for (Shard shard : shards) {
+            DatabasePopulatorUtils.execute(populator, shard.dataSource());
+        }
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    List<Shard> all() {
+        return shards;
+    }
+
+    Shard get(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * Shard holding the user with this ID
+     * @throws IllegalArgumentException if the ID does not encode a configured shard
+     */
+    Shard forId(long id) {
+        int index = (int) Math.floorMod(id, (long) MAX_SHARDS);
+        if (index >= shards.size()) {
+            throw new IllegalArgumentException("User ID " + id + " does not belong to any shard");
+        }
+        return shards.get(index);
+    }
+
+    /**
+     * Shard holding the directory entry for this email, and the home of users created with it
+     */
+    Shard forEmail(String email) {
+        int h = email.hashCode();
+        // Spread the high bits down, as HashMap does, so similar emails still scatter
+        return shards.get(Math.floorMod(h ^ (h >>> 16), shards.size()));
+    }
+
+    /**
+     * ID for the given value of a shard's local sequence
+     */
+    static long globalId(long localId, Shard shard) {
+        return localId * MAX_SHARDS + shard.index();
+    }
+
+    /**
+     * Close the shard pools
+     */
+    @Override
+    public void close() throws Exception {
+        for (Shard shard : shards) {
+            if (shard.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * One database: its index in the ID encoding, and the means to query it and run local transactions
+     */
+    record Shard(int index, DataSource dataSource, NamedParameterJdbcTemplate jdbc, TransactionTemplate transaction) {
+
+        Shard(int index, DataSource dataSource) {
+            this(index, dataSource, new NamedParameterJdbcTemplate(dataSource),
+                 new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+    }
+}
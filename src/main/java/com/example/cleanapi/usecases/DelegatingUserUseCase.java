@@ -0,0 +1,118 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Base class for UserUseCase decorators
+ * Forwards every call to the wrapped use case so subclasses only
+ * override the operations they actually change
+ */
+public abstract class DelegatingUserUseCase implements UserUseCase {
+
+    protected final UserUseCase delegate;
+
+    protected DelegatingUserUseCase(UserUseCase delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserResponseDto createUser(CreateUserDto createUserDto) {
+        return delegate.createUser(createUserDto);
+    }
+
+    @Override
+    public BatchCreateResultDto createUsers(List<CreateUserDto> createUserDtos) {
+        return delegate.createUsers(createUserDtos);
+    }
+
+    @Override
+    public UserResponseDto getUserById(Long id) {
+        return delegate.getUserById(id);
+    }
+
+    @Override
+    public void getUserFields(Long id, Set<UserField> fields, UserFieldConsumer consumer) {
+        delegate.getUserFields(id, fields, consumer);
+    }
+
+    @Override
+    public UserVersion getUserVersion(Long id) {
+        return delegate.getUserVersion(id);
+    }
+
+    @Override
+    public UserLookupResultDto lookupUsers(UserLookupDto lookupDto) {
+        return delegate.lookupUsers(lookupDto);
+    }
+
+    @Override
+    public long lookupUserFields(List<Long> ids, Set<UserField> fields, UserFieldConsumer consumer) {
+        return delegate.lookupUserFields(ids, fields, consumer);
+    }
+
+    @Override
+    public List<UserResponseDto> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public UserPageDto getUsersPage(String after, int limit) {
+        return delegate.getUsersPage(after, limit);
+    }
+
+    @Override
+    public UserPageDto getUsersPage(String after, int limit, Set<UserField> fields, UserFieldConsumer consumer) {
+        return delegate.getUsersPage(after, limit, fields, consumer);
+    }
+
+    @Override
+    public long exportUsers(UserRowConsumer consumer) {
+        return delegate.exportUsers(consumer);
+    }
+
+    @Override
+    public UserChangePageDto getChanges(long since, int limit) {
+        return delegate.getChanges(since, limit);
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto) {
+        return delegate.updateUser(id, updateUserDto);
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto, Long expectedVersion) {
+        return delegate.updateUser(id, updateUserDto, expectedVersion);
+    }
+
+    @Override
+    public UserResponseDto patchUser(Long id, PatchUserDto patchUserDto) {
+        return delegate.patchUser(id, patchUserDto);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        delegate.deleteUser(id);
+    }
+
+    @Override
+    public void deleteUser(Long id, Long expectedVersion) {
+        delegate.deleteUser(id, expectedVersion);
+    }
+}
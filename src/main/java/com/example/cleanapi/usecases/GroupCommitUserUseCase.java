@@ -0,0 +1,476 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.BatchItemResultDto;
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.IngestionTicketDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.IngestionQueueFullException;
+import com.example.cleanapi.borders.exceptions.IngestionTimeoutException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.borders.validators.UserValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * UserUseCase decorator that writes single creates in groups (group commit)
+ * A create is validated on the caller's thread, then queued; one writer thread
+ * drains the queue into batches and stores each batch with createUsers, which
+ * checks emails in one query and inserts in one transaction.
+ * A batch is written once it holds maxBatchSize requests or its oldest request
+ * has waited maxDelay: a longer delay means fewer, larger transactions, a
+ * shorter one less latency. createUser waits up to maxWait for the caller's
+ * batch to commit; submitUser returns a ticket at once that getTicket answers
+ * until it expires. Expired tickets are dropped when read, and otherwise by the
+ * writer, which also wakes for them while idle. Should the writer stop, every
+ * request it has not answered fails instead of waiting forever.
+ */
+public class GroupCommitUserUseCase extends DelegatingUserUseCase implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitUserUseCase.class);
+
+    private final UserValidator userValidator;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long maxWaitNanos;
+    private final int queueCapacity;
+    private final long ticketTtlNanos;
+
+    // Bounded by the size counter rather than a lock, so producers never block each other
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean writerParked = new AtomicBoolean();
+    private final ConcurrentHashMap<String, Pending> tickets = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Writer thread only, in completion order
+    private final ArrayDeque<Pending> completedTickets = new ArrayDeque<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+
+    /**
+     * @param maxBatchSize Most requests written in one transaction, at most {@value UserUseCaseImpl#MAX_BATCH_SIZE}
+     * @param maxDelayMillis Longest a request waits for its batch to fill; 0 writes whatever is queued at once
+     * @param maxWaitMillis Longest createUser waits for its request to be written before giving up on it
+     * @param queueCapacity Most requests waiting to be written; further creates are rejected
+     * @param ticketTtlMillis How long the outcome of a submitted request stays available
+     */
+    public GroupCommitUserUseCase(UserUseCase delegate, UserValidator userValidator, int maxBatchSize,
+                                  long maxDelayMillis, long maxWaitMillis, int queueCapacity, long ticketTtlMillis) {
+        super(delegate);
+        if (maxBatchSize < 1 || maxBatchSize > UserUseCaseImpl.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + UserUseCaseImpl.MAX_BATCH_SIZE);
+        }
+        if (maxDelayMillis < 0 || maxWaitMillis < 1 || queueCapacity < 1 || ticketTtlMillis < 1) {
+            throw new IllegalArgumentException(
+                "Delay must not be negative; wait, queue capacity and ticket TTL must be positive");
+        }
+        this.userValidator = userValidator;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queueCapacity = queueCapacity;
+        this.ticketTtlNanos = TimeUnit.MILLISECONDS.toNanos(ticketTtlMillis);
+        this.writer = new Thread(this::writeLoop, "user-group-commit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Create a user in the next group commit, waiting until it is stored
+     * @throws IngestionTimeoutException if it is not written within maxWait; a request whose
+     *         batch has not started yet is withdrawn, one already being written may still be stored
+     */
+    @Override
+    public UserResponseDto createUser(CreateUserDto createUserDto) {
+        Pending pending = enqueue(createUserDto, null);
+        try {
+            pending.result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(pending);
+        } catch (ExecutionException e) {
+            // Rethrown below with its original type
+        }
+        try {
+            return pending.result.getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void abandon(Pending pending) {
+        // Loses to a batch that answered in the meantime; the writer skips requests already answered
+        if (pending.result.completeExceptionally(new IngestionTimeoutException())) {
+            timedOut.increment();
+        }
+    }
+
+    /**
+     * Queue a user for the next group commit without waiting for it
+     * @return A pending ticket to poll with {@link #getTicket(String)}
+     * @throws ValidationFailedException if validation fails; nothing is queued
+     * @throws IngestionQueueFullException if too many requests are already waiting
+     */
+    public IngestionTicketDto submitUser(CreateUserDto createUserDto) {
+        String ticket = UUID.randomUUID().toString();
+        Pending pending = enqueue(createUserDto, ticket);
+        return pending.toTicket();
+    }
+
+    /**
+     * State of a submitted request; empty once its outcome has expired or for unknown tickets
+     */
+    public Optional<IngestionTicketDto> getTicket(String ticket) {
+        Pending pending = tickets.get(ticket);
+        if (pending == null) {
+            return Optional.empty();
+        }
+        long completedAt = pending.completedAt;
+        if (completedAt != 0 && System.nanoTime() - completedAt > ticketTtlNanos) {
+            tickets.remove(ticket, pending);
+            return Optional.empty();
+        }
+        return Optional.of(pending.toTicket());
+    }
+
+    private Pending enqueue(CreateUserDto createUserDto, String ticket) {
+        UserValidator.ValidationResult validationResult = userValidator.validateCreateUser(createUserDto);
+        if (!validationResult.isValid()) {
+            throw new ValidationFailedException(validationResult.getErrors());
+        }
+        if (!running || queued.incrementAndGet() > queueCapacity) {
+            if (running) {
+                queued.decrementAndGet();
+            }
+            rejected.increment();
+            throw new IngestionQueueFullException();
+        }
+        Pending pending = new Pending(createUserDto, ticket);
+        if (ticket != null) {
+            tickets.put(ticket, pending);
+        }
+        queue.offer(pending);
+        if (!running) {
+            // The writer may have taken its last look before this offer
+            failQueued();
+            return pending;
+        }
+        // Only pay for a wake-up when the writer is actually waiting
+        if (writerParked.get() && writerParked.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+        return pending;
+    }
+
+    /**
+     * Write what is still queued and stop the writer
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs until closed; an Error from the delegate stops it, failing everything it has not answered
+     */
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            writeBatches(batch);
+        } catch (RuntimeException | Error e) {
+            logger.error("Group commit writer stopped", e);
+            throw e;
+        } finally {
+            running = false;
+            // Requests of a batch cut short, and those queued while closing, after the writer's last look
+            for (Pending pending : batch) {
+                fail(pending);
+            }
+            failQueued();
+        }
+    }
+
+    private void writeBatches(List<Pending> batch) {
+        while (running || !queue.isEmpty()) {
+            Pending first = queue.poll();
+            if (first == null) {
+                expireTickets();
+                park(untilNextExpiry());
+                continue;
+            }
+            batch.add(first);
+            long deadline = first.enqueuedAt + maxDelayNanos;
+            while (batch.size() < maxBatchSize) {
+                Pending next = queue.poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    break;
+                }
+                park(remaining);
+            }
+            queued.addAndGet(-batch.size());
+            write(batch);
+            batch.clear();
+            expireTickets();
+        }
+    }
+
+    private void failQueued() {
+        Pending unwritten;
+        while ((unwritten = queue.poll()) != null) {
+            fail(unwritten);
+        }
+    }
+
+    private void fail(Pending pending) {
+        if (pending.result.completeExceptionally(new IngestionQueueFullException())) {
+            rejected.increment();
+        }
+        if (pending.ticket != null && pending.completedAt == 0) {
+            pending.completedAt = System.nanoTime();
+        }
+    }
+
+    private void park(long nanos) {
+        writerParked.set(true);
+        // A request queued between the poll and the flag would otherwise wait for the next one
+        if (queue.isEmpty() && running) {
+            if (nanos > 0) {
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        writerParked.set(false);
+    }
+
+    private void write(List<Pending> batch) {
+        // Given up on by their callers while queued
+        batch.removeIf(pending -> pending.result.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        for (Pending pending : batch) {
+            queueNanos.add(started - pending.enqueuedAt);
+        }
+        List<CreateUserDto> createUserDtos = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            createUserDtos.add(pending.createUserDto);
+        }
+        try {
+            // Validation runs again in createUsers; it is in-memory, and keeps one write path for batches
+            BatchCreateResultDto result = delegate.createUsers(createUserDtos);
+            for (BatchItemResultDto item : result.getResults()) {
+                complete(batch.get(item.getIndex()), item);
+            }
+        } catch (RuntimeException e) {
+            // E.g. an email taken by a concurrent single create: retry one by one so only that request fails
+            logger.debug("Group commit of {} users failed, writing them one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                writeOne(pending);
+            }
+        }
+        batches.increment();
+        commitNanos.add(System.nanoTime() - started);
+    }
+
+    private void writeOne(Pending pending) {
+        try {
+            pending.result.complete(delegate.createUser(pending.createUserDto));
+            committed.increment();
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+            failed.increment();
+        }
+        retainTicket(pending);
+    }
+
+    private void complete(Pending pending, BatchItemResultDto item) {
+        switch (item.getStatus()) {
+            case CREATED -> {
+                pending.result.complete(item.getUser());
+                committed.increment();
+            }
+            case CONFLICT -> {
+                // Another request in the same batch may have taken the email first
+                pending.result.completeExceptionally(new EmailConflictException());
+                failed.increment();
+            }
+            case INVALID -> {
+                pending.result.completeExceptionally(new ValidationFailedException(item.getErrors()));
+                failed.increment();
+            }
+        }
+        retainTicket(pending);
+    }
+
+    private void retainTicket(Pending pending) {
+        if (pending.ticket != null) {
+            pending.completedAt = System.nanoTime();
+            completedTickets.add(pending);
+        }
+    }
+
+    private void expireTickets() {
+        long now = System.nanoTime();
+        Pending oldest;
+        while ((oldest = completedTickets.peek()) != null && now - oldest.completedAt > ticketTtlNanos) {
+            completedTickets.poll();
+            tickets.remove(oldest.ticket, oldest);
+        }
+    }
+
+    /**
+     * Nanoseconds until the oldest retained ticket expires, or 0 (no limit) when none is retained
+     */
+    private long untilNextExpiry() {
+        Pending oldest = completedTickets.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Math.max(1, oldest.completedAt + ticketTtlNanos - System.nanoTime());
+    }
+
+    /**
+     * Requests waiting to be written
+     */
+    public int getQueued() {
+        return Math.max(0, queued.get());
+    }
+
+    /**
+     * Transactions written, each holding one batch
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Requests stored
+     */
+    public long getCommitted() {
+        return committed.sum();
+    }
+
+    /**
+     * Requests written but refused, e.g. for an email already taken
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Requests turned away because the queue was full or the writer had stopped
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Requests given up on by createUser callers that stopped waiting
+     */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Time spent writing batches, in nanoseconds
+     */
+    public long getCommitNanos() {
+        return commitNanos.sum();
+    }
+
+    /**
+     * Time requests spent queued before their batch was written, in nanoseconds
+     */
+    public long getQueueNanos() {
+        return queueNanos.sum();
+    }
+
+    /**
+     * Requests per transaction so far
+     */
+    public double getAverageBatchSize() {
+        long written = batches.sum();
+        return written == 0 ? 0.0 : (double) (committed.sum() + failed.sum()) / written;
+    }
+
+    private static final class Pending {
+
+        private final CreateUserDto createUserDto;
+        private final String ticket;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<UserResponseDto> result = new CompletableFuture<>();
+        // Set once by the writer, read by getTicket; 0 until the request is answered
+        private volatile long completedAt;
+
+        Pending(CreateUserDto createUserDto, String ticket) {
+            this.createUserDto = createUserDto;
+            this.ticket = ticket;
+        }
+
+        IngestionTicketDto toTicket() {
+            if (!result.isDone()) {
+                return IngestionTicketDto.pending(ticket);
+            }
+            try {
+                return IngestionTicketDto.created(ticket, result.getNow(null));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ValidationFailedException invalid) {
+                    return IngestionTicketDto.failed(ticket, IngestionTicketDto.Status.INVALID, invalid.getErrors());
+                }
+                if (cause instanceof EmailConflictException) {
+                    return IngestionTicketDto.failed(ticket, IngestionTicketDto.Status.CONFLICT,
+                                                     List.of(cause.getMessage()));
+                }
+                return IngestionTicketDto.failed(ticket, IngestionTicketDto.Status.FAILED,
+                                                 List.of("User could not be stored"));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.cleanapi.usecases;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key into one
+ * The first caller for a key runs the loader; callers arriving while it is
+ * still running wait for and share its result or failure. Nothing is kept once
+ * the load finishes, so a caller never sees a result older than its own arrival
+ * minus the duration of one load.
+ * @param <K> Key type
+ * @param <V> Value type; shared between callers, so it should not be mutated
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * @param maxWaitMillis How long a caller waits for a shared load before running its own
+     */
+    SingleFlight(long maxWaitMillis) {
+        if (maxWaitMillis < 1) {
+            throw new IllegalArgumentException("Maximum wait must be positive");
+        }
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    /**
+     * Load the value for a key, sharing a load already in flight for it
+     * A caller that waits longer than the maximum wait gives up on the shared
+     * load and runs the loader itself, so one slow load cannot stall every caller
+     */
+    V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> shared = inFlight.putIfAbsent(key, own);
+        if (shared == null) {
+            loads.increment();
+            return runLoad(key, loader, own);
+        }
+
+        joins.increment();
+        try {
+            return shared.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.apply(key);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        }
+    }
+
+    /**
+     * Stop sharing the load in flight for a key, if any
+     * Callers arriving afterwards start a fresh load; callers already waiting are not affected
+     */
+    void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    long getLoads() {
+        return loads.sum();
+    }
+
+    long getJoins() {
+        return joins.sum();
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private V runLoad(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> own) {
+        try {
+            V value = loader.apply(key);
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only removes our own entry; a forget() may already have let a newer load in
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
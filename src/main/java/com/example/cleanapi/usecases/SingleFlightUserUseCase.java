@@ -0,0 +1,116 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.PatchUserDto;
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+
+/**
+ * UserUseCase decorator that coalesces concurrent reads of the same user
+ * Concurrent getUserById calls for one ID share a single lookup and its result
+ * or failure. Nothing is cached: once the lookup finishes the next caller starts
+ * a new one, and every write to a user stops later callers from joining a lookup
+ * that began before the write.
+ */
+public class SingleFlightUserUseCase extends DelegatingUserUseCase {
+
+    private final SingleFlight<Long, UserResponseDto> byId;
+
+    public SingleFlightUserUseCase(UserUseCase delegate, long maxWaitMillis) {
+        super(delegate);
+        this.byId = new SingleFlight<>(maxWaitMillis);
+    }
+
+    @Override
+    public UserResponseDto getUserById(Long id) {
+        if (id == null) {
+            return delegate.getUserById(id);
+        }
+        return byId.load(id, delegate::getUserById);
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto) {
+        try {
+            return delegate.updateUser(id, updateUserDto);
+        } finally {
+            forget(id);
+        }
+    }
+
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto, Long expectedVersion) {
+        try {
+            return delegate.updateUser(id, updateUserDto, expectedVersion);
+        } finally {
+            forget(id);
+        }
+    }
+
+    @Override
+    public UserResponseDto patchUser(Long id, PatchUserDto patchUserDto) {
+        try {
+            return delegate.patchUser(id, patchUserDto);
+        } finally {
+            forget(id);
+        }
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        try {
+            delegate.deleteUser(id);
+        } finally {
+            forget(id);
+        }
+    }
+
+    @Override
+    public void deleteUser(Long id, Long expectedVersion) {
+        try {
+            delegate.deleteUser(id, expectedVersion);
+        } finally {
+            forget(id);
+        }
+    }
+
+    /**
+     * Lookups that ran the query themselves
+     */
+    public long getLoads() {
+        return byId.getLoads();
+    }
+
+    /**
+     * Lookups answered by joining one already in flight
+     */
+    public long getJoins() {
+        return byId.getJoins();
+    }
+
+    /**
+     * Joined lookups that gave up waiting and ran the query themselves
+     */
+    public long getTimeouts() {
+        return byId.getTimeouts();
+    }
+
+    /**
+     * Share of lookups that did not need their own query
+     */
+    public double getCoalescingRatio() {
+        long joins = byId.getJoins() - byId.getTimeouts();
+        long total = byId.getLoads() + byId.getJoins();
+        return total == 0 ? 0.0 : (double) joins / total;
+    }
+
+    public int inFlight() {
+        return byId.inFlight();
+    }
+
+    private void forget(Long id) {
+        if (id != null) {
+            byId.forget(id);
+        }
+    }
+}
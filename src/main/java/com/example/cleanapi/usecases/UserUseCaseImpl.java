@@ -1,132 +1,592 @@
 package com.example.cleanapi.usecases;
 
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.BatchItemResultDto;
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserEventDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupItemDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
 import com.example.cleanapi.borders.dtos.UserResponseDto;
 import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.interfaces.UserChangeRepository;
+import com.example.cleanapi.borders.interfaces.UserEventPublisher;
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserProjectionRepository;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
 import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
 import com.example.cleanapi.borders.interfaces.UserUseCase;
 import com.example.cleanapi.borders.validators.UserValidator;
+import com.example.cleanapi.metrics.ServerTiming;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of UserUseCase containing business logic
- * This class orchestrates business operations and enforces business rules
+ * This class orchestrates business operations and enforces business rules.
+ * Writes go through the domain UserRepository; plain reads use UserQueryRepository,
+ * which can hand out response DTOs without building domain entities.
+ * The change feed is read from UserChangeRepository, which the repository writes fill.
+ * Every stored write is announced to the UserEventPublisher.
+ * Reads run in read-only transactions, which may be served by a read replica.
  */
 @Service
 public class UserUseCaseImpl implements UserUseCase {
     
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_LOOKUP_SIZE = 1000;
+    static final int MAX_CHANGES_PAGE_SIZE = 1000;
+    // Inserts of one batch before an email that keeps getting taken concurrently fails it
+    static final int MAX_BATCH_SAVE_ATTEMPTS = 3;
+    
     private final UserRepository userRepository;
+    private final UserQueryRepository userQueryRepository;
+    private final UserExportRepository userExportRepository;
+    private final UserProjectionRepository userProjectionRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final UserEventPublisher userEventPublisher;
     private final UserValidator userValidator;
     
     @Autowired
-    public UserUseCaseImpl(UserRepository userRepository, UserValidator userValidator) {
+    public UserUseCaseImpl(UserRepository userRepository, 
+                           UserQueryRepository userQueryRepository,
+                           UserExportRepository userExportRepository,
+                           UserProjectionRepository userProjectionRepository,
+                           UserChangeRepository userChangeRepository,
+                           UserEventPublisher userEventPublisher,
+                           UserValidator userValidator) {
         this.userRepository = userRepository;
+        this.userQueryRepository = userQueryRepository;
+        this.userExportRepository = userExportRepository;
+        this.userProjectionRepository = userProjectionRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.userEventPublisher = userEventPublisher;
         this.userValidator = userValidator;
     }
     
     @Override
     public UserResponseDto createUser(CreateUserDto createUserDto) {
         // Validate input
+        long validationStarted = ServerTiming.start();
         UserValidator.ValidationResult validationResult = userValidator.validateCreateUser(createUserDto);
+        ServerTiming.stop(ServerTiming.Phase.VALIDATE, validationStarted);
         if (!validationResult.isValid()) {
-            throw new IllegalArgumentException("Validation failed: " + validationResult.getErrorsAsString());
-        }
-        
-        // Business rule: Check if email already exists
-        if (userRepository.existsByEmail(createUserDto.getEmail())) {
-            throw new IllegalArgumentException("User with this email already exists");
+            throw new ValidationFailedException(validationResult.getErrors());
         }
         
         // Create and save user
-        User user = new User(createUserDto.getName(), createUserDto.getEmail());
+        // Business rule: email is unique - enforced by the unique constraint, which
+        // raises EmailConflictException; the email filter only adds a pre-check when
+        // the email may already be taken
+        rejectTakenEmail(createUserDto.getEmail(), null);
+        User user = User.ofValidated(createUserDto.getName(), createUserDto.getEmail());
         User savedUser = userRepository.save(user);
         
         // Convert to response DTO
-        return mapToResponseDto(savedUser);
+        UserResponseDto created = mapToResponseDto(savedUser);
+        userEventPublisher.publish(UserEventDto.created(created));
+        return created;
+    }
+    
+    @Override
+    public BatchCreateResultDto createUsers(List<CreateUserDto> createUserDtos) {
+        if (createUserDtos == null || createUserDtos.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one user");
+        }
+        if (createUserDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not exceed " + MAX_BATCH_SIZE + " users");
+        }
+        
+        BatchItemResultDto[] results = new BatchItemResultDto[createUserDtos.size()];
+        
+        // Validate every item up front; first occurrence of an email wins inside the batch
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < createUserDtos.size(); i++) {
+            CreateUserDto dto = createUserDtos.get(i);
+            long validationStarted = ServerTiming.start();
+            UserValidator.ValidationResult validationResult = userValidator.validateCreateUser(dto);
+            ServerTiming.stop(ServerTiming.Phase.VALIDATE, validationStarted);
+            if (!validationResult.isValid()) {
+                results[i] = BatchItemResultDto.invalid(i, validationResult.getErrors());
+            } else if (candidates.putIfAbsent(dto.getEmail(), i) != null) {
+                results[i] = BatchItemResultDto.conflict(i, "Email is duplicated within the batch");
+            }
+        }
+        
+        // Business rule: email must be unique - checked for the whole batch in one query
+        Set<String> existingEmails = candidates.isEmpty() 
+            ? Set.of() 
+            : userRepository.findExistingEmails(candidates.keySet());
+        
+        List<Integer> pendingIndexes = new ArrayList<>(candidates.size());
+        List<User> pendingUsers = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            int index = candidate.getValue();
+            if (existingEmails.contains(candidate.getKey())) {
+                results[index] = BatchItemResultDto.conflict(index, "User with this email already exists");
+            } else {
+                CreateUserDto dto = createUserDtos.get(index);
+                pendingIndexes.add(index);
+                pendingUsers.add(User.ofValidated(dto.getName(), dto.getEmail()));
+            }
+        }
+        
+        // A concurrent create can take an email between the check and the insert, which
+        // rolls the whole insert back; the emails taken meanwhile are reported as conflicts
+        // and the rest of the batch is inserted again
+        for (int attempt = 1; !pendingUsers.isEmpty(); attempt++) {
+            List<User> savedUsers;
+            try {
+                savedUsers = userRepository.saveAll(pendingUsers);
+            } catch (EmailConflictException e) {
+                if (attempt == MAX_BATCH_SAVE_ATTEMPTS) {
+                    throw e;
+                }
+                Set<String> taken = userRepository.findExistingEmails(
+                    pendingUsers.stream().map(User::getEmail).toList());
+                for (int i = pendingUsers.size() - 1; i >= 0; i--) {
+                    if (taken.contains(pendingUsers.get(i).getEmail())) {
+                        int index = pendingIndexes.remove(i);
+                        pendingUsers.remove(i);
+                        results[index] = BatchItemResultDto.conflict(index, "User with this email already exists");
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < savedUsers.size(); i++) {
+                int index = pendingIndexes.get(i);
+                UserResponseDto created = mapToResponseDto(savedUsers.get(i));
+                userEventPublisher.publish(UserEventDto.created(created));
+                results[index] = BatchItemResultDto.created(index, created);
+            }
+            break;
+        }
+        
+        return new BatchCreateResultDto(Arrays.asList(results));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("User ID must be a positive number");
         }
         
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
+        return userQueryRepository.findById(id)
+            .orElseThrow(() -> new UserNotFoundException(id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void getUserFields(Long id, Set<UserField> fields, UserFieldConsumer consumer) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("User ID must be a positive number");
+        }
+        
+        if (!userProjectionRepository.findById(id, fields, consumer)) {
+            throw new UserNotFoundException(id);
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserVersion getUserVersion(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("User ID must be a positive number");
+        }
+        
+        return userRepository.findVersionById(id)
+            .orElseThrow(() -> new UserNotFoundException(id));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserLookupResultDto lookupUsers(UserLookupDto lookupDto) {
+        List<Long> ids = lookupDto != null ? lookupDto.getIds() : List.of();
+        List<String> emails = lookupDto != null ? lookupDto.getEmails() : List.of();
+        if (ids.isEmpty() && emails.isEmpty()) {
+            throw new IllegalArgumentException("Lookup must contain at least one id or email");
+        }
+        if (ids.size() + emails.size() > MAX_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("Lookup must not exceed " + MAX_LOOKUP_SIZE + " ids and emails");
+        }
+        
+        // Keys that cannot match a user are answered without querying
+        List<Long> queryIds = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null && id > 0) {
+                queryIds.add(id);
+            }
+        }
+        List<String> queryEmails = new ArrayList<>(emails.size());
+        for (String email : emails) {
+            if (email != null && !email.isBlank()) {
+                queryEmails.add(email);
+            }
+        }
         
-        return mapToResponseDto(user);
+        Map<Long, UserResponseDto> usersById = new HashMap<>();
+        if (!queryIds.isEmpty()) {
+            for (User user : userRepository.findAllByIds(queryIds)) {
+                usersById.put(user.getId(), mapToResponseDto(user));
+            }
+        }
+        Map<String, UserResponseDto> usersByEmail = new HashMap<>();
+        if (!queryEmails.isEmpty()) {
+            for (User user : userRepository.findAllByEmails(queryEmails)) {
+                usersByEmail.put(user.getEmail(), mapToResponseDto(user));
+            }
+        }
+        
+        // One result per requested key, in request order, duplicates included
+        List<UserLookupItemDto> results = new ArrayList<>(ids.size() + emails.size());
+        for (Long id : ids) {
+            results.add(UserLookupItemDto.byId(id, id != null ? usersById.get(id) : null));
+        }
+        for (String email : emails) {
+            results.add(UserLookupItemDto.byEmail(email, email != null ? usersByEmail.get(email) : null));
+        }
+        return new UserLookupResultDto(results);
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public long lookupUserFields(List<Long> ids, Set<UserField> fields, UserFieldConsumer consumer) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Lookup must contain at least one id or email");
+        }
+        if (ids.size() > MAX_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("Lookup must not exceed " + MAX_LOOKUP_SIZE + " ids and emails");
+        }
+        
+        List<Long> queryIds = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (id != null && id > 0) {
+                queryIds.add(id);
+            }
+        }
+        if (queryIds.isEmpty()) {
+            return 0;
+        }
+        
+        // The ID is always read so the caller can put rows back in request order
+        EnumSet<UserField> selected = EnumSet.copyOf(fields);
+        selected.add(UserField.ID);
+        return userProjectionRepository.findAllByIds(queryIds, selected, consumer);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                   .map(this::mapToResponseDto)
-                   .collect(Collectors.toList());
+        return userQueryRepository.findAll();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getUsersPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        UserCursor cursor = after == null || after.isBlank() ? null : UserCursor.decode(after);
+        
+        // Fetch one extra row to know whether a next page exists without another query
+        List<UserResponseDto> users = cursor == null
+            ? userQueryRepository.findPage(null, null, limit + 1)
+            : userQueryRepository.findPage(cursor.getCreatedAt(), cursor.getId(), limit + 1);
+        
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = UserCursor.of(users.get(limit - 1)).encode();
+        }
+        
+        return new UserPageDto(users, nextCursor, countOnFirstPage(cursor));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getUsersPage(String after, int limit, Set<UserField> fields, UserFieldConsumer consumer) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        UserCursor cursor = after == null || after.isBlank() ? null : UserCursor.decode(after);
+        
+        // The keyset columns are always read so the next cursor can be built
+        EnumSet<UserField> selected = EnumSet.copyOf(fields);
+        selected.add(UserField.ID);
+        selected.add(UserField.CREATED_AT);
+        
+        // Fetch one extra row to know whether a next page exists; it is not passed on
+        PageLimitingConsumer page = new PageLimitingConsumer(consumer, limit);
+        long read = cursor == null
+            ? userProjectionRepository.findPage(null, null, limit + 1, selected, page)
+            : userProjectionRepository.findPage(cursor.getCreatedAt(), cursor.getId(), limit + 1, selected, page);
+        
+        String nextCursor = read > limit
+            ? new UserCursor(page.lastCreatedAt, page.lastId).encode()
+            : null;
+        return new UserPageDto(List.of(), nextCursor, countOnFirstPage(cursor));
+    }
+    
+    // A COUNT(*) reads the whole table; later pages would pay it again for a number the client already has
+    private Long countOnFirstPage(UserCursor cursor) {
+        return cursor == null ? userRepository.count() : null;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(UserRowConsumer consumer) {
+        return userExportRepository.streamAll(consumer);
+    }
+    
+    // Read-write on purpose: keeps the feed on the primary, whose commits wake the long polls
+    @Override
+    @Transactional
+    public UserChangePageDto getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Change sequence must not be negative");
+        }
+        if (limit < 1 || limit > MAX_CHANGES_PAGE_SIZE) {
+            throw new IllegalArgumentException("Change page limit must be between 1 and " + MAX_CHANGES_PAGE_SIZE);
+        }
+        
+        // One extra row tells whether another page follows without a count query
+        List<UserChangeDto> changes = userChangeRepository.findSince(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new UserChangePageDto(withCurrentUsers(changes), nextSince, hasMore);
+    }
+    
+    /**
+     * Attach each entry's user as stored now, looked up through the user repository
+     * so the users are found wherever they live, shards included
+     */
+    private List<UserChangeDto> withCurrentUsers(List<UserChangeDto> changes) {
+        Set<Long> ids = new HashSet<>();
+        for (UserChangeDto change : changes) {
+            if (change.getType() != UserChangeType.DELETED) {
+                ids.add(change.getUserId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return changes;
+        }
+        Map<Long, UserResponseDto> users = new HashMap<>();
+        for (User user : userRepository.findAllByIds(ids)) {
+            users.put(user.getId(), mapToResponseDto(user));
+        }
+        List<UserChangeDto> attached = new ArrayList<>(changes.size());
+        for (UserChangeDto change : changes) {
+            attached.add(change.withUser(users.get(change.getUserId())));
+        }
+        return attached;
     }
     
     @Override
     public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto) {
+        return updateUser(id, updateUserDto, null);
+    }
+    
+    @Override
+    public UserResponseDto updateUser(Long id, UpdateUserDto updateUserDto, Long expectedVersion) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("User ID must be a positive number");
         }
         
         // Validate input
+        long validationStarted = ServerTiming.start();
         UserValidator.ValidationResult validationResult = userValidator.validateUpdateUser(updateUserDto);
+        ServerTiming.stop(ServerTiming.Phase.VALIDATE, validationStarted);
         if (!validationResult.isValid()) {
-            throw new IllegalArgumentException("Validation failed: " + validationResult.getErrorsAsString());
+            throw new ValidationFailedException(validationResult.getErrors());
         }
         
-        // Find existing user
-        User existingUser = userRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
+        // Input passed the validation pipeline above; build the changes without loading the stored row
+        User changes = User.ofValidated(updateUserDto.getName(), updateUserDto.getEmail());
+        changes.setId(id);
+        changes.setVersion(expectedVersion);
+        
+        // Single conditional UPDATE; email uniqueness is enforced by the constraint
+        // and the expected version, if any, is checked in the same statement
+        rejectTakenEmail(updateUserDto.getEmail(), id);
+        User updatedUser = userRepository.update(changes)
+            .orElseThrow(() -> new UserNotFoundException(id));
+        UserResponseDto updated = mapToResponseDto(updatedUser);
+        userEventPublisher.publish(UserEventDto.updated(updated));
+        return updated;
+    }
+    
+    @Override
+    public UserResponseDto patchUser(Long id, PatchUserDto patchUserDto) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("User ID must be a positive number");
+        }
         
-        // Business rule: Check if email is being changed to an existing email
-        if (!existingUser.getEmail().equals(updateUserDto.getEmail()) && 
-            userRepository.existsByEmail(updateUserDto.getEmail())) {
-            throw new IllegalArgumentException("Another user with this email already exists");
+        // Validate only the fields present in the patch
+        long validationStarted = ServerTiming.start();
+        UserValidator.ValidationResult validationResult = userValidator.validatePatchUser(patchUserDto);
+        ServerTiming.stop(ServerTiming.Phase.VALIDATE, validationStarted);
+        if (!validationResult.isValid()) {
+            throw new ValidationFailedException(validationResult.getErrors());
         }
         
-        // Update user using entity business method
-        existingUser.updateUser(updateUserDto.getName(), updateUserDto.getEmail());
+        // An empty merge patch changes nothing
+        if (patchUserDto.isEmpty()) {
+            return getUserById(id);
+        }
         
-        // Save and return
-        User updatedUser = userRepository.save(existingUser);
-        return mapToResponseDto(updatedUser);
+        // Absent fields are passed as null so their columns stay out of the UPDATE
+        if (patchUserDto.hasEmail()) {
+            rejectTakenEmail(patchUserDto.getEmail(), id);
+        }
+        User patchedUser = userRepository.patch(
+                id,
+                patchUserDto.hasName() ? patchUserDto.getName() : null,
+                patchUserDto.hasEmail() ? patchUserDto.getEmail() : null,
+                LocalDateTime.now())
+            .orElseThrow(() -> new UserNotFoundException(id));
+        UserResponseDto patched = mapToResponseDto(patchedUser);
+        userEventPublisher.publish(UserEventDto.updated(patched));
+        return patched;
+    }
+    
+    /**
+     * Fail fast when the email filter says the email may belong to another user
+     * Emails the filter rules out, or repositories without a filter, go straight to
+     * the write and rely on the unique constraint
+     * @param email The email being written
+     * @param ownerId The user being updated, or null for a new user
+     */
+    private void rejectTakenEmail(String email, Long ownerId) {
+        if (userRepository.emailHint(email) != UserRepository.EmailHint.POSSIBLY_PRESENT) {
+            return;
+        }
+        boolean taken = ownerId == null
+            ? userRepository.existsByEmail(email)
+            : userRepository.findByEmail(email).filter(owner -> !ownerId.equals(owner.getId())).isPresent();
+        if (taken) {
+            throw new EmailConflictException();
+        }
     }
     
     @Override
     public void deleteUser(Long id) {
+        deleteUser(id, null);
+    }
+    
+    @Override
+    public void deleteUser(Long id, Long expectedVersion) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("User ID must be a positive number");
         }
         
-        // Business rule: Verify user exists before deletion
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("User not found with ID: " + id);
-        }
-        
-        boolean deleted = userRepository.deleteById(id);
+        // Single DELETE; zero affected rows means the user did not exist
+        boolean deleted = expectedVersion == null
+            ? userRepository.deleteById(id)
+            : userRepository.deleteById(id, expectedVersion);
         if (!deleted) {
-            throw new RuntimeException("Failed to delete user with ID: " + id);
+            throw new UserNotFoundException(id);
         }
+        userEventPublisher.publish(UserEventDto.deleted(id));
     }
     
     /**
-     * Private helper method to convert User entity to UserResponseDto
+     * Helper method to convert User entity to UserResponseDto
+     * Package-private so the mapping benchmarks can call it directly
      */
-    private UserResponseDto mapToResponseDto(User user) {
-        return new UserResponseDto(
-            user.getId(),
-            user.getName(),
-            user.getEmail(),
-            user.getCreatedAt(),
-            user.getUpdatedAt()
-        );
+    UserResponseDto mapToResponseDto(User user) {
+        return UserResponseDto.of(user);
+    }
+    
+    /**
+     * Passes on the first {@code limit} rows and remembers the keyset position of the last one
+     */
+    private static final class PageLimitingConsumer implements UserFieldConsumer {
+        
+        private final UserFieldConsumer delegate;
+        private final int limit;
+        private int rows;
+        private boolean passing;
+        private long lastId;
+        private LocalDateTime lastCreatedAt;
+        
+        private PageLimitingConsumer(UserFieldConsumer delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+        
+        @Override
+        public void startUser() throws IOException {
+            passing = rows++ < limit;
+            if (passing) {
+                delegate.startUser();
+            }
+        }
+        
+        @Override
+        public void longField(UserField field, long value) throws IOException {
+            if (passing) {
+                if (field == UserField.ID) {
+                    lastId = value;
+                }
+                delegate.longField(field, value);
+            }
+        }
+        
+        @Override
+        public void stringField(UserField field, String value) throws IOException {
+            if (passing) {
+                delegate.stringField(field, value);
+            }
+        }
+        
+        @Override
+        public void dateTimeField(UserField field, LocalDateTime value) throws IOException {
+            if (passing) {
+                if (field == UserField.CREATED_AT) {
+                    lastCreatedAt = value;
+                }
+                delegate.dateTimeField(field, value);
+            }
+        }
+        
+        @Override
+        public void endUser() throws IOException {
+            if (passing) {
+                delegate.endUser();
+            }
+        }
     }
 }
@@ -0,0 +1,3 @@
+-- Run by Hibernate right after it creates the schema (hibernate.hbm2ddl.import_files).
+-- Numbers for the user change feed; UserChangeLog takes them directly, not through JPA.
+CREATE SEQUENCE IF NOT EXISTS user_changes_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,24 @@
+-- Schema of one user shard, applied at startup when sharding is enabled.
+-- Same users table as the JPA mapping; IDs come from the shard's own sequence
+-- and are combined with the shard index before they are stored.
+CREATE SEQUENCE IF NOT EXISTS users_seq;
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(254) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+
+-- Email directory partitioned by email hash: which user an email belongs to,
+-- wherever that user lives. The primary key makes emails unique across shards.
+CREATE TABLE IF NOT EXISTS user_emails (
+    email VARCHAR(254) NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    claimed_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,62 @@
+package com.example.cleanapi.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PreparedErrorBody
+ */
+@DisplayName("Prepared Error Body Tests")
+class PreparedErrorBodyTest {
+
+    // Same defaults Spring Boot applies to the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    @DisplayName("Should produce the same bytes Jackson writes for the ErrorResponse")
+    void shouldMatchJacksonOutput() throws Exception {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 120_000_000);
+        String message = "User with this email already exists";
+        PreparedErrorBody body = PreparedErrorBody.of(HttpStatus.CONFLICT, message);
+
+        // Act
+        ResponseEntity<byte[]> response = body.toResponse(timestamp);
+
+        // Assert
+        String expected = objectMapper.writeValueAsString(
+                new GlobalExceptionHandler.ErrorResponse(message, 409, timestamp, null));
+        assertEquals(expected, new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    @DisplayName("Should append and escape the per-response message tail")
+    void shouldAppendEscapedMessageTail() throws Exception {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 15, 10, 30);
+        PreparedErrorBody body = PreparedErrorBody.of(HttpStatus.NOT_FOUND, "User not found with ID: ");
+
+        // Act
+        ResponseEntity<byte[]> response = body.toResponse("42 \"quoted\"", timestamp);
+
+        // Assert
+        String expected = objectMapper.writeValueAsString(new GlobalExceptionHandler.ErrorResponse(
+                "User not found with ID: 42 \"quoted\"", 404, timestamp, null));
+        assertEquals(expected, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.repositories.UserJpaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * End-to-end test of the change feed with users stored on shards, away from the change log
+ */
+@SpringBootTest(properties = {
+    "app.sharding.enabled=true",
+    "app.sharding.urls=jdbc:h2:mem:change-feed-shard-0;DB_CLOSE_DELAY=-1,"
+        + "jdbc:h2:mem:change-feed-shard-1;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@DisplayName("Sharded Change Feed Tests")
+class ShardedChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJpaRepository primaryUsers;
+
+    @Test
+    @DisplayName("Should carry the current user in created and updated entries")
+    void shouldCarryUsersStoredOnShards() throws Exception {
+        // Arrange
+        long ann = create("Ann Lee", "ann.lee@example.com");
+        long bob = create("Bob Ray", "bob.ray@example.com");
+        mockMvc.perform(put("/api/v1/users/{id}", ann)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Ann Moss\",\"email\":\"ann.moss@example.com\"}"))
+               .andExpect(status().isOk());
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/v1/users/changes").param("since", "0"))
+                                   .andExpect(request().asyncStarted())
+                                   .andReturn();
+
+        // Assert: the primary holds no users, so the bodies can only come from the shards
+        assertEquals(0, primaryUsers.count());
+        mockMvc.perform(asyncDispatch(started))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.changes.length()").value(3))
+               .andExpect(jsonPath("$.changes[0].type").value("CREATED"))
+               .andExpect(jsonPath("$.changes[0].userId").value(ann))
+               .andExpect(jsonPath("$.changes[0].user.name").value("Ann Moss"))
+               .andExpect(jsonPath("$.changes[1].userId").value(bob))
+               .andExpect(jsonPath("$.changes[1].user.name").value("Bob Ray"))
+               .andExpect(jsonPath("$.changes[1].user.email").value("bob.ray@example.com"))
+               .andExpect(jsonPath("$.changes[2].type").value("UPDATED"))
+               .andExpect(jsonPath("$.changes[2].user.email").value("ann.moss@example.com"));
+    }
+
+    private long create(String name, String email) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/users")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content("{\"name\":\"" + name + "\",\"email\":\"" + email + "\"}"))
+                                   .andExpect(status().isCreated())
+                                   .andReturn();
+        JsonNode body = objectMapper.readTree(created.getResponse().getContentAsString());
+        return body.get("id").asLong();
+    }
+}
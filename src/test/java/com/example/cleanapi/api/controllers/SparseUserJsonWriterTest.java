@@ -0,0 +1,94 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.UserField;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SparseUserJsonWriter
+ */
+@DisplayName("Sparse User JSON Writer Tests")
+class SparseUserJsonWriterTest {
+
+    // Same defaults Spring Boot applies to the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30, 5);
+
+    private void writeUser(SparseUserJsonWriter writer, long id, String email) throws IOException {
+        writer.startUser();
+        writer.longField(UserField.ID, id);
+        writer.stringField(UserField.NAME, "John Doe");
+        writer.stringField(UserField.EMAIL, email);
+        writer.dateTimeField(UserField.CREATED_AT, createdAt);
+        writer.dateTimeField(UserField.UPDATED_AT, createdAt);
+        writer.longField(UserField.VERSION, 3);
+        writer.endUser();
+    }
+
+    @Test
+    @DisplayName("Should write all fields exactly as the full response DTO")
+    void shouldMatchFullResponseWhenAllFieldsSelected() throws Exception {
+        // Arrange
+        SparseUserJsonWriter writer = new SparseUserJsonWriter(
+            objectMapper.getFactory(), EnumSet.allOf(UserField.class));
+
+        // Act
+        writeUser(writer, 1L, "john@example.com");
+
+        // Assert
+        String expected = objectMapper.writeValueAsString(
+            new UserResponseDto(1L, "John Doe", "john@example.com", createdAt, createdAt, 3L));
+        assertEquals(expected, new String(writer.toObject(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write only the selected fields")
+    void shouldWriteOnlySelectedFields() throws Exception {
+        // Arrange
+        Set<UserField> fields = EnumSet.of(UserField.EMAIL);
+        SparseUserJsonWriter writer = new SparseUserJsonWriter(objectMapper.getFactory(), fields);
+
+        // Act
+        writeUser(writer, 1L, "john@example.com");
+        writeUser(writer, 2L, "jane@example.com");
+
+        // Assert
+        assertEquals("[{\"email\":\"john@example.com\"},{\"email\":\"jane@example.com\"}]",
+                     new String(writer.toArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should lay out lookup results in request order with not-found markers")
+    void shouldWriteLookupResultInRequestOrder() throws Exception {
+        // Arrange
+        SparseUserJsonWriter writer = new SparseUserJsonWriter(objectMapper.getFactory(), EnumSet.of(UserField.EMAIL));
+        writeUser(writer, 1L, "john@example.com");
+        writeUser(writer, 2L, "jane@example.com");
+
+        // Act
+        byte[] json = writer.toLookupResult(Arrays.asList(2L, 9L, 1L));
+
+        // Assert
+        assertEquals("{\"found\":2,\"notFound\":1,\"results\":[" +
+                     "{\"id\":2,\"status\":\"FOUND\",\"user\":{\"email\":\"jane@example.com\"}}," +
+                     "{\"id\":9,\"status\":\"NOT_FOUND\"}," +
+                     "{\"id\":1,\"status\":\"FOUND\",\"user\":{\"email\":\"john@example.com\"}}]}",
+                     new String(json, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.usecases.GroupCommitUserUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MockMvc tests for UserController over a mocked use case
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Controller Tests")
+class UserControllerTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+    @Mock
+    private UserUseCase userUseCase;
+
+    @Mock
+    private ChangeFeedLongPoll changeFeedLongPoll;
+
+    @Mock
+    private UserEventBroadcaster userEventBroadcaster;
+
+    @Mock
+    private ObjectProvider<GroupCommitUserUseCase> ingestion;
+
+    private UserController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        controller = new UserController(userUseCase, new ObjectMapper(), changeFeedLongPoll,
+                                        userEventBroadcaster, Duration.ofMinutes(30), ingestion);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                                 .setControllerAdvice(new GlobalExceptionHandler())
+                                 .build();
+    }
+
+    @Test
+    @DisplayName("Should export users as NDJSON, one line per user in the order the use case emits them")
+    void shouldExportUsersAsNdjson() throws Exception {
+        // Arrange
+        when(userUseCase.exportUsers(any())).thenAnswer(invocation -> {
+            UserRowConsumer consumer = invocation.getArgument(0);
+            consumer.accept(3L, "Carol", "carol@example.com", CREATED_AT, null);
+            consumer.accept(1L, "Alice", "alice@example.com", CREATED_AT, CREATED_AT.plusDays(1));
+            consumer.accept(2L, "Bob", "bob@example.com", CREATED_AT, null);
+            return 3L;
+        });
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/v1/users/export"))
+                                   .andExpect(request().asyncStarted())
+                                   .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+               .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+               .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+               .andExpect(content().string(
+                   "{\"id\":3,\"name\":\"Carol\",\"email\":\"carol@example.com\","
+                       + "\"created_at\":\"2024-01-15T10:30:00\",\"updated_at\":null}\n"
+                   + "{\"id\":1,\"name\":\"Alice\",\"email\":\"alice@example.com\","
+                       + "\"created_at\":\"2024-01-15T10:30:00\",\"updated_at\":\"2024-01-16T10:30:00\"}\n"
+                   + "{\"id\":2,\"name\":\"Bob\",\"email\":\"bob@example.com\","
+                       + "\"created_at\":\"2024-01-15T10:30:00\",\"updated_at\":null}\n"));
+    }
+
+    @Test
+    @DisplayName("Should write exported rows to the response while the export is still running")
+    void shouldStreamExportWithoutMaterializingIt() throws Exception {
+        // Arrange: far more rows than the generator buffers, and a peek at the
+        // response stream before the use case returns
+        int rows = 2_000;
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        AtomicInteger bytesBeforeExportReturned = new AtomicInteger();
+        when(userUseCase.exportUsers(any())).thenAnswer(invocation -> {
+            UserRowConsumer consumer = invocation.getArgument(0);
+            for (long id = 1; id <= rows; id++) {
+                consumer.accept(id, "User " + id, "user" + id + "@example.com", CREATED_AT, null);
+            }
+            bytesBeforeExportReturned.set(response.size());
+            return (long) rows;
+        });
+        StreamingResponseBody body = controller.exportUsers(null).getBody();
+
+        // Act
+        body.writeTo(response);
+
+        // Assert
+        String[] lines = response.toString().split("\n");
+        assertEquals(rows, lines.length);
+        assertTrue(lines[rows - 1].startsWith("{\"id\":" + rows + ","));
+        // Only the generator's last partial buffer may still be held back when the use case returns
+        assertTrue(bytesBeforeExportReturned.get() > response.size() - 16 * 1024,
+                   "Rows should reach the response as they are produced, got "
+                       + bytesBeforeExportReturned.get() + " of " + response.size() + " bytes");
+    }
+
+    @Test
+    @DisplayName("Should send X-Total-Count with the first page only")
+    void shouldSendTotalCountWithFirstPageOnly() throws Exception {
+        // Arrange
+        when(userUseCase.getUsersPage(null, 50)).thenReturn(new UserPageDto(List.of(), "next", 120L));
+        when(userUseCase.getUsersPage("next", 50)).thenReturn(new UserPageDto(List.of(), null, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/users"))
+               .andExpect(status().isOk())
+               .andExpect(header().string(UserController.TOTAL_COUNT_HEADER, "120"));
+        mockMvc.perform(get("/api/v1/users").param("after", "next"))
+               .andExpect(status().isOk())
+               .andExpect(header().doesNotExist(UserController.TOTAL_COUNT_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should fail If-Match: * with 412 when the user does not exist")
+    void shouldFailWildcardIfMatchForMissingUser() throws Exception {
+        // Arrange
+        when(userUseCase.updateUser(eq(42L), any(UpdateUserDto.class), isNull()))
+            .thenThrow(new UserNotFoundException(42L));
+        doThrow(new UserNotFoundException(42L)).when(userUseCase).deleteUser(42L, null);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/users/42")
+                            .header(HttpHeaders.IF_MATCH, "*")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Jane Doe\",\"email\":\"jane.doe@example.com\"}"))
+               .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/v1/users/42").header(HttpHeaders.IF_MATCH, "*"))
+               .andExpect(status().isPreconditionFailed());
+        // Without a precondition a missing user is still a plain 404
+        mockMvc.perform(delete("/api/v1/users/42"))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should write unconditionally when If-Match: * meets an existing user")
+    void shouldMatchWildcardIfMatchForExistingUser() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/v1/users/42").header(HttpHeaders.IF_MATCH, "*"))
+               .andExpect(status().isNoContent());
+        verify(userUseCase).deleteUser(42L, null);
+    }
+
+    @Test
+    @DisplayName("Should leave create validation to the use case and answer its failure with 422")
+    void shouldValidateCreateInUseCase() throws Exception {
+        // Arrange: the body breaks the DTO's constraints, which are documentation only
+        when(userUseCase.createUser(any(CreateUserDto.class)))
+            .thenThrow(new ValidationFailedException(List.of("Name is required", "Email format is invalid")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"\",\"email\":\"not-an-email\"}"))
+               .andExpect(status().isUnprocessableEntity())
+               .andExpect(jsonPath("$.validationErrors.name").value("Name is required"))
+               .andExpect(jsonPath("$.validationErrors.email").value("Email format is invalid"));
+        verify(userUseCase).createUser(any(CreateUserDto.class));
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.cleanapi.api.controllers;
+
+import com.example.cleanapi.borders.dtos.UserEventDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserEventBroadcaster
+ */
+@DisplayName("User Event Broadcaster Tests")
+class UserEventBroadcasterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private UserEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.destroy();
+        }
+    }
+
+    private UserEventBroadcaster broadcaster(TaskExecutor senders, int bufferSize, String policy) {
+        broadcaster = new UserEventBroadcaster(objectMapper, senders, bufferSize, policy, Duration.ZERO, 3);
+        return broadcaster;
+    }
+
+    private static UserEventDto created(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30);
+        return UserEventDto.created(new UserResponseDto(id, "User " + id, "user" + id + "@example.com", now, now));
+    }
+
+    @Test
+    @DisplayName("Should send every event to every subscriber")
+    void shouldFanOutToEverySubscriber() throws Exception {
+        // Arrange
+        broadcaster(new SyncTaskExecutor(), 16, "drop");
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        assertTrue(broadcaster.subscribe(first, null));
+        assertTrue(broadcaster.subscribe(second, null));
+
+        // Act
+        broadcaster.publish(created(1));
+        broadcaster.publish(UserEventDto.deleted(1L));
+
+        // Assert
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            String createdEvent = emitter.next();
+            assertTrue(createdEvent.contains("event:created"));
+            assertTrue(createdEvent.contains("\"userId\":1"));
+            assertTrue(createdEvent.contains("\"email\":\"user1@example.com\""));
+            String deletedEvent = emitter.next();
+            assertTrue(deletedEvent.contains("event:deleted"));
+            assertFalse(deletedEvent.contains("\"user\""));
+        }
+        assertTrue(broadcaster.subscribe(new RecordingEmitter(), null));
+        assertFalse(broadcaster.subscribe(new RecordingEmitter(), null), "Subscriber limit is 3");
+    }
+
+    @Test
+    @DisplayName("Should replay events after Last-Event-ID and reset unknown positions")
+    void shouldResumeFromLastEventId() throws Exception {
+        // Arrange
+        broadcaster(new SyncTaskExecutor(), 16, "drop");
+        RecordingEmitter live = new RecordingEmitter();
+        broadcaster.subscribe(live, null);
+        broadcaster.publish(created(1));
+        broadcaster.publish(created(2));
+        broadcaster.publish(created(3));
+        String firstId = idOf(live.next());
+        live.next();
+        live.next();
+
+        // Act
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.subscribe(resumed, firstId);
+        RecordingEmitter stale = new RecordingEmitter();
+        broadcaster.subscribe(stale, "42");
+
+        // Assert
+        assertTrue(resumed.next().contains("\"userId\":2"));
+        assertTrue(resumed.next().contains("\"userId\":3"));
+        String reset = stale.next();
+        assertTrue(reset.contains("event:" + UserEventBroadcaster.RESET_EVENT));
+    }
+
+    @Test
+    @DisplayName("Should drop events for a full buffer and report how many")
+    void shouldDropEventsForSlowSubscriber() throws Exception {
+        // Arrange
+        HeldExecutor senders = new HeldExecutor();
+        broadcaster(senders, 2, "drop");
+        RecordingEmitter slow = new RecordingEmitter();
+        broadcaster.subscribe(slow, null);
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            broadcaster.publish(created(id));
+        }
+        awaitDropped(3);
+        senders.release();
+        broadcaster.publish(created(6));
+
+        // Assert
+        assertTrue(slow.next().contains("\"userId\":1"));
+        assertTrue(slow.next().contains("\"userId\":2"));
+        String notice = slow.next();
+        assertTrue(notice.contains("event:" + UserEventBroadcaster.DROPPED_EVENT));
+        assertTrue(notice.contains("\"count\":3"));
+        assertTrue(slow.next().contains("\"userId\":6"));
+        assertEquals(3, broadcaster.getDropped());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a subscriber whose buffer is full")
+    void shouldDisconnectSlowSubscriber() throws Exception {
+        // Arrange
+        HeldExecutor senders = new HeldExecutor();
+        broadcaster(senders, 2, "disconnect");
+        RecordingEmitter slow = new RecordingEmitter();
+        broadcaster.subscribe(slow, null);
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.publish(created(id));
+        }
+
+        // Assert
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertEquals(0, broadcaster.getDropped());
+    }
+
+    @Test
+    @DisplayName("Should keep serving other subscribers while one client's send blocks")
+    void shouldServeOthersWhileOneSendBlocks() throws Exception {
+        // Arrange: the broadcaster's own sender pool, as wired in the application
+        broadcaster = new UserEventBroadcaster(objectMapper, 2, 16, "drop", Duration.ZERO, 3);
+        BlockingEmitter stuck = new BlockingEmitter();
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        broadcaster.subscribe(stuck, null);
+        broadcaster.subscribe(first, null);
+        broadcaster.subscribe(second, null);
+
+        // Act
+        broadcaster.publish(created(1));
+        broadcaster.publish(created(2));
+
+        // Assert
+        assertTrue(stuck.blocked.await(5, TimeUnit.SECONDS));
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertTrue(emitter.next().contains("\"userId\":1"));
+            assertTrue(emitter.next().contains("\"userId\":2"));
+        }
+        stuck.release.countDown();
+    }
+
+    private void awaitDropped(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (broadcaster.getDropped() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, broadcaster.getDropped());
+    }
+
+    private static String idOf(String event) {
+        return event.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring(3))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Emitter that keeps each sent event as its wire text
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String event;
+            do {
+                event = sent.poll(5, TimeUnit.SECONDS);
+            } while (event != null && event.startsWith("retry:"));
+            assertNotNull(event, "No event sent");
+            return event;
+        }
+    }
+
+    /**
+     * Emitter whose first send blocks until released, like a client that stopped reading
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Executor that holds tasks until released, standing in for a stalled client
+     */
+    private static final class HeldExecutor implements TaskExecutor {
+
+        private final List<Runnable> held = new ArrayList<>();
+        private boolean released;
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            if (released) {
+                task.run();
+                return;
+            }
+            held.add(task);
+        }
+
+        void release() {
+            List<Runnable> tasks;
+            synchronized (this) {
+                released = true;
+                tasks = new ArrayList<>(held);
+                held.clear();
+            }
+            tasks.forEach(Runnable::run);
+        }
+    }
+}
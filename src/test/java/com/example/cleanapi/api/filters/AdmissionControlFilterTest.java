@@ -0,0 +1,218 @@
+package com.example.cleanapi.api.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdmissionControlFilter and its limiters
+ */
+@DisplayName("Admission Control Filter Tests")
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private AdmissionControlFilter filter(int writeLimit, double clientRate, int clientBurst) {
+        return new AdmissionControlFilter(new AdmissionControlFilter.ConcurrencyLimit(10, 1, 10),
+                                          new AdmissionControlFilter.ConcurrencyLimit(writeLimit, 1, writeLimit),
+                                          clientRate, clientBurst, 100, Set.of("key-a", "key-b"), registry);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null) {
+            request.addHeader(AdmissionControlFilter.API_KEY_HEADER, apiKey);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, MockHttpServletRequest request,
+                                                HttpServlet servlet) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, servlet == null ? new MockFilterChain() : new MockFilterChain(servlet));
+        return response;
+    }
+
+    private double rejected(String requestClass, String reason) {
+        return registry.get("app.admission.rejected").tag("class", requestClass).tag("reason", reason)
+                       .counter().count();
+    }
+
+    @Test
+    @DisplayName("Should answer 429 once a client's bucket is empty, without affecting other clients")
+    void shouldThrottleClientOverItsRate() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(10, 0.001, 2);
+
+        // Act
+        int first = send(filter, request("GET", "/api/v1/users", "key-a"), null).getStatus();
+        int second = send(filter, request("GET", "/api/v1/users", "key-a"), null).getStatus();
+        MockHttpServletResponse third = send(filter, request("GET", "/api/v1/users", "key-a"), null);
+        int otherClient = send(filter, request("GET", "/api/v1/users", "key-b"), null).getStatus();
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third.getStatus());
+        assertNotNull(third.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(third.getContentAsString().contains("\"status\":429"));
+        assertEquals(200, otherClient);
+        assertEquals(1.0, rejected("read", "rate"));
+    }
+
+    @Test
+    @DisplayName("Should key requests with an unknown API key by address, so rotating keys buys no tokens")
+    void shouldIgnoreUnknownApiKeys() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(10, 0.001, 2);
+
+        // Act: made-up keys from one address
+        int first = send(filter, request("GET", "/api/v1/users", "made-up-1"), null).getStatus();
+        int second = send(filter, request("GET", "/api/v1/users", "made-up-2"), null).getStatus();
+        int third = send(filter, request("GET", "/api/v1/users", "made-up-3"), null).getStatus();
+        int knownKey = send(filter, request("GET", "/api/v1/users", "key-a"), null).getStatus();
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third);
+        assertEquals(200, knownKey);
+    }
+
+    @Test
+    @DisplayName("Should track no more than maxClients buckets and throttle further clients together")
+    void shouldCapTrackedClients() {
+        // Arrange: two slots, and buckets that never go idle within the test
+        ClientRateLimiter limiter = new ClientRateLimiter(0.001, 2, 2);
+
+        // Act
+        limiter.tryAcquire("ip:10.0.0.1");
+        limiter.tryAcquire("ip:10.0.0.2");
+        long thirdClient = limiter.tryAcquire("ip:10.0.0.3");
+        long fourthClient = limiter.tryAcquire("ip:10.0.0.4");
+        long fifthClient = limiter.tryAcquire("ip:10.0.0.5");
+
+        // Assert: the later clients share one bucket of two tokens
+        assertEquals(2, limiter.getClients());
+        assertEquals(0, thirdClient);
+        assertEquals(0, fourthClient);
+        assertTrue(fifthClient > 0);
+        assertEquals(3, limiter.getOverflowed());
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"), "Tracked clients keep their own bucket");
+    }
+
+    @Test
+    @DisplayName("Should shed writes over their limit while reads still pass")
+    void shouldShedWritesSeparatelyFromReads() throws Exception {
+        // Arrange: the first write holds the only write slot while the others arrive
+        AdmissionControlFilter filter = filter(1, 0, 1);
+        AtomicReference<MockHttpServletResponse> nestedWrite = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> nestedRead = new AtomicReference<>();
+        HttpServlet holdingWrite = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    nestedWrite.set(send(filter, request("POST", "/api/v1/users", null), null));
+                    nestedRead.set(send(filter, request("GET", "/api/v1/users", null), null));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        // Act
+        MockHttpServletResponse write = send(filter, request("POST", "/api/v1/users", null), holdingWrite);
+
+        // Assert
+        assertEquals(200, write.getStatus());
+        assertEquals(503, nestedWrite.get().getStatus());
+        assertEquals("1", nestedWrite.get().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, nestedRead.get().getStatus());
+        assertEquals(1.0, rejected("write", "concurrency"));
+        assertEquals(0.0, registry.get("app.admission.inflight").tag("class", "write").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should count a request whose handler throws as a failure")
+    void shouldBackOffWhenHandlerThrows() {
+        // Arrange
+        AdmissionControlFilter filter = filter(10, 0, 1);
+        HttpServlet failing = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                throw new IllegalStateException("Handler failed");
+            }
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                     () -> send(filter, request("POST", "/api/v1/users", null), failing));
+
+        // Assert
+        assertEquals(9.0, registry.get("app.admission.limit").tag("class", "write").gauge().value(), 0.001);
+        assertEquals(0.0, registry.get("app.admission.inflight").tag("class", "write").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should never shed health checks")
+    void shouldNotShedHealthChecks() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(10, 0.001, 1);
+        send(filter, request("GET", "/api/v1/users", null), null);
+
+        // Act
+        int health = send(filter, request("GET", "/api/v1/health", null), null).getStatus();
+
+        // Assert
+        assertEquals(200, health);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency holds and shrink it when latency climbs")
+    void shouldAdaptLimitToLatency() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 40, 2.0, 0.5);
+        long fast = 1_000_000;
+
+        // Act: steady latency with the limit fully used
+        cycle(limiter, fast, 50);
+        double afterSteady = limiter.getLimit();
+        // Latency jumps tenfold: requests are queueing
+        cycle(limiter, 10 * fast, 20);
+        double afterSlow = limiter.getLimit();
+        // A server error backs off on top
+        assertTrue(limiter.tryAcquire());
+        limiter.release(System.nanoTime(), true);
+
+        // Assert
+        assertEquals(40.0, afterSteady, 0.001);
+        assertTrue(afterSlow < afterSteady, "Limit should shrink, was " + afterSlow);
+        assertEquals(Math.max(2, afterSlow * 0.5), limiter.getLimit(), 0.001);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // Fill every slot, then finish the requests with the given latency, several times over
+    private static void cycle(AdaptiveConcurrencyLimiter limiter, long latency, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(System.nanoTime() - latency, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cleanapi.api.filters;
+
+import com.example.cleanapi.metrics.ServerTiming;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ServerTimingFilter
+ */
+@DisplayName("Server-Timing Filter Tests")
+class ServerTimingFilterTest {
+
+    @Test
+    @DisplayName("Should add the phases recorded while handling a sampled request")
+    void shouldAddRecordedPhasesToSampledRequest() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(1.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse servletResponse) throws IOException {
+                ServerTiming.stop(ServerTiming.Phase.VALIDATE, ServerTiming.start());
+                ServerTiming.stop(ServerTiming.Phase.DB, ServerTiming.start());
+                servletResponse.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"), response, chain);
+
+        // Assert
+        String header = response.getHeader(ServerTiming.HEADER);
+        assertNotNull(header);
+        assertTrue(header.matches("validate;dur=\\d+\\.\\d{3}, db;dur=\\d+\\.\\d{3};desc=\"1 statement\", "
+                                  + "app;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+        assertFalse(ServerTiming.isRecording());
+    }
+
+    @Test
+    @DisplayName("Should pass requests outside the sample straight through")
+    void shouldPassUnsampledRequestsThrough() throws Exception {
+        // Arrange
+        ServerTimingFilter filter = new ServerTimingFilter(0.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> seenResponse = new AtomicReference<>();
+        AtomicReference<Boolean> recording = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse servletResponse) {
+                seenResponse.set(servletResponse);
+                recording.set(ServerTiming.isRecording());
+                assertEquals(0L, ServerTiming.start());
+            }
+        });
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"), response, chain);
+
+        // Assert
+        assertSame(response, seenResponse.get());
+        assertFalse(recording.get());
+        assertNull(response.getHeader(ServerTiming.HEADER));
+    }
+
+    @Test
+    @DisplayName("Should only time callers presenting the token when one is set")
+    void shouldOnlyTimeCallersWithToken() throws Exception {
+        // Arrange: a full sample rate, which the token overrides
+        ServerTimingFilter filter = new ServerTimingFilter(1.0, "s3cret");
+        MockHttpServletRequest trusted = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        trusted.addHeader(ServerTimingFilter.TOKEN_HEADER, "s3cret");
+        MockHttpServletRequest wrongToken = new MockHttpServletRequest("GET", "/api/v1/users/1");
+        wrongToken.addHeader(ServerTimingFilter.TOKEN_HEADER, "guess");
+        MockHttpServletResponse trustedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse wrongTokenResponse = new MockHttpServletResponse();
+        MockHttpServletResponse anonymousResponse = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(trusted, trustedResponse, new MockFilterChain());
+        filter.doFilter(wrongToken, wrongTokenResponse, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users/1"), anonymousResponse, new MockFilterChain());
+
+        // Assert
+        assertNotNull(trustedResponse.getHeader(ServerTiming.HEADER));
+        assertNull(wrongTokenResponse.getHeader(ServerTiming.HEADER));
+        assertNull(anonymousResponse.getHeader(ServerTiming.HEADER));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.cleanapi.borders.validators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DisposableDomainSet
+ */
+@DisplayName("Disposable Domain Set Tests")
+class DisposableDomainSetTest {
+
+    @Test
+    @DisplayName("Should match a region of a larger string case-insensitively")
+    void shouldMatchRegionCaseInsensitively() {
+        // Arrange
+        DisposableDomainSet domains = DisposableDomainSet.of("tempmail.org");
+        String email = "john@TempMail.ORG";
+
+        // Act & Assert
+        assertTrue(domains.contains(email, 5, email.length()));
+        assertFalse(domains.contains(email, 4, email.length()));
+        assertFalse(domains.contains("tempmail.org.br"));
+    }
+
+    @Test
+    @DisplayName("Should read one domain per line, skipping comments and blanks")
+    void shouldReadDomainList() throws IOException {
+        // Arrange
+        String list = "# comment\n\n  yopmail.com  \nmailinator.com\nyopmail.com\n";
+
+        // Act
+        DisposableDomainSet domains = DisposableDomainSet.read(
+            new ByteArrayInputStream(list.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, domains.size());
+        assertTrue(domains.contains("yopmail.com"));
+        assertTrue(domains.contains("mailinator.com"));
+        assertFalse(domains.contains("# comment"));
+    }
+
+    @Test
+    @DisplayName("Should hold 100k domains compactly without false negatives")
+    void shouldHoldLargeListCompactly() throws IOException {
+        // Arrange
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            list.append("disposable").append(i).append(".example\n");
+        }
+
+        // Act
+        DisposableDomainSet domains = DisposableDomainSet.read(
+            new ByteArrayInputStream(list.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(100_000, domains.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(domains.contains("disposable" + i + ".example"));
+        }
+        assertFalse(domains.contains("gmail.com"));
+        assertTrue(domains.getMemoryBytes() <= 4L * 1024 * 1024);
+    }
+}
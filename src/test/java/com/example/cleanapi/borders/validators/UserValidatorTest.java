@@ -1,10 +1,15 @@
 package com.example.cleanapi.borders.validators;
 
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -159,4 +164,123 @@ class UserValidatorTest {
         assertFalse(result.isValid());
         assertTrue(result.getErrors().contains("Email must not exceed 254 characters"));
     }
+
+    @Test
+    @DisplayName("Should validate only the fields present in a patch")
+    void shouldValidateOnlyPresentPatchFields() {
+        // Arrange
+        PatchUserDto dto = PatchUserDto.ofName("Jane Doe");
+
+        // Act
+        UserValidator.ValidationResult result = userValidator.validatePatchUser(dto);
+
+        // Assert
+        assertTrue(result.isValid());
+        assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fail patch validation when a required field is removed")
+    void shouldFailPatchValidationWhenFieldIsRemoved() {
+        // Arrange
+        PatchUserDto dto = PatchUserDto.ofEmail(null);
+        dto.setName("J");
+
+        // Act
+        UserValidator.ValidationResult result = userValidator.validatePatchUser(dto);
+
+        // Assert
+        assertFalse(result.isValid());
+        assertTrue(result.getErrors().contains("Email cannot be removed"));
+        assertTrue(result.getErrors().contains("Name must be at least 2 characters long"));
+    }
+
+    @Test
+    @DisplayName("Should return the shared result when validation passes")
+    void shouldReturnSharedResultWhenValid() {
+        // Act
+        UserValidator.ValidationResult first = 
+            userValidator.validateCreateUser(new CreateUserDto("John Doe", "john.doe@example.com"));
+        UserValidator.ValidationResult second = 
+            userValidator.validateUpdateUser(new UpdateUserDto("Jane Doe", "jane.doe@example.com"));
+
+        // Assert
+        assertSame(UserValidator.ValidationResult.valid(), first);
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should reject subdomains of disposable domains regardless of case")
+    void shouldRejectDisposableSubdomains() {
+        // Arrange
+        CreateUserDto dto = new CreateUserDto("John Doe", "  John@Mail.YopMail.com ");
+
+        // Act
+        UserValidator.ValidationResult result = userValidator.validateCreateUser(dto);
+
+        // Assert
+        assertFalse(result.isValid());
+        assertEquals(List.of("Disposable email addresses are not allowed"), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Should use the current disposable-domain list on every call")
+    void shouldUseCurrentDisposableDomainList() {
+        // Arrange
+        AtomicReference<DisposableDomainSet> domains = new AtomicReference<>(DisposableDomainSet.empty());
+        UserValidator validator = new UserValidator(domains::get);
+        CreateUserDto dto = new CreateUserDto("John Doe", "john@example.com");
+        assertTrue(validator.validateCreateUser(dto).isValid());
+
+        // Act
+        domains.set(DisposableDomainSet.of("example.com"));
+
+        // Assert
+        assertFalse(validator.validateCreateUser(dto).isValid());
+    }
+
+    @Test
+    @DisplayName("Should match the email format rules of the original pattern")
+    void shouldMatchOriginalEmailFormatRules() {
+        // Valid
+        for (String email : List.of("a.b+c%d_e-f@sub.example.co", "x@a.bc", "JOHN@EXAMPLE.COM")) {
+            assertEquals(email.indexOf('@') + 1, UserValidator.emailDomainStart(email, 0, email.length()), email);
+        }
+
+        // Invalid
+        for (String email : List.of("@example.com", "john@", "john@example", "john@.com",
+                                    "john@example.c", "john@example.c0m", "jo hn@example.com",
+                                    "john@@example.com", "john@exa_mple.com")) {
+            assertEquals(-1, UserValidator.emailDomainStart(email, 0, email.length()), email);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at the first failed rule in fail-fast mode")
+    void shouldStopAtFirstErrorInFailFastMode() {
+        // Arrange
+        CreateUserDto dto = new CreateUserDto("J1", "john@tempmail.org");
+
+        // Act
+        UserValidator.ValidationResult result = userValidator.validateCreateUser(dto, ValidationMode.FAIL_FAST);
+
+        // Assert
+        assertFalse(result.isValid());
+        assertEquals(List.of("Name must contain only letters and spaces"), result.getErrors());
+    }
+
+    @Test
+    @DisplayName("Should report every failed rule in collect-all mode")
+    void shouldReportAllErrorsInCollectAllMode() {
+        // Arrange
+        CreateUserDto dto = new CreateUserDto("J1", "john@tempmail.org");
+
+        // Act
+        UserValidator.ValidationResult result = userValidator.validateCreateUser(dto, ValidationMode.COLLECT_ALL);
+
+        // Assert
+        assertFalse(result.isValid());
+        assertEquals(List.of("Name must contain only letters and spaces",
+                             "Disposable email addresses are not allowed"), result.getErrors());
+    }
 }
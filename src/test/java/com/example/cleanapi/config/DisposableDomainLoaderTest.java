@@ -0,0 +1,68 @@
+package com.example.cleanapi.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DisposableDomainLoader
+ */
+@DisplayName("Disposable Domain Loader Tests")
+class DisposableDomainLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should swap in the new list when the file changes")
+    void shouldReloadWhenFileChanges() throws IOException {
+        // Arrange
+        Path list = tempDir.resolve("domains.txt");
+        Files.writeString(list, "yopmail.com\n");
+        Files.setLastModifiedTime(list, FileTime.fromMillis(1_000_000L));
+
+        try (DisposableDomainLoader loader = new DisposableDomainLoader(new FileSystemResource(list), Duration.ZERO)) {
+            assertTrue(loader.get().contains("yopmail.com"));
+            assertFalse(loader.reloadIfChanged());
+
+            // Act
+            Files.writeString(list, "mailinator.com\n");
+            Files.setLastModifiedTime(list, FileTime.fromMillis(2_000_000L));
+            boolean reloaded = loader.reloadIfChanged();
+
+            // Assert
+            assertTrue(reloaded);
+            assertTrue(loader.get().contains("mailinator.com"));
+            assertFalse(loader.get().contains("yopmail.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the previous list when the file cannot be read")
+    void shouldKeepPreviousListOnFailure() throws IOException {
+        // Arrange
+        Path list = tempDir.resolve("domains.txt");
+        Files.writeString(list, "yopmail.com\n");
+
+        try (DisposableDomainLoader loader = new DisposableDomainLoader(new FileSystemResource(list), Duration.ZERO)) {
+            // Act
+            Files.delete(list);
+            Files.createDirectory(list);
+            Files.setLastModifiedTime(list, FileTime.fromMillis(3_000_000L));
+            boolean reloaded = loader.reloadIfChanged();
+
+            // Assert
+            assertFalse(reloaded);
+            assertTrue(loader.get().contains("yopmail.com"));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.cleanapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HikariPools
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hikari Pools Tests")
+class HikariPoolsTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> registry;
+
+    @Test
+    @DisplayName("Should apply spring.datasource.hikari settings but keep each pool's own URL and name")
+    void shouldBindSharedHikariSettings() throws Exception {
+        // Arrange
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:hikari_primary");
+        properties.setUsername("sa");
+        properties.afterPropertiesSet();
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+            .withProperty("spring.datasource.hikari.connection-timeout", "1500")
+            .withProperty("spring.datasource.hikari.pool-name", "shared")
+            .withProperty("spring.datasource.hikari.jdbc-url", "jdbc:h2:mem:hikari_shared");
+
+        // Act
+        try (HikariDataSource pool = HikariPools.create(properties, environment, "jdbc:h2:mem:hikari_shard",
+                                                        "shard-0", registry)) {
+
+            // Assert
+            assertEquals(7, pool.getMaximumPoolSize());
+            assertEquals(1500, pool.getConnectionTimeout());
+            assertEquals("jdbc:h2:mem:hikari_shard", pool.getJdbcUrl());
+            assertEquals("shard-0", pool.getPoolName());
+            assertEquals("sa", pool.getUsername());
+        }
+    }
+}
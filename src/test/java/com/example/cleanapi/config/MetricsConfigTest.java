@@ -0,0 +1,144 @@
+package com.example.cleanapi.config;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.repositories.BloomFilterUserRepository;
+import com.example.cleanapi.repositories.CachingUserRepository;
+import com.example.cleanapi.usecases.SingleFlightUserUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the meter binders in MetricsConfig
+ * Each binder reads the decorator's own counters, so the meters follow them without extra bookkeeping
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Metrics Config Tests")
+class MetricsConfigTest {
+
+    private final MetricsConfig config = new MetricsConfig();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ObjectProvider<CachingUserRepository> userCache;
+
+    @Mock
+    private UserExportRepository emailSource;
+
+    @Mock
+    private ObjectProvider<BloomFilterUserRepository> emailFilter;
+
+    @Mock
+    private UserUseCase userUseCase;
+
+    @Mock
+    private ObjectProvider<SingleFlightUserUseCase> singleFlight;
+
+    @Test
+    @DisplayName("Should expose the user cache hits, misses, evictions and size")
+    void shouldBindUserCacheMeters() {
+        // Arrange: a one-entry cache, read twice and then pushed over its size
+        CachingUserRepository cache = new CachingUserRepository(userRepository, 1, 60_000);
+        when(userCache.getIfAvailable()).thenReturn(cache);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user(2L)));
+
+        // Act
+        config.userCacheMeters(userCache).bindTo(registry);
+        cache.findById(1L);
+        cache.findById(1L);
+        cache.findById(2L);
+
+        // Assert
+        assertEquals(1.0, registry.get("app.users.cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("app.users.cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.cache.evictions").functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should register no cache meters when the cache is off")
+    void shouldSkipUserCacheMetersWhenDisabled() {
+        // Act
+        config.userCacheMeters(userCache).bindTo(registry);
+
+        // Assert
+        assertNull(registry.find("app.users.cache.gets").meter());
+    }
+
+    @Test
+    @DisplayName("Should expose the email filter lookups, false positives and rebuilds")
+    @SuppressWarnings("unchecked")
+    void shouldBindEmailFilterMeters() {
+        // Arrange: a filter that knows one email
+        when(emailSource.streamEmails(any())).thenAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            consumer.accept("john.doe@example.com");
+            return 1L;
+        });
+        BloomFilterUserRepository filter = new BloomFilterUserRepository(userRepository, emailSource, 1_000, 0.001);
+        filter.rebuild();
+        when(emailFilter.getIfAvailable()).thenReturn(filter);
+
+        // Act: one email ruled out, one let through that the database does not know
+        config.emailFilterMeters(emailFilter).bindTo(registry);
+        filter.existsByEmail("new.user@example.com");
+        filter.existsByEmail("john.doe@example.com");
+
+        // Assert
+        assertEquals(1.0, registry.get("app.users.email.filter.lookups").tag("result", "absent")
+                                  .functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.email.filter.lookups").tag("result", "possibly_present")
+                                  .functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.email.filter.false.positives").functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.email.filter.rebuilds").functionCounter().count());
+        assertEquals(1.0, registry.get("app.users.email.filter.insertions").gauge().value());
+        assertEquals(0.0, registry.get("app.users.email.filter.stale").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should expose the single-flight loads, joins and timeouts")
+    void shouldBindSingleFlightMeters() {
+        // Arrange
+        SingleFlightUserUseCase coalescer = new SingleFlightUserUseCase(userUseCase, 1_000);
+        when(singleFlight.getIfAvailable()).thenReturn(coalescer);
+        when(userUseCase.getUserById(1L)).thenReturn(new UserResponseDto());
+
+        // Act
+        config.singleFlightMeters(singleFlight).bindTo(registry);
+        coalescer.getUserById(1L);
+        coalescer.getUserById(1L);
+
+        // Assert: sequential reads never overlap, so each runs its own lookup
+        assertEquals(2.0, registry.get("app.users.single.flight.lookups").tag("result", "loaded")
+                                  .functionCounter().count());
+        assertEquals(0.0, registry.get("app.users.single.flight.lookups").tag("result", "joined")
+                                  .functionCounter().count());
+        assertEquals(0.0, registry.get("app.users.single.flight.timeouts").functionCounter().count());
+        assertEquals(0.0, registry.get("app.users.single.flight.active").gauge().value());
+    }
+
+    private static User user(long id) {
+        return new User(id, "User " + id, "user" + id + "@example.com", LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cleanapi.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InstrumentedDataSource and StatementCounter
+ */
+@DisplayName("Statement Counting DataSource Tests")
+class InstrumentedDataSourceTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.stop();
+    }
+
+    @Test
+    @DisplayName("Should count statements run between start and stop")
+    void shouldCountStatementsBetweenStartAndStop() {
+        // Arrange
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS counted (id INT)");
+
+        // Act
+        StatementCounter.start();
+        jdbcTemplate.update("INSERT INTO counted VALUES (?)", 1);
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM counted", Long.class);
+        jdbcTemplate.execute("DELETE FROM counted");
+        int statements = StatementCounter.stop();
+
+        // Assert
+        assertEquals(3, statements);
+    }
+
+    @Test
+    @DisplayName("Should ignore statements run while no count is running")
+    void shouldIgnoreStatementsOutsideCount() {
+        // Act
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        StatementCounter.start();
+        int statements = StatementCounter.stop();
+
+        // Assert
+        assertEquals(0, statements);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cleanapi.metrics;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MeteredUserQueryRepository
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Metered User Query Repository Tests")
+class MeteredUserQueryRepositoryTest {
+
+    @Mock
+    private UserQueryRepository delegate;
+
+    private SimpleMeterRegistry registry;
+    private MeteredUserQueryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = new MeteredUserQueryRepository(delegate, registry);
+    }
+
+    @Test
+    @DisplayName("Should time reads by operation name")
+    void shouldTimeReads() {
+        // Arrange
+        UserResponseDto user = new UserResponseDto(1L, "John Doe", "john@example.com",
+                                                   LocalDateTime.now(), LocalDateTime.now(), 0L);
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<UserResponseDto> found = repository.findById(1L);
+
+        // Assert
+        assertSame(user, found.orElseThrow());
+        assertEquals(1, registry.get(MeteredUserQueryRepository.TIMER)
+                                .tags("operation", "findById", "outcome", "success")
+                                .timer().count());
+        assertTrue(registry.find(MeteredUserQueryRepository.ERRORS).counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count failed reads by exception type and rethrow them")
+    void shouldCountFailedReads() {
+        // Arrange
+        when(delegate.findPage(null, null, 20)).thenThrow(new QueryTimeoutException("Statement timed out"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> repository.findPage(null, null, 20));
+        assertEquals(1, registry.get(MeteredUserQueryRepository.TIMER)
+                                .tags("operation", "findPage", "outcome", "error")
+                                .timer().count());
+        assertEquals(1.0, registry.get(MeteredUserQueryRepository.ERRORS)
+                                  .tags("operation", "findPage", "exception", "QueryTimeoutException")
+                                  .counter().count());
+    }
+}
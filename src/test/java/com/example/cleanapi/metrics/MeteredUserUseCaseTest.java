@@ -0,0 +1,85 @@
+package com.example.cleanapi.metrics;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MeteredUserUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Metered User Use Case Tests")
+class MeteredUserUseCaseTest {
+
+    @Mock
+    private UserUseCase delegate;
+
+    private SimpleMeterRegistry registry;
+    private MeteredUserUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        useCase = new MeteredUserUseCase(delegate, registry);
+    }
+
+    @Test
+    @DisplayName("Should time successful operations by operation name")
+    void shouldTimeSuccessfulOperations() {
+        // Arrange
+        UserResponseDto user = new UserResponseDto(1L, "John Doe", "john@example.com",
+                                                   LocalDateTime.now(), LocalDateTime.now(), 0L);
+        when(delegate.getUserById(1L)).thenReturn(user);
+
+        // Act
+        useCase.getUserById(1L);
+        UserResponseDto result = useCase.getUserById(1L);
+
+        // Assert
+        assertSame(user, result);
+        assertEquals(2, registry.get(MeteredUserUseCase.TIMER)
+                                .tags("operation", "getUserById", "outcome", "success")
+                                .timer().count());
+        assertEquals(0, registry.get(MeteredUserUseCase.TIMER)
+                                .tags("operation", "getUserById", "outcome", "error")
+                                .timer().count());
+        assertTrue(registry.find(MeteredUserUseCase.ERRORS).counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should count failures by exception type and rethrow them")
+    void shouldCountFailuresByExceptionType() {
+        // Arrange
+        UserNotFoundException notFound = new UserNotFoundException(1L);
+        when(delegate.getUserById(1L)).thenThrow(notFound);
+        doThrow(new IllegalArgumentException("bad id")).when(delegate).deleteUser(0L);
+
+        // Act
+        UserNotFoundException thrown = assertThrows(UserNotFoundException.class, () -> useCase.getUserById(1L));
+        assertThrows(IllegalArgumentException.class, () -> useCase.deleteUser(0L));
+
+        // Assert
+        assertSame(notFound, thrown);
+        assertEquals(1, registry.get(MeteredUserUseCase.ERRORS)
+                                .tags("operation", "getUserById", "exception", "UserNotFoundException")
+                                .counter().count());
+        assertEquals(1, registry.get(MeteredUserUseCase.ERRORS)
+                                .tags("operation", "deleteUser", "exception", "IllegalArgumentException")
+                                .counter().count());
+        assertEquals(1, registry.get(MeteredUserUseCase.TIMER)
+                                .tags("operation", "deleteUser", "outcome", "error")
+                                .timer().count());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BloomFilterUserRepository
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bloom Filter User Repository Tests")
+class BloomFilterUserRepositoryTest {
+
+    @Mock
+    private UserRepository delegate;
+
+    @Mock
+    private UserExportRepository emailSource;
+
+    private BloomFilterUserRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(emailSource.streamEmails(any())).thenAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            consumer.accept("john.doe@example.com");
+            return 1L;
+        });
+        repository = new BloomFilterUserRepository(delegate, emailSource, 1_000, 0.001);
+        repository.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should answer unknown email without touching the database")
+    void shouldAnswerUnknownEmailWithoutDatabase() {
+        // Act
+        boolean exists = repository.existsByEmail("new.user@example.com");
+
+        // Assert
+        assertFalse(exists);
+        assertEquals(1, repository.getDefinitelyAbsent());
+        verify(delegate, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should confirm possible hits against the database")
+    void shouldConfirmPossibleHitsAgainstDatabase() {
+        // Arrange
+        when(delegate.existsByEmail("john.doe@example.com")).thenReturn(true);
+
+        // Act
+        boolean exists = repository.existsByEmail("john.doe@example.com");
+
+        // Assert
+        assertTrue(exists);
+        assertEquals(1, repository.getPossiblyPresent());
+        assertEquals(0, repository.getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Should hint whether an email can be taken without touching the database")
+    void shouldHintEmailPresenceWithoutDatabase() {
+        // Act
+        UserRepository.EmailHint unknown = repository.emailHint("new.user@example.com");
+        UserRepository.EmailHint known = repository.emailHint("john.doe@example.com");
+
+        // Assert
+        assertEquals(UserRepository.EmailHint.ABSENT, unknown);
+        assertEquals(UserRepository.EmailHint.POSSIBLY_PRESENT, known);
+        assertEquals(1, repository.getDefinitelyAbsent());
+        verify(delegate, never()).existsByEmail(any());
+        verify(delegate, never()).findByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should learn emails on save and keep them out of the fast path")
+    void shouldLearnEmailsOnSave() {
+        // Arrange
+        User user = new User(2L, "Jane Doe", "jane.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.save(any(User.class))).thenReturn(user);
+        when(delegate.existsByEmail("jane.doe@example.com")).thenReturn(true);
+
+        // Act
+        repository.save(new User("Jane Doe", "jane.doe@example.com"));
+        boolean exists = repository.existsByEmail("jane.doe@example.com");
+
+        // Assert
+        assertTrue(exists);
+        verify(delegate).existsByEmail("jane.doe@example.com");
+    }
+
+    @Test
+    @DisplayName("Should keep counting entries marked stale while a rebuild scans the table")
+    @SuppressWarnings("unchecked")
+    void shouldKeepStaleMarksMadeDuringRebuild() {
+        // Arrange: one delete before the rebuild and one while it scans
+        when(delegate.deleteById(anyLong())).thenReturn(true);
+        repository.deleteById(1L);
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            consumer.accept("john.doe@example.com");
+            repository.deleteById(2L);
+            return 1L;
+        }).when(emailSource).streamEmails(any());
+
+        // Act
+        repository.rebuild();
+
+        // Assert
+        assertEquals(1, repository.getStaleEntries());
+        assertEquals(2, repository.getRebuilds());
+    }
+
+    @Test
+    @DisplayName("Should only send possible hits to the IN query")
+    void shouldOnlyQueryPossibleHits() {
+        // Arrange
+        when(delegate.findExistingEmails(List.of("john.doe@example.com")))
+            .thenReturn(Set.of("john.doe@example.com"));
+
+        // Act
+        Set<String> existing = repository.findExistingEmails(
+            List.of("john.doe@example.com", "a@example.com", "b@example.com"));
+
+        // Assert
+        assertEquals(Set.of("john.doe@example.com"), existing);
+        assertEquals(2, repository.getDefinitelyAbsent());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.interfaces.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingUserRepository
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Caching User Repository Tests")
+class CachingUserRepositoryTest {
+
+    private static final long TTL_MILLIS = 1_000;
+
+    @Mock
+    private UserRepository delegate;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CachingUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingUserRepository(delegate, 2, TTL_MILLIS, clock::get);
+    }
+
+    private static User user(long id, String email) {
+        return new User(id, "John Doe", email, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups by ID and email from cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // Arrange
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "john.doe@example.com")));
+
+        // Act
+        repository.findById(1L);
+        Optional<User> byId = repository.findById(1L);
+        Optional<User> byEmail = repository.findByEmail("john.doe@example.com");
+        boolean exists = repository.existsByEmail("john.doe@example.com");
+
+        // Assert
+        assertTrue(byId.isPresent());
+        assertEquals("john.doe@example.com", byEmail.orElseThrow().getEmail());
+        assertTrue(exists);
+        assertEquals(3, repository.getHits());
+        assertEquals(1, repository.getMisses());
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, never()).findByEmail(any());
+        verify(delegate, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should not expose the cached instance to callers")
+    void shouldNotExposeCachedInstance() {
+        // Arrange
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "john.doe@example.com")));
+        repository.findById(1L).orElseThrow().setName("Changed Name");
+
+        // Act
+        User cached = repository.findById(1L).orElseThrow();
+
+        // Assert
+        assertEquals("John Doe", cached.getName());
+    }
+
+    @Test
+    @DisplayName("Should invalidate on save and delete")
+    void shouldInvalidateOnSaveAndDelete() {
+        // Arrange
+        User stored = user(1L, "john.doe@example.com");
+        when(delegate.findById(1L)).thenReturn(Optional.of(stored));
+        when(delegate.save(any(User.class))).thenReturn(stored);
+        when(delegate.deleteById(1L)).thenReturn(true);
+
+        // Act
+        repository.findById(1L);
+        repository.save(stored);
+        repository.findById(1L);
+        repository.deleteById(1L);
+        repository.findById(1L);
+
+        // Assert
+        verify(delegate, times(3)).findById(1L);
+        assertEquals(0, repository.getHits());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full and expire after TTL")
+    void shouldEvictBySizeAndTtl() {
+        // Arrange
+        when(delegate.findById(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return Optional.of(user(id, "user" + id + "@example.com"));
+        });
+
+        // Act - size bound of 2
+        repository.findById(1L);
+        repository.findById(2L);
+        repository.findById(1L);
+        repository.findById(3L);
+
+        // Assert - 2 was least recently used
+        assertEquals(2, repository.size());
+        assertEquals(1, repository.getEvictions());
+
+        // Act - TTL
+        clock.addAndGet(TTL_MILLIS * 1_000_000L);
+        repository.findById(1L);
+
+        // Assert
+        verify(delegate, times(2)).findById(1L);
+        assertEquals(2, repository.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Should answer version lookups from a cached user")
+    void shouldAnswerVersionFromCache() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(delegate.findById(1L)).thenReturn(Optional.of(
+            new User(1L, "John Doe", "john.doe@example.com", updatedAt, updatedAt, 3L)));
+        repository.findById(1L);
+
+        // Act
+        Optional<UserVersion> version = repository.findVersionById(1L);
+
+        // Assert
+        assertEquals(new UserVersion(3L, updatedAt), version.orElseThrow());
+        verify(delegate, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should only send cache misses to the bulk query")
+    void shouldOnlyQueryMissesInBulkLookup() {
+        // Arrange
+        when(delegate.findById(1L)).thenReturn(Optional.of(user(1L, "john@example.com")));
+        repository.findById(1L);
+        when(delegate.findAllByIds(List.of(2L, 3L))).thenReturn(List.of(user(2L, "jane@example.com")));
+
+        // Act
+        List<User> found = repository.findAllByIds(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), found.stream().map(User::getId).toList());
+        verify(delegate).findAllByIds(List.of(2L, 3L));
+        // The loaded user is now cached as well
+        assertTrue(repository.findById(2L).isPresent());
+        verify(delegate, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced with a write to the same user")
+    void shouldNotCacheLoadRacingWithWrite() throws Exception {
+        // Arrange: the load is held inside the delegate while a save invalidates the user
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(delegate.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            written.await(5, TimeUnit.SECONDS);
+            return Optional.of(user(1L, "old@example.com"));
+        }).thenReturn(Optional.of(user(1L, "new@example.com")));
+        User changed = user(1L, "new@example.com");
+        when(delegate.save(changed)).thenReturn(changed);
+
+        // Act
+        CompletableFuture<Optional<User>> load = CompletableFuture.supplyAsync(() -> repository.findById(1L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        repository.save(changed);
+        written.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        // Assert: the stale load was handed back but not kept
+        assertEquals("new@example.com", repository.findById(1L).orElseThrow().getEmail());
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should stay within its size while many threads read and load at once")
+    void shouldStayBoundedUnderConcurrentReads() throws Exception {
+        // Arrange
+        CachingUserRepository cache = new CachingUserRepository(delegate, 20, 60_000);
+        when(delegate.findById(anyLong())).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            return Optional.of(user(id, "user" + id + "@example.com"));
+        });
+        int threads = 8;
+        int readsPerThread = 5_000;
+
+        // Act: a small hot set read often, plus a long tail that keeps the cache evicting
+        List<CompletableFuture<Void>> readers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            readers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < readsPerThread; i++) {
+                    long id = i % 2 == 0 ? (i + seed) % 5 : 5 + (i * 31 + seed) % 200;
+                    assertEquals(id, cache.findById(id).orElseThrow().getId());
+                }
+            }));
+        }
+        CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(cache.size() <= 20, "Cache grew to " + cache.size());
+        assertEquals((long) threads * readsPerThread, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHits() > 0);
+    }
+}
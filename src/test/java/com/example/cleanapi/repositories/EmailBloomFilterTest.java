@@ -0,0 +1,66 @@
+package com.example.cleanapi.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailBloomFilter
+ */
+@DisplayName("Email Bloom Filter Tests")
+class EmailBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an inserted email as absent")
+    void shouldHaveNoFalseNegatives() {
+        // Arrange
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        assertEquals(10_000, filter.getInsertions());
+    }
+
+    @Test
+    @DisplayName("Should keep false-positive rate close to the configured target")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        // Arrange
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives / 100_000.0 < 0.02, "false-positive rate was " + falsePositives / 100_000.0);
+        assertEquals(0.01, filter.getExpectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    @DisplayName("Should size memory from expected insertions and target rate")
+    void shouldSizeMemoryFromParameters() {
+        // Act
+        EmailBloomFilter filter = new EmailBloomFilter(1_000_000, 0.01);
+
+        // Assert - about 9.6 bits per email at 1%
+        assertTrue(filter.getMemoryBytes() > 1_150_000 && filter.getMemoryBytes() < 1_250_000);
+        assertEquals(7, filter.getHashCount());
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(100, 1.5));
+    }
+}
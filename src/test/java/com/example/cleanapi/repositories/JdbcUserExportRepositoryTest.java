@@ -0,0 +1,106 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for JdbcUserExportRepository against the embedded database
+ */
+@DataJpaTest(properties = "app.export.fetch-size=10")
+@Import({UserRepositoryImpl.class, UserChangeLog.class, JdbcUserExportRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JDBC User Export Repository Tests")
+class JdbcUserExportRepositoryTest {
+
+    @Autowired
+    private JdbcUserExportRepository exportRepository;
+
+    @Autowired
+    private UserRepositoryImpl repository;
+
+    @Autowired
+    private UserJpaRepository jpaRepository;
+
+    private List<User> saved;
+
+    @BeforeEach
+    void setUp() {
+        jpaRepository.deleteAllInBatch();
+        saved = repository.saveAll(IntStream.range(0, 50)
+                                            .mapToObj(i -> new User("User " + i, "user" + i + "@example.com"))
+                                            .toList());
+    }
+
+    @Test
+    @DisplayName("Should hand every user to the consumer in ID order with all columns")
+    void shouldStreamAllUsersInIdOrder() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+
+        // Act
+        long count = exportRepository.streamAll((id, name, email, createdAt, updatedAt) -> {
+            assertEquals(name.replace("User ", "user") + "@example.com", email);
+            assertNotNull(createdAt);
+            ids.add(id);
+            emails.add(email);
+        });
+
+        // Assert
+        assertEquals(50, count);
+        assertEquals(saved.stream().map(User::getId).sorted().toList(), ids);
+        assertEquals(saved.stream().sorted(Comparator.comparing(User::getId)).map(User::getEmail).toList(),
+                     emails);
+    }
+
+    @Test
+    @DisplayName("Should stop reading as soon as the consumer fails instead of loading the rest of the table")
+    void shouldAbortWhenConsumerFails() {
+        // Arrange
+        List<Long> seen = new ArrayList<>();
+
+        // Act
+        UncheckedIOException thrown = assertThrows(UncheckedIOException.class,
+            () -> exportRepository.streamAll((id, name, email, createdAt, updatedAt) -> {
+                seen.add(id);
+                throw new IOException("Broken pipe");
+            }));
+
+        // Assert: the consumer ran for the first row only
+        assertEquals("Broken pipe", thrown.getCause().getMessage());
+        assertEquals(1, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should stream every email")
+    void shouldStreamEmails() {
+        // Arrange
+        Set<String> emails = new HashSet<>();
+
+        // Act
+        long count = exportRepository.streamEmails(emails::add);
+
+        // Assert
+        assertEquals(50, count);
+        assertEquals(saved.stream().map(User::getEmail).collect(Collectors.toSet()), emails);
+    }
+}
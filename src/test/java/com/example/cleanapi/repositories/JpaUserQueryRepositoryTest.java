@@ -0,0 +1,90 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for JpaUserQueryRepository against the embedded database
+ * Reads must map rows to DTOs without loading any managed entity.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserRepositoryImpl.class, UserChangeLog.class, JpaUserQueryRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JPA User Query Repository Tests")
+class JpaUserQueryRepositoryTest {
+
+    @Autowired
+    private JpaUserQueryRepository queryRepository;
+
+    @Autowired
+    private UserRepositoryImpl repository;
+
+    @Autowired
+    private UserJpaRepository jpaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jpaRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should read a user as a DTO with one query and no entity load")
+    void shouldFindByIdWithoutLoadingEntity() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        Optional<UserResponseDto> found = queryRepository.findById(saved.getId());
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertEquals("john.doe@example.com", found.get().getEmail());
+        assertEquals(saved.getVersion(), found.get().getVersion());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(queryRepository.findById(999_999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page in keyset order without loading entities")
+    void shouldFindPageInKeysetOrder() {
+        // Arrange
+        User first = repository.save(new User("John Doe", "john.doe@example.com"));
+        User second = repository.save(new User("Jane Doe", "jane.doe@example.com"));
+        User third = repository.save(new User("Mary Doe", "mary.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        List<UserResponseDto> firstPage = queryRepository.findPage(null, null, 2);
+        UserResponseDto last = firstPage.get(1);
+        List<UserResponseDto> nextPage = queryRepository.findPage(last.getCreatedAt(), last.getId(), 2);
+
+        // Assert
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(UserResponseDto::getId).toList());
+        assertEquals(List.of(third.getId()), nextPage.stream().map(UserResponseDto::getId).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.cleanapi.repositories;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReadWriteRoutingDataSource over two in-memory H2 databases
+ * Each test asks the database for its name to see where a statement ran.
+ */
+@DisplayName("Read/Write Routing DataSource Tests")
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String PRIMARY = "ROUTING_PRIMARY";
+    private static final String REPLICA = "ROUTING_REPLICA";
+
+    private ReadWriteRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    // Connecting fails: IFEXISTS refuses to create a database that is not there yet
+    private static DataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        return dataSource;
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> database());
+    }
+
+    private String database() {
+        return new JdbcTemplate(routing).queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and everything else to the primary")
+    void shouldRouteByTransactionReadOnlyFlag() {
+        // Arrange
+        routing = new ReadWriteRoutingDataSource(h2(PRIMARY), List.of(h2(REPLICA)), 30_000);
+
+        // Act
+        String readOnly = databaseIn(true);
+        String readWrite = databaseIn(false);
+        String noTransaction = database();
+
+        // Assert
+        assertEquals(REPLICA, readOnly);
+        assertEquals(PRIMARY, readWrite);
+        assertEquals(PRIMARY, noTransaction);
+        assertEquals(1, routing.getReplicaConnections());
+    }
+
+    @Test
+    @DisplayName("Should refuse per-call credentials with the JDBC not-supported error")
+    void shouldRefusePerCallCredentials() {
+        // Arrange
+        routing = new ReadWriteRoutingDataSource(h2(PRIMARY), List.of(h2(REPLICA)), 30_000);
+
+        // Act & Assert: the lazy proxy only asks for the target connection on first use
+        assertThrows(SQLFeatureNotSupportedException.class, () -> {
+            try (Connection connection = routing.getConnection("sa", "")) {
+                connection.createStatement();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep a request on the primary once it has written, so it reads its own writes")
+    void shouldPinRequestToPrimaryAfterWrite() {
+        // Arrange
+        routing = new ReadWriteRoutingDataSource(h2(PRIMARY), List.of(h2(REPLICA)), 30_000);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        // Act
+        String beforeWrite = databaseIn(true);
+        databaseIn(false);
+        String afterWrite = databaseIn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String nextRequest = databaseIn(true);
+
+        // Assert
+        assertEquals(REPLICA, beforeWrite);
+        assertEquals(PRIMARY, afterWrite);
+        assertEquals(REPLICA, nextRequest);
+    }
+
+    @Test
+    @DisplayName("Should spread reads over the replicas and skip one that cannot be reached")
+    void shouldFailOverPastUnreachableReplica() {
+        // Arrange
+        routing = new ReadWriteRoutingDataSource(h2(PRIMARY), List.of(unreachable(), h2(REPLICA)), 30_000);
+
+        // Act
+        String first = databaseIn(true);
+        String second = databaseIn(true);
+        String third = databaseIn(true);
+
+        // Assert
+        assertEquals(List.of(REPLICA, REPLICA, REPLICA), List.of(first, second, third));
+        assertEquals(1, routing.getFailovers(), "The failed replica should be left out after one attempt");
+        assertEquals(List.of("replica-2"), routing.getHealthyReplicas());
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when no replica can be reached, and retry replicas later")
+    void shouldFallBackToPrimaryWhenNoReplicaIsHealthy() throws Exception {
+        // Arrange
+        routing = new ReadWriteRoutingDataSource(h2(PRIMARY), List.of(unreachable()), 50);
+
+        // Act
+        String whileDown = databaseIn(true);
+        Thread.sleep(60);
+        List<String> afterRetryWindow = routing.getHealthyReplicas();
+
+        // Assert
+        assertEquals(PRIMARY, whileDown);
+        assertEquals(1, routing.getFailovers());
+        assertEquals(List.of("replica-1"), afterRetryWindow);
+    }
+}
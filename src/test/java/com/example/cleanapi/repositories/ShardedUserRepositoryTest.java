@@ -0,0 +1,306 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for ShardedUserRepository and ShardedUserExportRepository over three in-memory H2 databases
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Sharded User Repository Tests")
+class ShardedUserRepositoryTest {
+
+    private static final int SHARDS = 3;
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    @Mock
+    private UserChangeLog changeLog;
+
+    private UserShards shards;
+    private ShardedUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // Fresh databases per test, so no test sees another's users
+        int run = databases.incrementAndGet();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            dataSources.add(h2("shard_" + run + "_" + i));
+        }
+        shards = new UserShards(dataSources);
+        shards.initializeSchema();
+        repository = new ShardedUserRepository(
+            shards, changeLog, new DataSourceTransactionManager(h2("changes_" + run)), 4, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private List<User> createUsers(int count) {
+        return repository.saveAll(IntStream.range(0, count)
+                                           .mapToObj(i -> new User("User " + i, "user" + i + "@example.com"))
+                                           .toList());
+    }
+
+    private long rowsOn(int shard, String table) {
+        return shards.get(shard).jdbc().queryForObject("SELECT COUNT(*) FROM " + table, Map.of(), Long.class);
+    }
+
+    @Test
+    @DisplayName("Should spread new users over the shards and find each by the shard encoded in its ID")
+    void shouldRouteByShardEncodedInId() {
+        // Act
+        List<User> created = createUsers(30);
+        User single = repository.save(new User("Single", "single@example.com"));
+
+        // Assert
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertTrue(rowsOn(shard, "users") > 0, "Shard " + shard + " should hold some users");
+        }
+        for (User user : created) {
+            int home = (int) (user.getId() % UserShards.MAX_SHARDS);
+            assertEquals(shards.forEmail(user.getEmail()).index(), home);
+            assertEquals(user.getEmail(), repository.findById(user.getId()).orElseThrow().getEmail());
+        }
+        assertEquals(31, repository.count());
+        assertEquals(0L, repository.findVersionById(single.getId()).orElseThrow().getVersion());
+        assertTrue(repository.findById(single.getId() + SHARDS).isEmpty());
+        assertTrue(repository.findById(UserShards.MAX_SHARDS - 1L).isEmpty(), "No shard issues this ID");
+        assertEquals(10, repository.findAllByIds(created.subList(0, 10).stream().map(User::getId).toList()).size());
+        verify(changeLog).record(eq(UserChangeType.CREATED), eq(created.stream().map(User::getId).toList()),
+                                 any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should merge pages from every shard in (createdAt, id) order")
+    void shouldMergePagesAcrossShards() {
+        // Arrange
+        List<User> created = createUsers(25);
+        List<User> expected = created.stream()
+                                     .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId))
+                                     .toList();
+
+        // Act: walk every page
+        List<User> walked = new ArrayList<>();
+        List<User> page = repository.findPage(null, null, 7);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            User last = page.get(page.size() - 1);
+            page = repository.findPage(last.getCreatedAt(), last.getId(), 7);
+        }
+
+        // Assert
+        assertEquals(ids(expected), ids(walked));
+        assertEquals(ids(expected), ids(repository.findAll()));
+    }
+
+    @Test
+    @DisplayName("Should keep emails unique across shards through the directory, also after an email change")
+    void shouldKeepEmailsUniqueAcrossShards() {
+        // Arrange
+        List<User> created = createUsers(10);
+        User moving = created.get(0);
+        // An email that lives in another shard's directory than the user does
+        String newEmail = IntStream.range(0, 100).mapToObj(i -> "moved" + i + "@example.com")
+                                   .filter(email -> shards.forEmail(email) != shards.forId(moving.getId()))
+                                   .findFirst().orElseThrow();
+
+        // Act
+        User moved = repository.patch(moving.getId(), null, newEmail, LocalDateTime.now()).orElseThrow();
+
+        // Assert
+        assertEquals(1L, moved.getVersion());
+        assertEquals(moving.getId(), repository.findByEmail(newEmail).orElseThrow().getId());
+        assertTrue(repository.findByEmail(moving.getEmail()).isEmpty());
+        assertEquals(Set.of(newEmail, "user1@example.com"),
+                     repository.findExistingEmails(List.of(newEmail, "user1@example.com", moving.getEmail())));
+        assertThrows(EmailConflictException.class,
+                     () -> repository.save(new User("Copy", newEmail)));
+        assertThrows(EmailConflictException.class,
+                     () -> repository.patch(created.get(1).getId(), null, newEmail, LocalDateTime.now()));
+        // The old email was released and can be taken again
+        User reused = repository.save(new User("Reuse", moving.getEmail()));
+        assertTrue(repository.existsByEmail(reused.getEmail()));
+        long directoryEntries = IntStream.range(0, SHARDS).mapToLong(shard -> rowsOn(shard, "user_emails")).sum();
+        assertEquals(11, directoryEntries);
+    }
+
+    @Test
+    @DisplayName("Should undo the shards already written when a batch conflicts on another shard")
+    void shouldUndoPartialBatchOnConflict() {
+        // Arrange
+        createUsers(3);
+        List<User> batch = IntStream.range(10, 20)
+                                    .mapToObj(i -> new User("User " + i, "user" + i + "@example.com"))
+                                    .collect(Collectors.toCollection(ArrayList::new));
+        batch.add(new User("Duplicate", "user2@example.com"));
+
+        // Act & Assert
+        assertThrows(EmailConflictException.class, () -> repository.saveAll(batch));
+        assertEquals(3, repository.count());
+        assertTrue(repository.findByEmail("user10@example.com").isEmpty());
+        assertEquals(3, IntStream.range(0, SHARDS).mapToLong(shard -> rowsOn(shard, "user_emails")).sum());
+    }
+
+    @Test
+    @DisplayName("Should take over a directory entry left behind by a failed write only once it is stale")
+    void shouldTakeOverStaleDirectoryEntry() {
+        // Arrange: entries for users that never got written, one fresh and one old
+        String fresh = "fresh@example.com";
+        String stale = "stale@example.com";
+        insertDirectoryEntry(fresh, LocalDateTime.now());
+        insertDirectoryEntry(stale, LocalDateTime.now().minus(ShardedUserRepository.STALE_CLAIM_AGE).minusSeconds(1));
+
+        // Act & Assert
+        assertFalse(repository.existsByEmail(fresh));
+        assertThrows(EmailConflictException.class, () -> repository.save(new User("Fresh", fresh)));
+        User taken = repository.save(new User("Stale", stale));
+        assertEquals(taken.getId(), repository.findByEmail(stale).orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Should restart the clock of a directory entry the user already holds when it claims it again")
+    void shouldRefreshOwnDirectoryEntry() {
+        // Arrange: an old entry for the email, left behind by an earlier attempt of this user's email change
+        User user = createUsers(1).get(0);
+        String newEmail = "renamed@example.com";
+        LocalDateTime old = LocalDateTime.now().minus(ShardedUserRepository.STALE_CLAIM_AGE).minusMinutes(5);
+        shards.forEmail(newEmail).jdbc().update(
+            "INSERT INTO user_emails (email, user_id, claimed_at) VALUES (:email, :userId, :claimedAt)",
+            Map.of("email", newEmail, "userId", user.getId(), "claimedAt", old));
+
+        // Act
+        repository.patch(user.getId(), null, newEmail, LocalDateTime.now());
+
+        // Assert
+        Timestamp claimedAt = shards.forEmail(newEmail).jdbc().queryForObject(
+            "SELECT claimed_at FROM user_emails WHERE email = :email", Map.of("email", newEmail), Timestamp.class);
+        assertTrue(claimedAt.toLocalDateTime().isAfter(old.plus(ShardedUserRepository.STALE_CLAIM_AGE)),
+                   "Entry should be claimed anew, was claimed at " + claimedAt);
+        assertEquals(user.getId(), repository.findByEmail(newEmail).orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("Should give up on a parallel query when a shard does not answer in time")
+    void shouldTimeOutSlowShard() {
+        // Arrange: once set up, the last shard takes far longer to hand out a connection than the query may wait
+        int run = databases.incrementAndGet();
+        AtomicBoolean stalled = new AtomicBoolean();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS - 1; i++) {
+            dataSources.add(h2("shard_" + run + "_" + i));
+        }
+        dataSources.add(new DelegatingDataSource(h2("shard_" + run + "_slow")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (stalled.get()) {
+                    try {
+                        Thread.sleep(2_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.getConnection();
+            }
+        });
+        UserShards slowShards = new UserShards(dataSources);
+        slowShards.initializeSchema();
+        stalled.set(true);
+
+        // Act & Assert
+        try (ShardedUserRepository slow = new ShardedUserRepository(
+                 slowShards, changeLog, new DataSourceTransactionManager(h2("changes_" + run)), 4, 100)) {
+            long started = System.nanoTime();
+            assertThrows(QueryTimeoutException.class, slow::count);
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete from the user's shard and release its email")
+    void shouldDeleteAndReleaseEmail() {
+        // Arrange
+        User user = createUsers(1).get(0);
+
+        // Act
+        boolean deleted = repository.deleteById(user.getId(), 0L);
+
+        // Assert
+        assertTrue(deleted);
+        assertFalse(repository.deleteById(user.getId()));
+        assertFalse(repository.existsById(user.getId()));
+        assertEquals(0, rowsOn(shards.forEmail(user.getEmail()).index(), "user_emails"));
+        verify(changeLog).record(eq(UserChangeType.DELETED), anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should export every shard merged in ID order")
+    void shouldExportInIdOrder() {
+        // Arrange
+        List<User> created = createUsers(20);
+        ShardedUserExportRepository export = new ShardedUserExportRepository(shards, 5);
+        List<Long> exported = new ArrayList<>();
+
+        // Act
+        long count = export.streamAll((id, name, email, createdAt, updatedAt) -> exported.add(id));
+        long emails = export.streamEmails(email -> { });
+
+        // Assert
+        assertEquals(20, count);
+        assertEquals(20, emails);
+        assertEquals(created.stream().map(User::getId).sorted().toList(), exported);
+    }
+
+    private void insertDirectoryEntry(String email, LocalDateTime claimedAt) {
+        // Local ID 999999 on shard 0: no such user exists
+        shards.forEmail(email).jdbc().update(
+            "INSERT INTO user_emails (email, user_id, claimed_at) VALUES (:email, :userId, :claimedAt)",
+            Map.of("email", email, "userId", 999_999L * UserShards.MAX_SHARDS, "claimedAt", claimedAt));
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.cleanapi.repositories;
+
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count tests for UserRepositoryImpl against the embedded database
+ * Each write must reach the database in the fewest statements possible;
+ * a successful write adds its change feed entry as one sequence read and one INSERT.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserRepositoryImpl.class, UserChangeLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("User Repository Implementation Tests")
+class UserRepositoryImplTest {
+
+    @Autowired
+    private UserRepositoryImpl repository;
+
+    @Autowired
+    private UserJpaRepository jpaRepository;
+
+    @Autowired
+    private UserChangeLog changeLog;
+
+    @Autowired
+    private UserChangeJpaRepository changeJpaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jpaRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up the pooled sequence so the next insert does not fetch a new block
+        repository.save(new User("Warm Up", "warm.up@example.com"));
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should create user with one INSERT plus its change entry")
+    void shouldCreateUserWithSingleStatement() {
+        // Act
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+
+        // Assert
+        assertNotNull(saved.getId());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should send a batch create as JDBC batches of hibernate.jdbc.batch_size inserts")
+    void shouldCreateBatchWithJdbcBatches() {
+        // Arrange: 120 users are three batches at batch_size=50
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            users.add(new User("User " + i, "user" + i + "@example.com"));
+        }
+
+        // Act
+        List<User> saved = repository.saveAll(users);
+
+        // Assert
+        // One prepared INSERT per table, reused for every batch, one read of the change feed
+        // sequence for all 120 entries, plus at most three ID sequence fetches depending on how
+        // much of the current block is left; row-by-row inserts would prepare 240 INSERTs here
+        assertEquals(120, saved.size());
+        assertEquals(240, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                   "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate email through the unique constraint")
+    void shouldRejectDuplicateEmail() {
+        // Arrange
+        repository.save(new User("John Doe", "john.doe@example.com"));
+
+        // Act & Assert
+        EmailConflictException exception = assertThrows(
+            EmailConflictException.class,
+            () -> repository.save(new User("Other John", "john.doe@example.com"))
+        );
+        assertEquals("User with this email already exists", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should update user with one row-returning UPDATE and its change entry")
+    void shouldUpdateUserWithoutReadBack() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        User changes = new User("Jane Doe", "jane.doe@example.com");
+        changes.setId(saved.getId());
+        statistics.clear();
+
+        // Act
+        Optional<User> updated = repository.update(changes);
+
+        // Assert
+        assertTrue(updated.isPresent());
+        assertEquals("Jane Doe", updated.get().getName());
+        assertEquals("jane.doe@example.com", updated.get().getEmail());
+        assertEquals(saved.getCreatedAt().withNano(0), updated.get().getCreatedAt().withNano(0));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should report missing user from the UPDATE row count")
+    void shouldNotUpdateMissingUser() {
+        // Arrange
+        User changes = new User("Jane Doe", "jane.doe@example.com");
+        changes.setId(999_999L);
+
+        // Act
+        Optional<User> updated = repository.update(changes);
+
+        // Assert
+        assertTrue(updated.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should patch a single column with one row-returning UPDATE and its change entry")
+    void shouldPatchSingleColumn() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        Optional<User> patched = repository.patch(saved.getId(), "Jane Doe", null, LocalDateTime.now());
+
+        // Assert
+        assertTrue(patched.isPresent());
+        assertEquals("Jane Doe", patched.get().getName());
+        assertEquals("john.doe@example.com", patched.get().getEmail());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should reject patched email taken by another user")
+    void shouldRejectPatchedDuplicateEmail() {
+        // Arrange
+        repository.save(new User("John Doe", "john.doe@example.com"));
+        User other = repository.save(new User("Jane Doe", "jane.doe@example.com"));
+
+        // Act & Assert
+        assertThrows(
+            EmailConflictException.class,
+            () -> repository.patch(other.getId(), null, "john.doe@example.com", LocalDateTime.now())
+        );
+    }
+
+    @Test
+    @DisplayName("Should bump the version on every write")
+    void shouldBumpVersionOnEveryWrite() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        User changes = new User("Jane Doe", "jane.doe@example.com");
+        changes.setId(saved.getId());
+
+        // Act
+        long updatedVersion = repository.update(changes).orElseThrow().getVersion();
+        long patchedVersion = repository.patch(saved.getId(), "John Doe", null, LocalDateTime.now())
+                                        .orElseThrow().getVersion();
+
+        // Assert
+        assertEquals(0L, saved.getVersion());
+        assertEquals(1L, updatedVersion);
+        assertEquals(2L, patchedVersion);
+    }
+
+    @Test
+    @DisplayName("Should read the version stamp with a single narrow SELECT")
+    void shouldReadVersionWithSingleStatement() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        Optional<UserVersion> version = repository.findVersionById(saved.getId());
+
+        // Assert
+        assertEquals(saved.getVersion(), version.orElseThrow().getVersion());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(repository.findVersionById(999_999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should check the expected version inside the UPDATE")
+    void shouldCheckVersionInsideUpdate() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        User first = new User("Jane Doe", "jane.doe@example.com");
+        first.setId(saved.getId());
+        first.setVersion(saved.getVersion());
+        User second = new User("Jim Doe", "jim.doe@example.com");
+        second.setId(saved.getId());
+        second.setVersion(saved.getVersion());
+        statistics.clear();
+
+        // Act
+        Optional<User> updated = repository.update(first);
+        long statementsForWinner = statistics.getPrepareStatementCount();
+
+        // Assert
+        assertEquals(1L, updated.orElseThrow().getVersion());
+        assertEquals(3, statementsForWinner);
+        assertThrows(VersionMismatchException.class, () -> repository.update(second));
+        assertEquals("Jane Doe", jpaRepository.findById(saved.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should check the expected version inside the DELETE")
+    void shouldCheckVersionInsideDelete() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act & Assert
+        assertThrows(VersionMismatchException.class, () -> repository.deleteById(saved.getId(), 7L));
+        assertTrue(jpaRepository.existsById(saved.getId()));
+
+        statistics.clear();
+        assertTrue(repository.deleteById(saved.getId(), saved.getVersion()));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertFalse(repository.deleteById(saved.getId(), saved.getVersion()));
+    }
+
+    @Test
+    @DisplayName("Should delete user with one DELETE plus its tombstone entry")
+    void shouldDeleteUserWithSingleStatement() {
+        // Arrange
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        boolean deleted = repository.deleteById(saved.getId());
+
+        // Assert
+        assertTrue(deleted);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertTrue(jpaRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report missing user from the DELETE row count")
+    void shouldNotDeleteMissingUser() {
+        // Act
+        boolean deleted = repository.deleteById(999_999L);
+
+        // Assert
+        assertFalse(deleted);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should resolve a bulk lookup with one IN query per chunk")
+    void shouldFindAllByIdsInChunks() {
+        // Arrange
+        User first = repository.save(new User("John Doe", "john.doe@example.com"));
+        User second = repository.save(new User("Jane Doe", "jane.doe@example.com"));
+        List<Long> ids = new ArrayList<>();
+        ids.add(second.getId());
+        ids.add(first.getId());
+        ids.add(first.getId());
+        for (long id = 1_000_000; ids.size() < UserRepositoryImpl.IN_CHUNK_SIZE + 100; id++) {
+            ids.add(id);
+        }
+        statistics.clear();
+
+        // Act
+        List<User> found = repository.findAllByIds(ids);
+
+        // Assert
+        assertEquals(Set.of(first.getId(), second.getId()),
+                     found.stream().map(User::getId).collect(Collectors.toSet()));
+        assertEquals(2, found.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should resolve emails with a single IN query")
+    void shouldFindAllByEmailsWithSingleStatement() {
+        // Arrange
+        repository.save(new User("John Doe", "john.doe@example.com"));
+        statistics.clear();
+
+        // Act
+        List<User> found = repository.findAllByEmails(List.of("john.doe@example.com", "nobody@example.com"));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals("john.doe@example.com", found.get(0).getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should record every write in the change feed in commit order")
+    void shouldRecordWritesInChangeFeed() {
+        // Arrange
+        long since = lastSeq();
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+        repository.patch(saved.getId(), "Jane Doe", null, LocalDateTime.now());
+        List<User> batch = repository.saveAll(List.of(new User("Jim Doe", "jim.doe@example.com"),
+                                                      new User("Joe Doe", "joe.doe@example.com")));
+        repository.deleteById(saved.getId());
+        repository.deleteById(999_999L);
+
+        // Act
+        List<UserChangeDto> changes = changeLog.findSince(since, 100);
+
+        // Assert
+        assertEquals(List.of(UserChangeType.CREATED, UserChangeType.UPDATED, UserChangeType.CREATED,
+                             UserChangeType.CREATED, UserChangeType.DELETED),
+                     changes.stream().map(UserChangeDto::getType).collect(Collectors.toList()));
+        assertEquals(List.of(since + 1, since + 2, since + 3, since + 4, since + 5),
+                     changes.stream().map(UserChangeDto::getSeq).collect(Collectors.toList()));
+        assertEquals(List.of(saved.getId(), saved.getId(), batch.get(0).getId(), batch.get(1).getId(), saved.getId()),
+                     changes.stream().map(UserChangeDto::getUserId).collect(Collectors.toList()));
+        // Users are attached by the use case, which finds them wherever they are stored
+        assertTrue(changes.stream().allMatch(change -> change.getUser() == null));
+        assertEquals(2, changeLog.findSince(since + 3, 100).size());
+    }
+
+    @Test
+    @DisplayName("Should stop readers at a number still in flight and skip it once it is older than the gap timeout")
+    void shouldStopChangeFeedAtGap() {
+        // Arrange: a number taken by a write that has not committed, followed by a committed write
+        long since = lastSeq();
+        long inFlight = changeJpaRepository.nextSeqs(1).get(0);
+        User saved = repository.save(new User("John Doe", "john.doe@example.com"));
+
+        // Act
+        List<UserChangeDto> waiting = changeLog.findSince(since, 100);
+        List<UserChangeDto> settled = settledChangeLog().findSince(since, 100);
+
+        // Assert: the committed change stays hidden until the gap before it is final
+        assertEquals(since + 1, inFlight);
+        assertTrue(waiting.isEmpty());
+        assertEquals(List.of(since + 2), settled.stream().map(UserChangeDto::getSeq).toList());
+        assertEquals(saved.getId(), settled.get(0).getUserId());
+    }
+
+    @Test
+    @DisplayName("Should number the entries of one batch consecutively with a single sequence read")
+    void shouldNumberBatchFromOneSequenceRead() {
+        // Arrange
+        long since = lastSeq();
+        statistics.clear();
+
+        // Act
+        List<Long> seqs = changeJpaRepository.nextSeqs(3);
+
+        // Assert
+        assertEquals(List.of(since + 1, since + 2, since + 3), seqs.stream().sorted().toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * A change log that treats every gap as final, to read past numbers left behind by other tests
+     */
+    private UserChangeLog settledChangeLog() {
+        return new UserChangeLog(changeJpaRepository, null, Duration.ZERO);
+    }
+
+    private long lastSeq() {
+        List<UserChangeDto> all = settledChangeLog().findSince(0, Integer.MAX_VALUE);
+        return all.isEmpty() ? 0 : all.get(all.size() - 1).getSeq();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.BatchItemResultDto;
+import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.IngestionTicketDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.IngestionQueueFullException;
+import com.example.cleanapi.borders.exceptions.IngestionTimeoutException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import com.example.cleanapi.borders.validators.UserValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GroupCommitUserUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Group Commit User Use Case Tests")
+class GroupCommitUserUseCaseTest {
+
+    private static final UserValidator.ValidationResult VALID = new UserValidator.ValidationResult(true, List.of());
+
+    @Mock
+    private UserUseCase delegate;
+
+    @Mock
+    private UserValidator userValidator;
+
+    private GroupCommitUserUseCase groupCommit;
+
+    @AfterEach
+    void tearDown() {
+        if (groupCommit != null) {
+            groupCommit.close();
+        }
+    }
+
+    private static CreateUserDto dto(int n) {
+        return new CreateUserDto("User " + n, "user" + n + "@example.com");
+    }
+
+    private static UserResponseDto user(long id, CreateUserDto dto) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserResponseDto(id, dto.getName(), dto.getEmail(), now, now);
+    }
+
+    // Created for every item except the given email, which conflicts
+    private void answerBatchesWithConflictOn(String conflictingEmail) {
+        when(delegate.createUsers(anyList())).thenAnswer(invocation -> {
+            List<CreateUserDto> dtos = invocation.getArgument(0);
+            List<BatchItemResultDto> results = new ArrayList<>();
+            for (int i = 0; i < dtos.size(); i++) {
+                results.add(dtos.get(i).getEmail().equals(conflictingEmail)
+                    ? BatchItemResultDto.conflict(i, "User with this email already exists")
+                    : BatchItemResultDto.created(i, user(i + 1L, dtos.get(i))));
+            }
+            return new BatchCreateResultDto(results);
+        });
+    }
+
+    @Test
+    @DisplayName("Should write concurrent creates in one batch and answer each caller")
+    void shouldGroupConcurrentCreates() throws Exception {
+        // Arrange
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 3, 10_000, 5_000, 100, 60_000);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        answerBatchesWithConflictOn("user2@example.com");
+
+        // Act
+        List<CompletableFuture<UserResponseDto>> calls = new ArrayList<>();
+        for (int n = 1; n <= 3; n++) {
+            CreateUserDto createUserDto = dto(n);
+            calls.add(CompletableFuture.supplyAsync(() -> groupCommit.createUser(createUserDto)));
+        }
+
+        // Assert
+        List<String> emails = new ArrayList<>();
+        int conflicts = 0;
+        for (CompletableFuture<UserResponseDto> call : calls) {
+            try {
+                emails.add(call.get(5, TimeUnit.SECONDS).getEmail());
+            } catch (ExecutionException e) {
+                assertInstanceOf(EmailConflictException.class, e.getCause());
+                conflicts++;
+            }
+        }
+        assertEquals(1, conflicts);
+        assertEquals(2, emails.size());
+        assertFalse(emails.contains("user2@example.com"));
+        verify(delegate, times(1)).createUsers(argThat(batch -> batch.size() == 3));
+        assertEquals(1, groupCommit.getBatches());
+        assertEquals(3.0, groupCommit.getAverageBatchSize());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid creates before queueing them")
+    void shouldValidateBeforeQueueing() {
+        // Arrange
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 0, 5_000, 100, 60_000);
+        when(userValidator.validateCreateUser(any()))
+            .thenReturn(new UserValidator.ValidationResult(false, List.of("Email format is invalid")));
+
+        // Act & Assert
+        assertThrows(ValidationFailedException.class, () -> groupCommit.submitUser(dto(1)));
+        assertEquals(0, groupCommit.getQueued());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should answer a submitted create through its ticket")
+    void shouldTrackSubmittedCreateByTicket() throws Exception {
+        // Arrange
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 0, 5_000, 100, 60_000);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        answerBatchesWithConflictOn(null);
+
+        // Act
+        IngestionTicketDto ticket = groupCommit.submitUser(dto(1));
+
+        // Assert
+        assertNotNull(ticket.getTicket());
+        IngestionTicketDto state = ticket;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (state.getStatus() == IngestionTicketDto.Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            state = groupCommit.getTicket(ticket.getTicket()).orElseThrow();
+        }
+        assertEquals(IngestionTicketDto.Status.CREATED, state.getStatus());
+        assertEquals("user1@example.com", state.getUser().getEmail());
+        assertTrue(groupCommit.getTicket("unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should fall back to single creates when a batch fails")
+    void shouldRetryFailedBatchOneByOne() {
+        // Arrange
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 0, 5_000, 100, 60_000);
+        CreateUserDto createUserDto = dto(1);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        when(delegate.createUsers(anyList())).thenThrow(new EmailConflictException());
+        when(delegate.createUser(createUserDto)).thenReturn(user(7L, createUserDto));
+
+        // Act
+        UserResponseDto result = groupCommit.createUser(createUserDto);
+
+        // Assert
+        assertEquals(7L, result.getId());
+        verify(delegate).createUser(createUserDto);
+    }
+
+    @Test
+    @DisplayName("Should reject creates while the queue is full")
+    void shouldRejectWhenQueueIsFull() {
+        // Arrange: the first create holds the only slot while its batch waits to fill
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 10_000, 5_000, 1, 60_000);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        groupCommit.submitUser(dto(1));
+
+        // Act & Assert
+        assertThrows(IngestionQueueFullException.class, () -> groupCommit.submitUser(dto(2)));
+        assertEquals(1, groupCommit.getRejected());
+    }
+
+    @Test
+    @DisplayName("Should give up on a create that is not written in time and never write it")
+    void shouldTimeOutCreateAndWithdrawIt() {
+        // Arrange: the batch waits far longer to fill than the caller waits
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 10_000, 50, 100, 60_000);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+
+        // Act
+        assertThrows(IngestionTimeoutException.class, () -> groupCommit.createUser(dto(1)));
+        groupCommit.close();
+
+        // Assert: closing wrote the pending batch, which no longer held the abandoned request
+        assertEquals(1, groupCommit.getTimedOut());
+        assertEquals(0, groupCommit.getBatches());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should fail the requests it holds and turn away new ones when the writer stops")
+    void shouldFailPendingRequestsWhenWriterStops() throws Exception {
+        // Arrange: a batch that fills at once and whose write ends the writer thread
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 2, 10_000, 5_000, 100, 60_000);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        when(delegate.createUsers(anyList())).thenThrow(new OutOfMemoryError("Java heap space"));
+
+        // Act
+        IngestionTicketDto first = groupCommit.submitUser(dto(1));
+        IngestionTicketDto second = groupCommit.submitUser(dto(2));
+
+        // Assert
+        assertEquals(IngestionTicketDto.Status.FAILED, awaitTicket(first.getTicket()).getStatus());
+        assertEquals(IngestionTicketDto.Status.FAILED, awaitTicket(second.getTicket()).getStatus());
+        assertThrows(IngestionQueueFullException.class, () -> groupCommit.submitUser(dto(3)));
+    }
+
+    @Test
+    @DisplayName("Should drop an expired ticket without waiting for another batch")
+    void shouldExpireTicketWithoutAnotherBatch() throws Exception {
+        // Arrange
+        groupCommit = new GroupCommitUserUseCase(delegate, userValidator, 10, 0, 5_000, 100, 20);
+        when(userValidator.validateCreateUser(any())).thenReturn(VALID);
+        answerBatchesWithConflictOn(null);
+        IngestionTicketDto ticket = groupCommit.submitUser(dto(1));
+        assertEquals(IngestionTicketDto.Status.CREATED, awaitTicket(ticket.getTicket()).getStatus());
+
+        // Act
+        Thread.sleep(50);
+
+        // Assert
+        assertTrue(groupCommit.getTicket(ticket.getTicket()).isEmpty());
+    }
+
+    // The ticket's state once it is no longer pending, or its last pending state after five seconds
+    private IngestionTicketDto awaitTicket(String ticket) throws InterruptedException {
+        IngestionTicketDto state = groupCommit.getTicket(ticket).orElseThrow();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (state.getStatus() == IngestionTicketDto.Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            state = groupCommit.getTicket(ticket).orElseThrow();
+        }
+        return state;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.cleanapi.usecases;
+
+import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserResponseDto;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.interfaces.UserUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SingleFlightUserUseCase
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Single-Flight User Use Case Tests")
+class SingleFlightUserUseCaseTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private UserUseCase delegate;
+
+    private ExecutorService executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should share one lookup between concurrent callers for the same ID")
+    void shouldShareOneLookupBetweenConcurrentCallers() throws Exception {
+        // Arrange
+        UserResponseDto user = new UserResponseDto(1L, "John Doe", "john@example.com",
+                                                   LocalDateTime.now(), LocalDateTime.now(), 0L);
+        when(delegate.getUserById(1L)).thenAnswer(invocation -> {
+            release.await();
+            return user;
+        });
+        SingleFlightUserUseCase useCase = new SingleFlightUserUseCase(delegate, 5_000);
+
+        // Act
+        List<Future<UserResponseDto>> results = callConcurrently(useCase, 1L);
+        release.countDown();
+
+        // Assert
+        for (Future<UserResponseDto> result : results) {
+            assertSame(user, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).getUserById(1L);
+        assertEquals(1, useCase.getLoads());
+        assertEquals(CALLERS - 1, useCase.getJoins());
+        assertEquals((double) (CALLERS - 1) / CALLERS, useCase.getCoalescingRatio(), 1e-9);
+        assertEquals(0, useCase.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should share the failure of a lookup with every caller that joined it")
+    void shouldShareFailureWithJoinedCallers() throws Exception {
+        // Arrange
+        when(delegate.getUserById(1L)).thenAnswer(invocation -> {
+            release.await();
+            throw new UserNotFoundException(1L);
+        });
+        SingleFlightUserUseCase useCase = new SingleFlightUserUseCase(delegate, 5_000);
+
+        // Act
+        List<Future<UserResponseDto>> results = callConcurrently(useCase, 1L);
+        release.countDown();
+
+        // Assert
+        for (Future<UserResponseDto> result : results) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(UserNotFoundException.class, failure.getCause());
+        }
+        verify(delegate, times(1)).getUserById(1L);
+    }
+
+    @Test
+    @DisplayName("Should run its own lookup when the shared one takes longer than the maximum wait")
+    void shouldRunOwnLookupAfterMaximumWait() throws Exception {
+        // Arrange
+        UserResponseDto user = new UserResponseDto(1L, "John Doe", "john@example.com",
+                                                   LocalDateTime.now(), LocalDateTime.now(), 0L);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        when(delegate.getUserById(1L))
+            .thenAnswer(invocation -> {
+                leaderStarted.countDown();
+                release.await();
+                return user;
+            })
+            .thenReturn(user);
+        SingleFlightUserUseCase useCase = new SingleFlightUserUseCase(delegate, 50);
+        Future<UserResponseDto> leader = executor.submit(() -> useCase.getUserById(1L));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        UserResponseDto result = useCase.getUserById(1L);
+        release.countDown();
+
+        // Assert
+        assertSame(user, result);
+        assertSame(user, leader.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(2)).getUserById(1L);
+        assertEquals(1, useCase.getTimeouts());
+        assertEquals(0.0, useCase.getCoalescingRatio());
+    }
+
+    @Test
+    @DisplayName("Should not let callers after a write join a lookup that started before it")
+    void shouldStartFreshLookupAfterWrite() throws Exception {
+        // Arrange
+        UserResponseDto before = new UserResponseDto(1L, "John Doe", "john@example.com",
+                                                     LocalDateTime.now(), LocalDateTime.now(), 0L);
+        UserResponseDto after = new UserResponseDto(1L, "Jane Doe", "john@example.com",
+                                                    LocalDateTime.now(), LocalDateTime.now(), 1L);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        when(delegate.getUserById(1L))
+            .thenAnswer(invocation -> {
+                leaderStarted.countDown();
+                release.await();
+                return before;
+            })
+            .thenReturn(after);
+        SingleFlightUserUseCase useCase = new SingleFlightUserUseCase(delegate, 5_000);
+        Future<UserResponseDto> stale = executor.submit(() -> useCase.getUserById(1L));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act
+        useCase.updateUser(1L, new UpdateUserDto("Jane Doe", "john@example.com"));
+        UserResponseDto result = useCase.getUserById(1L);
+        release.countDown();
+
+        // Assert
+        assertSame(after, result);
+        assertSame(before, stale.get(5, TimeUnit.SECONDS));
+        verify(delegate).updateUser(eq(1L), any(UpdateUserDto.class));
+        assertEquals(0, useCase.getJoins());
+    }
+
+    /**
+     * Start CALLERS concurrent lookups of one ID and wait until all of them are in flight
+     */
+    private List<Future<UserResponseDto>> callConcurrently(SingleFlightUserUseCase useCase, Long id)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<UserResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                return useCase.getUserById(id);
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Every caller is past the latch; give the joiners time to reach the shared load
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (useCase.getLoads() + useCase.getJoins() < CALLERS && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return results;
+    }
+}
@@ -1,10 +1,33 @@
 package com.example.cleanapi.usecases;
 
+import com.example.cleanapi.borders.dtos.BatchCreateResultDto;
+import com.example.cleanapi.borders.dtos.BatchItemResultDto;
 import com.example.cleanapi.borders.dtos.CreateUserDto;
+import com.example.cleanapi.borders.dtos.PatchUserDto;
 import com.example.cleanapi.borders.dtos.UpdateUserDto;
+import com.example.cleanapi.borders.dtos.UserChangeDto;
+import com.example.cleanapi.borders.dtos.UserChangePageDto;
+import com.example.cleanapi.borders.dtos.UserLookupDto;
+import com.example.cleanapi.borders.dtos.UserLookupItemDto;
+import com.example.cleanapi.borders.dtos.UserLookupResultDto;
+import com.example.cleanapi.borders.dtos.UserPageDto;
 import com.example.cleanapi.borders.dtos.UserResponseDto;
 import com.example.cleanapi.borders.entities.User;
+import com.example.cleanapi.borders.entities.UserChangeType;
+import com.example.cleanapi.borders.entities.UserField;
+import com.example.cleanapi.borders.entities.UserVersion;
+import com.example.cleanapi.borders.exceptions.EmailConflictException;
+import com.example.cleanapi.borders.exceptions.UserNotFoundException;
+import com.example.cleanapi.borders.exceptions.ValidationFailedException;
+import com.example.cleanapi.borders.exceptions.VersionMismatchException;
+import com.example.cleanapi.borders.interfaces.UserChangeRepository;
+import com.example.cleanapi.borders.interfaces.UserEventPublisher;
+import com.example.cleanapi.borders.interfaces.UserExportRepository;
+import com.example.cleanapi.borders.interfaces.UserFieldConsumer;
+import com.example.cleanapi.borders.interfaces.UserProjectionRepository;
+import com.example.cleanapi.borders.interfaces.UserQueryRepository;
 import com.example.cleanapi.borders.interfaces.UserRepository;
+import com.example.cleanapi.borders.interfaces.UserRowConsumer;
 import com.example.cleanapi.borders.validators.UserValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,9 +37,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,6 +59,21 @@ class UserUseCaseImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserQueryRepository userQueryRepository;
+
+    @Mock
+    private UserExportRepository userExportRepository;
+
+    @Mock
+    private UserProjectionRepository userProjectionRepository;
+
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
     @Mock
     private UserValidator userValidator;
 
@@ -39,7 +81,9 @@ class UserUseCaseImplTest {
 
     @BeforeEach
     void setUp() {
-        userUseCase = new UserUseCaseImpl(userRepository, userValidator);
+        userUseCase = new UserUseCaseImpl(userRepository, userQueryRepository, userExportRepository,
+                                          userProjectionRepository, userChangeRepository, userEventPublisher,
+                                          userValidator);
     }
 
     @Test
@@ -54,7 +98,6 @@ class UserUseCaseImplTest {
             new UserValidator.ValidationResult(true, List.of());
 
         when(userValidator.validateCreateUser(createDto)).thenReturn(validResult);
-        when(userRepository.existsByEmail(createDto.getEmail())).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
         // Act
@@ -67,7 +110,44 @@ class UserUseCaseImplTest {
         assertEquals(savedUser.getEmail(), result.getEmail());
         
         verify(userValidator).validateCreateUser(createDto);
-        verify(userRepository).existsByEmail(createDto.getEmail());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).save(any(User.class));
+        verify(userEventPublisher).publish(argThat(event ->
+            event.getType() == UserChangeType.CREATED && event.getUser() == result));
+    }
+
+    @Test
+    @DisplayName("Should reject a create early when the email filter reports a taken email")
+    void shouldRejectCreateWhenEmailFilterReportsTakenEmail() {
+        // Arrange
+        CreateUserDto createDto = new CreateUserDto("John Doe", "john.doe@example.com");
+        when(userValidator.validateCreateUser(createDto))
+            .thenReturn(new UserValidator.ValidationResult(true, List.of()));
+        when(userRepository.emailHint("john.doe@example.com")).thenReturn(UserRepository.EmailHint.POSSIBLY_PRESENT);
+        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(EmailConflictException.class, () -> userUseCase.createUser(createDto));
+        verify(userRepository, never()).save(any(User.class));
+        verify(userEventPublisher, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("Should insert without a pre-check when the email filter rules the email out")
+    void shouldSkipPreCheckWhenEmailFilterRulesEmailOut() {
+        // Arrange
+        CreateUserDto createDto = new CreateUserDto("John Doe", "john.doe@example.com");
+        User savedUser = new User(1L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(userValidator.validateCreateUser(createDto))
+            .thenReturn(new UserValidator.ValidationResult(true, List.of()));
+        when(userRepository.emailHint("john.doe@example.com")).thenReturn(UserRepository.EmailHint.ABSENT);
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+
+        // Act
+        userUseCase.createUser(createDto);
+
+        // Assert
+        verify(userRepository, never()).existsByEmail(anyString());
         verify(userRepository).save(any(User.class));
     }
 
@@ -82,14 +162,15 @@ class UserUseCaseImplTest {
         when(userValidator.validateCreateUser(createDto)).thenReturn(invalidResult);
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
+        ValidationFailedException exception = assertThrows(
+            ValidationFailedException.class,
             () -> userUseCase.createUser(createDto)
         );
         assertTrue(exception.getMessage().contains("Validation failed"));
         
         verify(userValidator).validateCreateUser(createDto);
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userEventPublisher);
     }
 
     @Test
@@ -101,18 +182,115 @@ class UserUseCaseImplTest {
             new UserValidator.ValidationResult(true, List.of());
 
         when(userValidator.validateCreateUser(createDto)).thenReturn(validResult);
-        when(userRepository.existsByEmail(createDto.getEmail())).thenReturn(true);
+        when(userRepository.save(any(User.class)))
+            .thenThrow(new EmailConflictException("User with this email already exists"));
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
+        EmailConflictException exception = assertThrows(
+            EmailConflictException.class,
             () -> userUseCase.createUser(createDto)
         );
         assertEquals("User with this email already exists", exception.getMessage());
         
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should create batch with one existence query and report per-item results")
+    void shouldCreateBatchWithPerItemResults() {
+        // Arrange
+        CreateUserDto valid = new CreateUserDto("John Doe", "john.doe@example.com");
+        CreateUserDto invalid = new CreateUserDto("", "invalid-email");
+        CreateUserDto existing = new CreateUserDto("Jane Doe", "jane.doe@example.com");
+        CreateUserDto duplicate = new CreateUserDto("Johnny Doe", "john.doe@example.com");
+        List<CreateUserDto> batch = Arrays.asList(valid, invalid, existing, duplicate);
+        
+        UserValidator.ValidationResult validResult = 
+            new UserValidator.ValidationResult(true, List.of());
+        UserValidator.ValidationResult invalidResult = 
+            new UserValidator.ValidationResult(false, List.of("Name is required"));
+
+        when(userValidator.validateCreateUser(any(CreateUserDto.class))).thenReturn(validResult);
+        when(userValidator.validateCreateUser(invalid)).thenReturn(invalidResult);
+        when(userRepository.findExistingEmails(Set.of("john.doe@example.com", "jane.doe@example.com")))
+            .thenReturn(Set.of("jane.doe@example.com"));
+        when(userRepository.saveAll(anyList())).thenReturn(List.of(
+            new User(7L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now())
+        ));
+
+        // Act
+        BatchCreateResultDto result = userUseCase.createUsers(batch);
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(BatchItemResultDto.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(7L, result.getResults().get(0).getUser().getId());
+        assertEquals(BatchItemResultDto.Status.INVALID, result.getResults().get(1).getStatus());
+        assertEquals(BatchItemResultDto.Status.CONFLICT, result.getResults().get(2).getStatus());
+        assertEquals(BatchItemResultDto.Status.CONFLICT, result.getResults().get(3).getStatus());
+        
+        verify(userRepository).findExistingEmails(anyCollection());
+        verify(userRepository).saveAll(argThat(users -> users.size() == 1));
+        verify(userRepository, never()).existsByEmail(anyString());
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Should report an email taken concurrently as a per-item conflict and create the rest")
+    void shouldReportBatchItemTakenConcurrently() {
+        // Arrange: both emails are free at the check, one is taken before the insert
+        CreateUserDto john = new CreateUserDto("John Doe", "john.doe@example.com");
+        CreateUserDto jane = new CreateUserDto("Jane Doe", "jane.doe@example.com");
+        when(userValidator.validateCreateUser(any(CreateUserDto.class)))
+            .thenReturn(new UserValidator.ValidationResult(true, List.of()));
+        when(userRepository.findExistingEmails(anyCollection()))
+            .thenReturn(Set.of())
+            .thenReturn(Set.of("jane.doe@example.com"));
+        when(userRepository.saveAll(anyList()))
+            .thenThrow(new EmailConflictException())
+            .thenReturn(List.of(
+                new User(7L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now())));
+
+        // Act
+        BatchCreateResultDto result = userUseCase.createUsers(List.of(john, jane));
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        assertEquals(BatchItemResultDto.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(BatchItemResultDto.Status.CONFLICT, result.getResults().get(1).getStatus());
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should give up on a batch whose emails keep being taken concurrently")
+    void shouldFailBatchAfterRepeatedConflicts() {
+        // Arrange: the conflicting row is gone again whenever the batch looks for it
+        when(userValidator.validateCreateUser(any(CreateUserDto.class)))
+            .thenReturn(new UserValidator.ValidationResult(true, List.of()));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userRepository.saveAll(anyList())).thenThrow(new EmailConflictException());
+        List<CreateUserDto> batch = List.of(new CreateUserDto("John Doe", "john.doe@example.com"));
+
+        // Act & Assert
+        assertThrows(EmailConflictException.class, () -> userUseCase.createUsers(batch));
+        verify(userRepository, times(UserUseCaseImpl.MAX_BATCH_SAVE_ATTEMPTS)).saveAll(anyList());
+        verifyNoInteractions(userEventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should reject empty or oversized batch")
+    void shouldRejectEmptyOrOversizedBatch() {
+        List<CreateUserDto> oversized = Collections.nCopies(
+            UserUseCaseImpl.MAX_BATCH_SIZE + 1, new CreateUserDto("John Doe", "john.doe@example.com"));
+        
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.createUsers(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.createUsers(oversized));
+        
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("Should get user by ID successfully")
     void shouldGetUserByIdSuccessfully() {
@@ -121,7 +299,7 @@ class UserUseCaseImplTest {
         User user = new User(userId, "John Doe", "john.doe@example.com", 
                            LocalDateTime.now(), LocalDateTime.now());
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.of(UserResponseDto.of(user)));
 
         // Act
         UserResponseDto result = userUseCase.getUserById(userId);
@@ -132,7 +310,7 @@ class UserUseCaseImplTest {
         assertEquals(user.getName(), result.getName());
         assertEquals(user.getEmail(), result.getEmail());
         
-        verify(userRepository).findById(userId);
+        verify(userQueryRepository).findById(userId);
     }
 
     @Test
@@ -140,28 +318,76 @@ class UserUseCaseImplTest {
     void shouldThrowExceptionWhenUserNotFoundById() {
         // Arrange
         Long userId = 999L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
+        UserNotFoundException exception = assertThrows(
+            UserNotFoundException.class,
             () -> userUseCase.getUserById(userId)
         );
         assertTrue(exception.getMessage().contains("User not found with ID"));
+        assertEquals(userId, exception.getUserId());
+        assertEquals(0, exception.getStackTrace().length);
         
-        verify(userRepository).findById(userId);
+        verify(userQueryRepository).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Should return lookup results in request order with not-found markers")
+    void shouldLookupUsersInRequestOrder() {
+        // Arrange
+        User john = new User(1L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        User jane = new User(2L, "Jane Doe", "jane.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(userRepository.findAllByIds(List.of(2L, 99L, 1L))).thenReturn(List.of(john, jane));
+        when(userRepository.findAllByEmails(List.of("nobody@example.com", "john.doe@example.com")))
+            .thenReturn(List.of(john));
+        UserLookupDto lookup = new UserLookupDto(Arrays.asList(2L, 99L, -5L, 1L),
+                                                 List.of("nobody@example.com", "john.doe@example.com"));
+
+        // Act
+        UserLookupResultDto result = userUseCase.lookupUsers(lookup);
+
+        // Assert
+        assertEquals(3, result.getFound());
+        assertEquals(3, result.getNotFound());
+        List<UserLookupItemDto> items = result.getResults();
+        assertEquals(Arrays.asList(2L, 99L, -5L, 1L, null, null),
+                     items.stream().map(UserLookupItemDto::getId).toList());
+        assertEquals("Jane Doe", items.get(0).getUser().getName());
+        assertEquals(UserLookupItemDto.Status.NOT_FOUND, items.get(1).getStatus());
+        assertEquals(UserLookupItemDto.Status.NOT_FOUND, items.get(2).getStatus());
+        assertEquals("John Doe", items.get(3).getUser().getName());
+        assertEquals(UserLookupItemDto.Status.NOT_FOUND, items.get(4).getStatus());
+        assertEquals("john.doe@example.com", items.get(5).getEmail());
+        assertEquals(UserLookupItemDto.Status.FOUND, items.get(5).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject empty and oversized lookups")
+    void shouldRejectEmptyAndOversizedLookups() {
+        // Arrange
+        List<Long> oversized = new ArrayList<>();
+        for (long id = 1; id <= UserUseCaseImpl.MAX_LOOKUP_SIZE + 1; id++) {
+            oversized.add(id);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.lookupUsers(new UserLookupDto()));
+        assertThrows(IllegalArgumentException.class,
+            () -> userUseCase.lookupUsers(new UserLookupDto(oversized, null)));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     @DisplayName("Should get all users successfully")
     void shouldGetAllUsersSuccessfully() {
         // Arrange
-        List<User> users = Arrays.asList(
-            new User(1L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now()),
-            new User(2L, "Jane Doe", "jane.doe@example.com", LocalDateTime.now(), LocalDateTime.now())
+        List<UserResponseDto> users = Arrays.asList(
+            new UserResponseDto(1L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new UserResponseDto(2L, "Jane Doe", "jane.doe@example.com", LocalDateTime.now(), LocalDateTime.now())
         );
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userQueryRepository.findAll()).thenReturn(users);
 
         // Act
         List<UserResponseDto> result = userUseCase.getAllUsers();
@@ -172,7 +398,134 @@ class UserUseCaseImplTest {
         assertEquals(users.get(0).getName(), result.get(0).getName());
         assertEquals(users.get(1).getName(), result.get(1).getName());
         
-        verify(userRepository).findAll();
+        verify(userQueryRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("Should return first page with next cursor when more users exist")
+    void shouldReturnFirstPageWithNextCursor() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<UserResponseDto> users = Arrays.asList(
+            new UserResponseDto(1L, "John Doe", "john.doe@example.com", createdAt, createdAt),
+            new UserResponseDto(2L, "Jane Doe", "jane.doe@example.com", createdAt, createdAt),
+            new UserResponseDto(3L, "Mary Doe", "mary.doe@example.com", createdAt.plusSeconds(1), createdAt)
+        );
+
+        when(userQueryRepository.findPage(null, null, 3)).thenReturn(users);
+        when(userRepository.count()).thenReturn(10L);
+
+        // Act
+        UserPageDto page = userUseCase.getUsersPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.getUsers().size());
+        assertEquals(10L, page.getTotalCount());
+        assertTrue(page.hasNext());
+        
+        UserCursor cursor = UserCursor.decode(page.getNextCursor());
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(2L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor and stop on the last page")
+    void shouldContinueAfterCursorAndStopOnLastPage() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        String after = new UserCursor(createdAt, 2L).encode();
+        List<UserResponseDto> users = List.of(
+            new UserResponseDto(3L, "Mary Doe", "mary.doe@example.com", createdAt.plusSeconds(1), createdAt)
+        );
+
+        when(userQueryRepository.findPage(createdAt, 2L, 3)).thenReturn(users);
+
+        // Act
+        UserPageDto page = userUseCase.getUsersPage(after, 2);
+
+        // Assert
+        assertEquals(1, page.getUsers().size());
+        assertEquals(3L, page.getUsers().get(0).getId());
+        assertFalse(page.hasNext());
+        // Only the first page pays for a full count
+        assertNull(page.getTotalCount());
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor and out of range limit")
+    void shouldRejectMalformedCursorAndInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.getUsersPage("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.getUsersPage(null, 0));
+        assertThrows(IllegalArgumentException.class, 
+            () -> userUseCase.getUsersPage(null, UserUseCaseImpl.MAX_PAGE_SIZE + 1));
+        
+        verify(userRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should pass on only the page rows of a sparse page and build the cursor from the extra row")
+    void shouldLimitSparsePageAndBuildCursor() throws Exception {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        when(userProjectionRepository.findPage(isNull(), isNull(), eq(3),
+                eq(EnumSet.of(UserField.ID, UserField.EMAIL, UserField.CREATED_AT)), any()))
+            .thenAnswer(invocation -> {
+                UserFieldConsumer page = invocation.getArgument(4);
+                for (long id = 1; id <= 3; id++) {
+                    page.startUser();
+                    page.longField(UserField.ID, id);
+                    page.stringField(UserField.EMAIL, "user" + id + "@example.com");
+                    page.dateTimeField(UserField.CREATED_AT, createdAt.plusSeconds(id));
+                    page.endUser();
+                }
+                return 3L;
+            });
+        when(userRepository.count()).thenReturn(3L);
+        UserFieldConsumer consumer = mock(UserFieldConsumer.class);
+
+        // Act
+        UserPageDto page = userUseCase.getUsersPage(null, 2, EnumSet.of(UserField.EMAIL), consumer);
+
+        // Assert
+        verify(consumer, times(2)).startUser();
+        verify(consumer, never()).stringField(UserField.EMAIL, "user3@example.com");
+        assertTrue(page.hasNext());
+        assertEquals(3L, page.getTotalCount());
+
+        when(userProjectionRepository.findPage(eq(createdAt.plusSeconds(2)), eq(2L), eq(3), any(), any()))
+            .thenReturn(1L);
+        UserPageDto next = userUseCase.getUsersPage(page.getNextCursor(), 2, EnumSet.of(UserField.EMAIL), consumer);
+        verify(userProjectionRepository).findPage(eq(createdAt.plusSeconds(2)), eq(2L), eq(3), any(), any());
+        assertNull(next.getTotalCount());
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Should report a missing user on a sparse read")
+    void shouldThrowWhenSparseUserNotFound() {
+        // Arrange
+        when(userProjectionRepository.findById(eq(999L), any(), any())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class,
+            () -> userUseCase.getUserFields(999L, EnumSet.of(UserField.EMAIL), mock(UserFieldConsumer.class)));
+    }
+
+    @Test
+    @DisplayName("Should stream export straight from the export repository")
+    void shouldStreamExportFromExportRepository() {
+        // Arrange
+        UserRowConsumer consumer = (id, name, email, createdAt, updatedAt) -> { };
+        when(userExportRepository.streamAll(consumer)).thenReturn(42L);
+
+        // Act
+        long exported = userUseCase.exportUsers(consumer);
+
+        // Assert
+        assertEquals(42L, exported);
+        verify(userExportRepository).streamAll(consumer);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -181,8 +534,6 @@ class UserUseCaseImplTest {
         // Arrange
         Long userId = 1L;
         UpdateUserDto updateDto = new UpdateUserDto("Jane Doe", "jane.doe@example.com");
-        User existingUser = new User(userId, "John Doe", "john.doe@example.com", 
-                                   LocalDateTime.now(), LocalDateTime.now());
         User updatedUser = new User(userId, "Jane Doe", "jane.doe@example.com", 
                                   LocalDateTime.now(), LocalDateTime.now());
         
@@ -190,9 +541,7 @@ class UserUseCaseImplTest {
             new UserValidator.ValidationResult(true, List.of());
 
         when(userValidator.validateUpdateUser(updateDto)).thenReturn(validResult);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.existsByEmail(updateDto.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.update(any(User.class))).thenReturn(Optional.of(updatedUser));
 
         // Act
         UserResponseDto result = userUseCase.updateUser(userId, updateDto);
@@ -203,8 +552,165 @@ class UserUseCaseImplTest {
         assertEquals(updatedUser.getEmail(), result.getEmail());
         
         verify(userValidator).validateUpdateUser(updateDto);
-        verify(userRepository).findById(userId);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).update(argThat(user -> userId.equals(user.getId()) 
+                                                    && "Jane Doe".equals(user.getName())));
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should let an update keep its own email but reject another user's")
+    void shouldRejectUpdateToAnotherUsersEmail() {
+        // Arrange
+        UpdateUserDto ownEmail = new UpdateUserDto("Jane Doe", "jane.doe@example.com");
+        UpdateUserDto takenEmail = new UpdateUserDto("Jane Doe", "john.doe@example.com");
+        User jane = new User(1L, "Jane Doe", "jane.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        User john = new User(2L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(userValidator.validateUpdateUser(any(UpdateUserDto.class)))
+            .thenReturn(new UserValidator.ValidationResult(true, List.of()));
+        when(userRepository.emailHint(anyString())).thenReturn(UserRepository.EmailHint.POSSIBLY_PRESENT);
+        when(userRepository.findByEmail("jane.doe@example.com")).thenReturn(Optional.of(jane));
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(john));
+        when(userRepository.update(any(User.class))).thenReturn(Optional.of(jane));
+
+        // Act
+        userUseCase.updateUser(1L, ownEmail);
+
+        // Assert
+        assertThrows(EmailConflictException.class, () -> userUseCase.updateUser(1L, takenEmail));
+        verify(userRepository, times(1)).update(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when updating non-existent user")
+    void shouldThrowExceptionWhenUpdatingNonExistentUser() {
+        // Arrange
+        Long userId = 999L;
+        UpdateUserDto updateDto = new UpdateUserDto("Jane Doe", "jane.doe@example.com");
+        UserValidator.ValidationResult validResult = 
+            new UserValidator.ValidationResult(true, List.of());
+
+        when(userValidator.validateUpdateUser(updateDto)).thenReturn(validResult);
+        when(userRepository.update(any(User.class))).thenReturn(Optional.empty());
+
+        // Act & Assert
+        UserNotFoundException exception = assertThrows(
+            UserNotFoundException.class,
+            () -> userUseCase.updateUser(userId, updateDto)
+        );
+        assertTrue(exception.getMessage().contains("User not found with ID"));
+    }
+
+    @Test
+    @DisplayName("Should pass the expected version to the conditional update")
+    void shouldPassExpectedVersionToUpdate() {
+        // Arrange
+        UpdateUserDto updateDto = new UpdateUserDto("Jane Doe", "jane.doe@example.com");
+        UserValidator.ValidationResult validResult = 
+            new UserValidator.ValidationResult(true, List.of());
+
+        when(userValidator.validateUpdateUser(updateDto)).thenReturn(validResult);
+        when(userRepository.update(argThat(user -> Long.valueOf(3L).equals(user.getVersion()))))
+            .thenThrow(new VersionMismatchException("User was modified concurrently"));
+
+        // Act & Assert
+        assertThrows(
+            VersionMismatchException.class,
+            () -> userUseCase.updateUser(1L, updateDto, 3L)
+        );
+    }
+
+    @Test
+    @DisplayName("Should delete with the expected version when one is given")
+    void shouldDeleteWithExpectedVersion() {
+        // Arrange
+        when(userRepository.deleteById(1L, 3L)).thenReturn(true);
+
+        // Act
+        assertDoesNotThrow(() -> userUseCase.deleteUser(1L, 3L));
+
+        // Assert
+        verify(userRepository, never()).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("Should return version stamp without loading the user")
+    void shouldReturnVersionStampWithoutLoadingUser() {
+        // Arrange
+        UserVersion version = new UserVersion(4L, LocalDateTime.now());
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        // Act
+        UserVersion result = userUseCase.getUserVersion(1L);
+
+        // Assert
+        assertEquals(version, result);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should patch only the fields present")
+    void shouldPatchOnlyPresentFields() {
+        // Arrange
+        Long userId = 1L;
+        PatchUserDto patchDto = PatchUserDto.ofName("Jane Doe");
+        User patchedUser = new User(userId, "Jane Doe", "john.doe@example.com", 
+                                  LocalDateTime.now(), LocalDateTime.now());
+        UserValidator.ValidationResult validResult = 
+            new UserValidator.ValidationResult(true, List.of());
+
+        when(userValidator.validatePatchUser(patchDto)).thenReturn(validResult);
+        when(userRepository.patch(eq(userId), eq("Jane Doe"), isNull(), any(LocalDateTime.class)))
+            .thenReturn(Optional.of(patchedUser));
+
+        // Act
+        UserResponseDto result = userUseCase.patchUser(userId, patchDto);
+
+        // Assert
+        assertEquals("Jane Doe", result.getName());
+        assertEquals("john.doe@example.com", result.getEmail());
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).update(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid patch without touching the repository")
+    void shouldRejectInvalidPatch() {
+        // Arrange
+        PatchUserDto patchDto = PatchUserDto.ofEmail(null);
+        UserValidator.ValidationResult invalidResult = 
+            new UserValidator.ValidationResult(false, List.of("Email cannot be removed"));
+
+        when(userValidator.validatePatchUser(patchDto)).thenReturn(invalidResult);
+
+        // Act & Assert
+        ValidationFailedException exception = assertThrows(
+            ValidationFailedException.class,
+            () -> userUseCase.patchUser(1L, patchDto)
+        );
+        assertTrue(exception.getMessage().contains("Email cannot be removed"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when patching non-existent user")
+    void shouldThrowExceptionWhenPatchingNonExistentUser() {
+        // Arrange
+        PatchUserDto patchDto = PatchUserDto.ofEmail("jane.doe@example.com");
+        UserValidator.ValidationResult validResult = 
+            new UserValidator.ValidationResult(true, List.of());
+
+        when(userValidator.validatePatchUser(patchDto)).thenReturn(validResult);
+        when(userRepository.patch(eq(999L), isNull(), eq("jane.doe@example.com"), any(LocalDateTime.class)))
+            .thenReturn(Optional.empty());
+
+        // Act & Assert
+        UserNotFoundException exception = assertThrows(
+            UserNotFoundException.class,
+            () -> userUseCase.patchUser(999L, patchDto)
+        );
+        assertTrue(exception.getMessage().contains("User not found with ID"));
     }
 
     @Test
@@ -212,15 +718,16 @@ class UserUseCaseImplTest {
     void shouldDeleteUserSuccessfully() {
         // Arrange
         Long userId = 1L;
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(userRepository.deleteById(userId)).thenReturn(true);
 
         // Act
         assertDoesNotThrow(() -> userUseCase.deleteUser(userId));
 
         // Assert
-        verify(userRepository).existsById(userId);
+        verify(userRepository, never()).existsById(userId);
         verify(userRepository).deleteById(userId);
+        verify(userEventPublisher).publish(argThat(event ->
+            event.getType() == UserChangeType.DELETED && event.getUserId().equals(userId) && event.getUser() == null));
     }
 
     @Test
@@ -228,16 +735,48 @@ class UserUseCaseImplTest {
     void shouldThrowExceptionWhenDeletingNonExistentUser() {
         // Arrange
         Long userId = 999L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userRepository.deleteById(userId)).thenReturn(false);
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class,
+        UserNotFoundException exception = assertThrows(
+            UserNotFoundException.class,
             () -> userUseCase.deleteUser(userId)
         );
         assertTrue(exception.getMessage().contains("User not found with ID"));
         
-        verify(userRepository).existsById(userId);
-        verify(userRepository, never()).deleteById(userId);
+        verify(userRepository, never()).existsById(userId);
+        verify(userRepository).deleteById(userId);
+    }
+
+    @Test
+    @DisplayName("Should page the change feed, attach current users and resume after the last sequence number")
+    void shouldPageChangeFeed() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<UserChangeDto> changes = List.of(
+            new UserChangeDto(11L, UserChangeType.CREATED, 1L, now, null),
+            new UserChangeDto(12L, UserChangeType.DELETED, 2L, now, null),
+            new UserChangeDto(13L, UserChangeType.UPDATED, 3L, now, null));
+        when(userChangeRepository.findSince(10L, 3)).thenReturn(changes);
+        when(userChangeRepository.findSince(13L, 3)).thenReturn(List.of());
+        when(userRepository.findAllByIds(Set.of(1L)))
+            .thenReturn(List.of(new User(1L, "John Doe", "john.doe@example.com", now, now)));
+
+        // Act
+        UserChangePageDto page = userUseCase.getChanges(10L, 2);
+        UserChangePageDto caughtUp = userUseCase.getChanges(13L, 2);
+
+        // Assert
+        assertEquals(2, page.getChanges().size());
+        assertEquals("John Doe", page.getChanges().get(0).getUser().getName());
+        assertNull(page.getChanges().get(1).getUser());
+        assertEquals(12L, page.getNextSince());
+        assertTrue(page.isHasMore());
+        assertTrue(caughtUp.isEmpty());
+        assertEquals(13L, caughtUp.getNextSince());
+        assertFalse(caughtUp.isHasMore());
+        assertThrows(IllegalArgumentException.class, () -> userUseCase.getChanges(-1L, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> userUseCase.getChanges(0L, UserUseCaseImpl.MAX_CHANGES_PAGE_SIZE + 1));
     }
 }